@@ -0,0 +1,41 @@
+#!/usr/bin/env bash
+# Builds the servlet (Tomcat) and reactive (Reactor Netty) jars, runs the same k6 load against each
+# and prints p99 latency and throughput side by side. Needs: mvn, java, k6, jq and a MongoDB at MONGODB_URI.
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/../.." && pwd)"
+OUT="${OUT:-$ROOT/target/loadtest}"
+PORT="${PORT:-8080}"
+MONGODB_URI="${MONGODB_URI:-mongodb://localhost:27017/loadtest}"
+
+mkdir -p "$OUT"
+
+run_mode() {
+  local mode="$1" flags="$2"
+
+  (cd "$ROOT" && mvn -B -q clean package -DskipTests $flags)
+  cp "$ROOT/target/recipex-0.0.1-SNAPSHOT.jar" "$OUT/recipex-$mode.jar"
+
+  java -jar "$OUT/recipex-$mode.jar" \
+    --server.port="$PORT" \
+    --spring.data.mongodb.uri="$MONGODB_URI" \
+    --recipex.cache.recipes.change-stream-enabled=false > "$OUT/$mode.log" 2>&1 &
+  local pid=$!
+  trap "kill $pid 2>/dev/null || true" RETURN
+
+  until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do sleep 1; done
+
+  k6 run --quiet -e BASE_URL="http://localhost:$PORT" \
+    --summary-export "$OUT/$mode.json" "$ROOT/ci/loadtest/recipex.js"
+}
+
+run_mode servlet ""
+run_mode reactive "-Dreactive"
+
+printf '%-10s %12s %12s %10s\n' mode p99_ms req_per_s failed
+for mode in servlet reactive; do
+  jq -r --arg mode "$mode" \
+    '[$mode, .metrics.http_req_duration["p(99)"], .metrics.http_reqs.rate, .metrics.http_req_failed.value]
+      | @tsv' "$OUT/$mode.json" \
+    | awk '{ printf "%-10s %12.1f %12.0f %10.4f\n", $1, $2, $3, $4 }'
+done
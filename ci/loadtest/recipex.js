@@ -0,0 +1,77 @@
+// Read-heavy mix against a running recipex instance: k6 run -e BASE_URL=http://localhost:8080 recipex.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const JSON_HEADERS = { headers: { 'Content-Type': 'application/json' } };
+
+const SCENARIOS = {
+  // fixed request rate: compares latency and throughput
+  reads: {
+    executor: 'constant-arrival-rate',
+    rate: Number(__ENV.RATE || 2000),
+    timeUnit: '1s',
+    duration: __ENV.DURATION || '2m',
+    preAllocatedVUs: Number(__ENV.VUS || 200),
+    maxVUs: Number(__ENV.MAX_VUS || 1000),
+  },
+  // fixed number of connections each keeping a request in flight: compares capacity and memory
+  connections: {
+    executor: 'constant-vus',
+    vus: Number(__ENV.VUS || 200),
+    duration: __ENV.DURATION || '2m',
+  },
+};
+
+const SCENARIO = __ENV.SCENARIO || 'reads';
+
+export const options = {
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+  scenarios: { [SCENARIO]: SCENARIOS[SCENARIO] },
+};
+
+export function setup() {
+  const user = http.post(`${BASE_URL}/register`, JSON.stringify({
+    name: 'Load',
+    surname: 'Test',
+    email: `loadtest-${Date.now()}@example.com`,
+    password: 'Password@123',
+  }), JSON_HEADERS).json();
+
+  const recipes = [];
+  for (let i = 0; i < 20; i++) {
+    recipes.push({
+      title: 'loadtest-recipe',
+      description: 'Seeded by ci/loadtest',
+      ingredients: ['flour', 'eggs'],
+      instructions: ['Mix.', 'Bake.'],
+      tags: ['loadtest', `tag-${i % 5}`],
+      reviews: [{ userId: 'loadtest', rating: 1 + (i % 5), comment: 'ok' }],
+    });
+  }
+
+  const created = http.post(`${BASE_URL}/recipes/${user.id}`, JSON.stringify(recipes), JSON_HEADERS).json();
+  return { userId: user.id, recipeIds: created.map((recipe) => recipe.recipeId) };
+}
+
+export default function (data) {
+  const recipeId = data.recipeIds[Math.floor(Math.random() * data.recipeIds.length)];
+  const roll = Math.random();
+
+  let response;
+  if (roll < 0.5) {
+    response = http.get(`${BASE_URL}/recipe/${recipeId}`, { tags: { name: 'getRecipe' } });
+  } else if (roll < 0.7) {
+    response = http.get(`${BASE_URL}/recipes/by-title/loadtest-recipe?limit=20`, { tags: { name: 'byTitle' } });
+  } else if (roll < 0.9) {
+    response = http.get(`${BASE_URL}/recipes/by-tags?tags=tag-1&tags=tag-2&limit=20`, { tags: { name: 'byTags' } });
+  } else {
+    response = http.get(`${BASE_URL}/${recipeId}/reviews?limit=20`, { tags: { name: 'reviews' } });
+  }
+
+  check(response, { 'status is 200': (r) => r.status === 200 });
+}
+
+export function teardown(data) {
+  http.del(`${BASE_URL}/user/${data.userId}`);
+}
@@ -0,0 +1,46 @@
+// Search latency against a seeded recipex instance: k6 run -e BASE_URL=http://localhost:8080 search.js
+// Mixes common single terms, rarer phrases and follow-up pages, reported separately by tag.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+
+const COMMON = ['curry', 'chicken', 'soup', 'spicy', 'dinner', 'garlic'];
+const RARE = ['halloumi tart', 'smoky duck risotto', 'zesty cod paella', 'coconut lentil'];
+
+export const options = {
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+  // a threshold per tag makes k6 export each query kind's latency on its own
+  thresholds: {
+    'http_req_duration{name:commonTerm}': ['max>=0'],
+    'http_req_duration{name:rareTerm}': ['max>=0'],
+    'http_req_duration{name:nextPage}': ['max>=0'],
+  },
+  scenarios: {
+    search: {
+      executor: 'constant-arrival-rate',
+      rate: Number(__ENV.RATE || 200),
+      timeUnit: '1s',
+      duration: __ENV.DURATION || '2m',
+      preAllocatedVUs: Number(__ENV.VUS || 100),
+      maxVUs: Number(__ENV.MAX_VUS || 500),
+    },
+  },
+};
+
+const pick = (values) => values[Math.floor(Math.random() * values.length)];
+
+export default function () {
+  const common = Math.random() < 0.7;
+  const q = encodeURIComponent(common ? pick(COMMON) : pick(RARE));
+  const name = common ? 'commonTerm' : 'rareTerm';
+
+  const first = http.get(`${BASE_URL}/recipes/search?q=${q}&limit=20`, { tags: { name } });
+  check(first, { 'status is 200': (r) => r.status === 200 });
+
+  const cursor = first.headers['X-Next-Cursor'];
+  if (cursor && Math.random() < 0.3) {
+    const next = http.get(`${BASE_URL}/recipes/search?q=${q}&limit=20&cursor=${cursor}`, { tags: { name: 'nextPage' } });
+    check(next, { 'status is 200': (r) => r.status === 200 });
+  }
+}
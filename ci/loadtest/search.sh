@@ -0,0 +1,36 @@
+#!/usr/bin/env bash
+# Seeds MONGODB_URI with COUNT synthetic recipes (1M by default), prints $text against $regex query plans,
+# then runs the search k6 load against the servlet jar and prints latency per query kind.
+# Needs: mvn, java, mongosh, k6, jq, curl and a MongoDB at MONGODB_URI.
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/../.." && pwd)"
+OUT="${OUT:-$ROOT/target/loadtest}"
+PORT="${PORT:-8080}"
+MONGODB_URI="${MONGODB_URI:-mongodb://localhost:27017/loadtest}"
+COUNT="${COUNT:-1000000}"
+
+mkdir -p "$OUT"
+
+mongosh --quiet "$MONGODB_URI" --eval "const COUNT=$COUNT" "$ROOT/ci/loadtest/seed-recipes.js" | tee "$OUT/search-plans.txt"
+
+(cd "$ROOT" && mvn -B -q clean package -DskipTests)
+cp "$ROOT/target/recipex-0.0.1-SNAPSHOT.jar" "$OUT/recipex-search.jar"
+
+java -jar "$OUT/recipex-search.jar" \
+  --server.port="$PORT" \
+  --spring.data.mongodb.uri="$MONGODB_URI" \
+  --recipex.cache.recipes.change-stream-enabled=false > "$OUT/search.log" 2>&1 &
+PID=$!
+trap "kill $PID 2>/dev/null || true" EXIT
+
+until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do sleep 1; done
+
+k6 run --quiet -e BASE_URL="http://localhost:$PORT" --summary-export "$OUT/search.json" "$ROOT/ci/loadtest/search.js"
+
+printf '%-12s %10s %10s %10s\n' query p50_ms p95_ms p99_ms
+jq -r '.metrics | to_entries[]
+    | select(.key | startswith("http_req_duration{name:"))
+    | [(.key | capture("name:(?<n>[^}]+)").n), .value["p(50)"], .value["p(95)"], .value["p(99)"]] | @tsv' \
+  "$OUT/search.json" \
+  | awk '{ printf "%-12s %10.1f %10.1f %10.1f\n", $1, $2, $3, $4 }'
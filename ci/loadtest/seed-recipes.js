@@ -0,0 +1,58 @@
+// Seeds synthetic recipes for the search benchmark: mongosh "$MONGODB_URI" --eval "const COUNT=1000000" seed-recipes.js
+// Titles, tags and ingredients are drawn from small vocabularies, so common and rare terms both exist.
+const TOTAL = typeof COUNT !== 'undefined' ? COUNT : 1000000;
+const BATCH = 10000;
+
+const DISHES = ['curry', 'stew', 'salad', 'soup', 'pie', 'risotto', 'tacos', 'noodles', 'pancakes', 'roast',
+  'casserole', 'burger', 'omelette', 'paella', 'lasagna', 'chili', 'gratin', 'dumplings', 'kebab', 'tart'];
+const MAINS = ['chicken', 'beef', 'lamb', 'tofu', 'salmon', 'prawn', 'mushroom', 'lentil', 'pork', 'chickpea',
+  'aubergine', 'duck', 'cod', 'halloumi', 'spinach'];
+const STYLES = ['spicy', 'creamy', 'smoky', 'quick', 'classic', 'crispy', 'zesty', 'hearty', 'sweet', 'herby'];
+const INGREDIENTS = ['onion', 'garlic', 'ginger', 'cumin', 'coriander', 'tomato', 'coconut milk', 'rice', 'lemon',
+  'chili flakes', 'paprika', 'butter', 'cream', 'parsley', 'basil', 'soy sauce', 'honey', 'potato', 'carrot', 'peas'];
+const TAGS = ['dinner', 'lunch', 'vegan', 'vegetarian', 'gluten-free', 'weeknight', 'comfort', 'healthy', 'party',
+  'budget'];
+
+const pick = (values, i, salt) => values[Math.abs((i * 2654435761 + salt * 40503) | 0) % values.length];
+
+const recipes = db.getCollection('recipes');
+const existing = recipes.estimatedDocumentCount();
+print(`recipes already present: ${existing}, seeding up to ${TOTAL}`);
+
+for (let start = existing; start < TOTAL; start += BATCH) {
+  const docs = [];
+  for (let i = start; i < Math.min(start + BATCH, TOTAL); i++) {
+    const dish = pick(DISHES, i, 1);
+    const main = pick(MAINS, i, 2);
+    const style = pick(STYLES, i, 3);
+    docs.push({
+      _id: require('crypto').randomUUID().toUpperCase(),
+      userId: `SEED-USER-${i % 5000}`,
+      title: `${style} ${main} ${dish}`,
+      description: `A ${style} ${dish} with ${main}, ${pick(INGREDIENTS, i, 4)} and ${pick(INGREDIENTS, i, 5)}.`,
+      ingredients: [main, pick(INGREDIENTS, i, 6), pick(INGREDIENTS, i, 7), pick(INGREDIENTS, i, 8)],
+      instructions: ['Prepare the ingredients.', `Cook the ${dish}.`, 'Serve.'],
+      tags: [pick(TAGS, i, 9), pick(TAGS, i, 10)],
+      createdAt: new Date(Date.now() - i * 1000),
+      reviewCount: NumberLong(0),
+      ratingSum: NumberLong(0),
+      version: NumberLong(0),
+    });
+  }
+  recipes.insertMany(docs, { ordered: false });
+  print(`seeded ${Math.min(start + BATCH, TOTAL)}`);
+}
+
+// the text index is normally created by the application on startup
+const weights = { title: 10, tags: 5, ingredients: 2, description: 1 };
+recipes.createIndex({ title: 'text', tags: 'text', ingredients: 'text', description: 'text' },
+  { name: 'DbUserRecipe_TextIndex', weights });
+
+// what the endpoint replaced: an unanchored regex cannot use an index and scans every recipe
+for (const term of ['curry', 'halloumi tart']) {
+  const text = recipes.find({ $text: { $search: term } }).limit(21).explain('executionStats').executionStats;
+  const regex = recipes.find({ title: { $regex: term, $options: 'i' } }).limit(21).explain('executionStats')
+    .executionStats;
+  print(`"${term}": $text ${text.executionTimeMillis} ms, ${text.totalDocsExamined} docs examined; `
+    + `$regex ${regex.executionTimeMillis} ms, ${regex.totalDocsExamined} docs examined`);
+}
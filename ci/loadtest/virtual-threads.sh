@@ -0,0 +1,86 @@
+#!/usr/bin/env bash
+# Builds the Java 21 servlet jar and runs it once on Tomcat's platform-thread pool and once on virtual
+# threads. For each concurrency level it keeps that many connections busy and samples the JVM through
+# actuator to report throughput, p99, live threads and memory per in-flight request.
+# Needs: a Java 21 runtime, mvn, k6, jq, curl and a MongoDB at MONGODB_URI.
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/../.." && pwd)"
+OUT="${OUT:-$ROOT/target/loadtest}"
+PORT="${PORT:-8080}"
+MONGODB_URI="${MONGODB_URI:-mongodb://localhost:27017/loadtest}"
+LEVELS="${LEVELS:-200 1000 5000 10000}"
+DURATION="${DURATION:-1m}"
+
+# k6 takes durations like 90s, 5m or 1h; the sample is taken halfway through
+duration_seconds() {
+  local amount="${1%[smh]}"
+  if [[ ! "$amount" =~ ^[0-9]+$ || "$amount" == "$1" ]]; then
+    echo "DURATION must be a whole number of seconds, minutes or hours, like 90s, 5m or 1h: $1" >&2
+    return 1
+  fi
+
+  case "$1" in
+    *h) echo $(( amount * 3600 )) ;;
+    *m) echo $(( amount * 60 )) ;;
+    *s) echo "$amount" ;;
+  esac
+}
+
+DURATION_SECONDS="$(duration_seconds "$DURATION")"
+
+mkdir -p "$OUT"
+
+(cd "$ROOT" && mvn -B -q clean package -DskipTests -Pjava21)
+cp "$ROOT/target/recipex-0.0.1-SNAPSHOT.jar" "$OUT/recipex-java21.jar"
+
+metric() {
+  curl -sf "http://localhost:$PORT/actuator/metrics/$1${2:+?tag=$2}" | jq '.measurements[0].value'
+}
+
+run_mode() {
+  local mode="$1" virtual="$2"
+
+  java -Djdk.tracePinnedThreads=short -jar "$OUT/recipex-java21.jar" \
+    --server.port="$PORT" \
+    --server.tomcat.max-connections=20000 \
+    --server.tomcat.accept-count=1000 \
+    --spring.threads.virtual.enabled="$virtual" \
+    --spring.data.mongodb.uri="$MONGODB_URI" \
+    --recipex.cache.recipes.change-stream-enabled=false > "$OUT/$mode-threads.log" 2>&1 &
+  local pid=$!
+  trap "kill $pid 2>/dev/null || true" RETURN
+
+  until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do sleep 1; done
+
+  for vus in $LEVELS; do
+    local idle
+    idle=$(metric jvm.memory.used)
+
+    k6 run --quiet -e BASE_URL="http://localhost:$PORT" -e SCENARIO=connections -e VUS="$vus" \
+      -e DURATION="$DURATION" --summary-export "$OUT/$mode-threads-$vus.json" "$ROOT/ci/loadtest/recipex.js" &
+    local k6_pid=$!
+
+    # sample halfway through the run, while every connection has a request in flight
+    sleep "$(( DURATION_SECONDS / 2 ))"
+    local busy threads
+    busy=$(metric jvm.memory.used)
+    threads=$(metric jvm.threads.live)
+    wait "$k6_pid" || true
+
+    jq -r --arg mode "$mode" --arg vus "$vus" --arg idle "$idle" --arg busy "$busy" --arg threads "$threads" \
+      '[$mode, $vus, .metrics.http_reqs.rate, .metrics.http_req_duration["p(99)"], .metrics.http_req_failed.value,
+        $threads, ((($busy | tonumber) - ($idle | tonumber)) / ($vus | tonumber) / 1024)] | @tsv' \
+      "$OUT/$mode-threads-$vus.json" >> "$OUT/virtual-threads.tsv"
+  done
+}
+
+: > "$OUT/virtual-threads.tsv"
+run_mode platform false
+run_mode virtual true
+
+printf '%-9s %7s %10s %9s %8s %8s %14s\n' threads conns req_per_s p99_ms failed live kib_per_req
+awk '{ printf "%-9s %7d %10.0f %9.1f %8.4f %8d %14.1f\n", $1, $2, $3, $4, $5, $6, $7 }' "$OUT/virtual-threads.tsv"
+
+# a virtual thread that blocks while pinned logs its carrier and stack, any count above zero needs a look
+echo "pinned virtual thread stacks: $(grep -c 'CarrierThreads\]' "$OUT/virtual-threads.log" || true)"
@@ -0,0 +1,67 @@
+package recipex.api;
+
+import java.util.Arrays;
+
+/**
+ * Entity tags of recipes, derived from the document version that every write increments. The full
+ * recipe gets a strong tag, a selection of its fields a weak one of the same version.
+ */
+final class RecipeETags {
+  private static final String ANY = "*";
+  private static final String WEAK_PREFIX = "W/";
+
+  private RecipeETags() {
+  }
+
+  static String of(Long version) {
+    return version != null ? "\"" + version + "\"" : null;
+  }
+
+  static String weakOf(Long version) {
+    return version != null ? WEAK_PREFIX + of(version) : null;
+  }
+
+  /**
+   * Whether an If-None-Match header matches the current tag, using the weak comparison the header
+   * calls for.
+   */
+  static boolean noneMatchHits(String ifNoneMatch, String eTag) {
+    if (ifNoneMatch == null || eTag == null) {
+      return false;
+    }
+
+    var current = opaqueTag(eTag);
+    return Arrays.stream(ifNoneMatch.split(","))
+        .map(String::trim)
+        .map(RecipeETags::opaqueTag)
+        .anyMatch(tag -> tag.equals(ANY) || tag.equals(current));
+  }
+
+  private static String opaqueTag(String tag) {
+    return tag.startsWith(WEAK_PREFIX) ? tag.substring(WEAK_PREFIX.length()) : tag;
+  }
+
+  /**
+   * Parses an If-Match header into the version the client expects to overwrite.
+   *
+   * @param ifMatch the header value, may be null
+   * @return the expected version, or null when the client does not require one
+   * @throws IllegalArgumentException when the header is not a single strong recipe tag
+   */
+  static Long expectedVersion(String ifMatch) {
+    if (ifMatch == null || ifMatch.trim().equals(ANY)) {
+      return null;
+    }
+
+    var tag = ifMatch.trim();
+    if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+      throw new IllegalArgumentException("If-Match must be a single strong ETag of the recipe");
+    }
+
+    try {
+      return Long.parseLong(tag.substring(1, tag.length() - 1));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("If-Match must be a single strong ETag of the recipe");
+    }
+  }
+}
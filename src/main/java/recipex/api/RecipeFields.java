@@ -0,0 +1,62 @@
+package recipex.api;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import recipex.rest.RestUserRecipe;
+
+/**
+ * Sparse fieldsets of the recipe detail. A selection copies the requested fields into a new recipe,
+ * the unset ones are left out of the response, and never touches the recipe it selects from, which
+ * may be the cached one.
+ */
+final class RecipeFields {
+  private static final Map<String, BiConsumer<RestUserRecipe, RestUserRecipe>> FIELDS = new LinkedHashMap<>();
+
+  static {
+    FIELDS.put("recipeId", (from, to) -> to.setRecipeId(from.getRecipeId()));
+    FIELDS.put("userId", (from, to) -> to.setUserId(from.getUserId()));
+    FIELDS.put("title", (from, to) -> to.setTitle(from.getTitle()));
+    FIELDS.put("description", (from, to) -> to.setDescription(from.getDescription()));
+    FIELDS.put("ingredients", (from, to) -> to.setIngredients(from.getIngredients()));
+    FIELDS.put("instructions", (from, to) -> to.setInstructions(from.getInstructions()));
+    FIELDS.put("tags", (from, to) -> to.setTags(from.getTags()));
+    FIELDS.put("imageUrl", (from, to) -> to.setImageUrl(from.getImageUrl()));
+    FIELDS.put("imageUploadUrl", (from, to) -> to.setImageUploadUrl(from.getImageUploadUrl()));
+    FIELDS.put("createdAt", (from, to) -> to.setCreatedAt(from.getCreatedAt()));
+    FIELDS.put("averageRating", (from, to) -> to.setAverageRating(from.getAverageRating()));
+    FIELDS.put("reviewCount", (from, to) -> to.setReviewCount(from.getReviewCount()));
+    FIELDS.put("ratingHistogram", (from, to) -> to.setRatingHistogram(from.getRatingHistogram()));
+    FIELDS.put("version", (from, to) -> to.setVersion(from.getVersion()));
+  }
+
+  private RecipeFields() {
+  }
+
+  /**
+   * @param recipe the full recipe
+   * @param fields the comma-separated field names, null or blank for every field
+   * @return the recipe with only its ID and the given fields
+   * @throws IllegalArgumentException when a field is not a recipe field
+   */
+  static RestUserRecipe select(RestUserRecipe recipe, String fields) {
+    if (fields == null || fields.isBlank()) {
+      return recipe;
+    }
+
+    var selected = new RestUserRecipe().setRecipeId(recipe.getRecipeId());
+    Arrays.stream(fields.split(","))
+        .map(String::trim)
+        .filter(field -> !field.isEmpty())
+        .forEach(field -> {
+          var copier = FIELDS.get(field);
+          if (copier == null) {
+            throw new IllegalArgumentException("Unknown field: " + field);
+          }
+          copier.accept(recipe, selected);
+        });
+
+    return selected;
+  }
+}
@@ -8,24 +8,37 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import java.util.List;
 import java.util.UUID;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import recipex.db.DbUserRecipe;
+import recipex.domain.RecipePatch;
 import recipex.domain.Review;
 import recipex.domain.UserRecipe;
 import recipex.domain.Username;
+import recipex.rest.RestImportResult;
+import recipex.rest.RestIngredientMatch;
+import recipex.rest.RestRecipeSummary;
 import recipex.rest.RestReview;
+import recipex.rest.RestSuggestion;
+import recipex.rest.RestTagFacet;
 import recipex.rest.RestUser;
+import recipex.rest.RestUserDeletion;
 import recipex.rest.RestUserRecipe;
 
 public interface RecipeXApi {
+  String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
   @Operation(summary = "Create a new user",
       description = "Create a user by providing a username.",
@@ -34,7 +47,8 @@ public interface RecipeXApi {
           @ApiResponse(description = "User successfully created",
               responseCode = "200",
               content = @Content(schema = @Schema(implementation = RestUser.class))),
-          @ApiResponse(description = "Invalid input", responseCode = "400")
+          @ApiResponse(description = "Invalid input", responseCode = "400"),
+          @ApiResponse(description = "Email already registered", responseCode = "409")
       })
   @PostMapping("/register")
   Mono<RestUser> createUser(@Valid @RequestBody Username username);
@@ -52,65 +66,236 @@ public interface RecipeXApi {
   Flux<DbUserRecipe> createUserRecipes(@PathVariable("userId") UUID userId,
                                        @Valid @RequestBody List<UserRecipe> recipes);
 
+  @Operation(summary = "Import recipes for a user",
+      description = "Stream any number of recipes as application/x-ndjson, one UserRecipe per line. Every record "
+          + "is validated on its own and written in unordered batches, and one result per record is streamed "
+          + "back in input order. Invalid or rejected records do not stop the import.",
+      tags = {"recipe", "user"},
+      responses = {
+          @ApiResponse(description = "Import results, one per record",
+              responseCode = "200",
+              content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                  schema = @Schema(implementation = RestImportResult.class)))
+      })
+  @PostMapping(value = "/recipes/{userId}/import", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+      produces = MediaType.APPLICATION_NDJSON_VALUE)
+  Flux<RestImportResult> importUserRecipes(@PathVariable("userId") UUID userId,
+                                           @RequestBody Flux<UserRecipe> recipes);
+
   @Operation(summary = "Get user by ID",
-      description = "Retrieve user details using the unique user ID.",
+      description = "Retrieve user details and a page of their recipe summaries, newest first. "
+          + "When more recipes exist, recipesNextCursor holds the cursor of the next page.",
       tags = {"user"},
       responses = {
           @ApiResponse(description = "User details retrieved",
               responseCode = "200",
               content = @Content(schema = @Schema(implementation = RestUser.class))),
+          @ApiResponse(description = "Invalid cursor or limit", responseCode = "400"),
           @ApiResponse(description = "User not found", responseCode = "404")
       })
   @GetMapping("/user/{userId}")
-  Mono<RestUser> getUser(@PathVariable("userId") UUID userId);
+  Mono<RestUser> getUser(@PathVariable("userId") UUID userId,
+                         @RequestParam(required = false) String cursor,
+                         @RequestParam(required = false) Integer limit);
+
+  @Operation(summary = "Export the recipes of a user",
+      description = "Stream every recipe of the specified user, newest first, one JSON document per line.",
+      tags = {"user"},
+      responses = {
+          @ApiResponse(description = "Recipes streamed",
+              responseCode = "200",
+              content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                  schema = @Schema(implementation = RestUserRecipe.class))),
+          @ApiResponse(description = "User not found", responseCode = "404")
+      })
+  @GetMapping(value = "/user/{userId}/recipes", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  Flux<RestUserRecipe> exportUserRecipes(@PathVariable("userId") UUID userId);
 
   @Operation(summary = "Get recipe by ID",
-      description = "Fetch details of a specific recipe using its unique ID.",
+      description = "Fetch details of a specific recipe using its unique ID. The ETag response header holds "
+          + "the recipe version; send it back as If-None-Match to revalidate or as If-Match to update. "
+          + "fields, a comma-separated list of recipe fields, limits the response to those fields and the recipe ID, "
+          + "with a weak ETag.",
       tags = {"recipe"},
       responses = {
           @ApiResponse(description = "Recipe details retrieved",
               responseCode = "200",
               content = @Content(schema = @Schema(implementation = RestUserRecipe.class))),
+          @ApiResponse(description = "Recipe unchanged since the If-None-Match version", responseCode = "304"),
+          @ApiResponse(description = "Unknown field", responseCode = "400"),
           @ApiResponse(description = "Recipe not found", responseCode = "404")
       })
   @GetMapping("/recipe/{recipeId}")
-  Mono<RestUserRecipe> getRecipe(@PathVariable("recipeId") String recipeId);
+  Mono<ResponseEntity<RestUserRecipe>> getRecipe(@PathVariable("recipeId") String recipeId,
+                                                 @RequestParam(required = false) String fields,
+                                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                 String ifNoneMatch);
+
+  @Operation(summary = "Search recipes",
+      description = "Full-text search over title, tags, ingredients and description, in that order of weight. "
+          + "Returns a page of recipe summaries ranked by relevance. When more matches exist, the X-Next-Cursor "
+          + "response header holds the cursor of the next page.",
+      tags = {"recipe"},
+      responses = {
+          @ApiResponse(description = "Matching recipes retrieved",
+              responseCode = "200",
+              content = @Content(schema = @Schema(implementation = RestRecipeSummary.class))),
+          @ApiResponse(description = "Blank query, invalid cursor or limit", responseCode = "400")
+      })
+  @GetMapping(value = "/recipes/search", produces = MediaType.APPLICATION_JSON_VALUE)
+  Mono<ResponseEntity<List<RestRecipeSummary>>> searchRecipes(@RequestParam("q") String query,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) Integer limit);
+
+  @Operation(summary = "Find recipes by ingredients",
+      description = "Rank recipes by how many of the given ingredients they use, then by how few other ingredients "
+          + "they need. Ingredients are matched after normalisation, so \"2 cups chopped onions\" matches \"onion\". "
+          + "Each result lists the ingredient lines that are still missing.",
+      tags = {"recipe"},
+      responses = {
+          @ApiResponse(description = "Matching recipes retrieved",
+              responseCode = "200",
+              content = @Content(schema = @Schema(implementation = RestIngredientMatch.class))),
+          @ApiResponse(description = "No or too many ingredients, or an invalid limit", responseCode = "400"),
+          @ApiResponse(description = "Ingredient index still building after startup", responseCode = "503")
+      })
+  @GetMapping(value = "/recipes/by-ingredients", produces = MediaType.APPLICATION_JSON_VALUE)
+  Mono<List<RestIngredientMatch>> getRecipesByIngredients(@RequestParam List<String> ingredients,
+                                                         @RequestParam(required = false) Integer limit);
+
+  @Operation(summary = "Get tag facets",
+      description = "Count the recipes of each tag. Without tags, returns the most used tags, most recipes first. "
+          + "With tags, returns the count of each of them in the given order, zero for unused tags. Counts come "
+          + "from a snapshot that is refreshed every minute.",
+      tags = {"recipe"},
+      responses = {
+          @ApiResponse(description = "Tag counts retrieved",
+              responseCode = "200",
+              content = @Content(schema = @Schema(implementation = RestTagFacet.class))),
+          @ApiResponse(description = "Invalid limit", responseCode = "400")
+      })
+  @GetMapping(value = "/recipes/tags/facets", produces = MediaType.APPLICATION_JSON_VALUE)
+  Mono<List<RestTagFacet>> getTagFacets(@RequestParam(required = false) List<String> tags,
+                                        @RequestParam(required = false) Integer limit);
+
+  @Operation(summary = "Suggest titles or tags",
+      description = "Complete a prefix to the most used recipe titles or tags, most recipes first, compared ignoring "
+          + "case. Suggestions are answered from memory and follow recipe creates, updates and deletes of this "
+          + "instance right away. Changes made by other instances are reported by the recipe change stream and "
+          + "show up within the remote write delay (recipex.search.suggestions.remote-write-delay), when the "
+          + "index is rebuilt.",
+      tags = {"recipe"},
+      responses = {
+          @ApiResponse(description = "Suggestions retrieved",
+              responseCode = "200",
+              content = @Content(schema = @Schema(implementation = RestSuggestion.class))),
+          @ApiResponse(description = "Invalid field or limit", responseCode = "400"),
+          @ApiResponse(description = "Suggestion index not built yet", responseCode = "503")
+      })
+  @GetMapping(value = "/recipes/suggestions", produces = MediaType.APPLICATION_JSON_VALUE)
+  Mono<List<RestSuggestion>> getSuggestions(@RequestParam String prefix,
+                                            @RequestParam(required = false) String field,
+                                            @RequestParam(required = false) Integer limit);
 
   @Operation(summary = "Get recipes by title",
-      description = "Search and retrieve recipes based on their title.",
+      description = "Search and retrieve a page of recipe summaries based on their title, newest first. Titles "
+          + "match ignoring case, accents and repeated whitespace. When more recipes exist, the X-Next-Cursor "
+          + "response header holds the cursor of the next page.",
       tags = {"recipe"},
       responses = {
           @ApiResponse(description = "Recipes retrieved",
               responseCode = "200",
-              content = @Content(schema = @Schema(implementation = RestUserRecipe.class))),
+              content = @Content(schema = @Schema(implementation = RestRecipeSummary.class))),
+          @ApiResponse(description = "Blank title, invalid cursor or limit", responseCode = "400"),
           @ApiResponse(description = "No recipes found with the specified title", responseCode = "404")
       })
-  @GetMapping("/recipes/by-title/{title}")
-  Flux<RestUserRecipe> getRecipeByName(@PathVariable("title") String title);
+  @GetMapping(value = "/recipes/by-title/{title}", produces = MediaType.APPLICATION_JSON_VALUE)
+  Mono<ResponseEntity<List<RestRecipeSummary>>> getRecipeByName(@PathVariable("title") String title,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam(required = false) Integer limit);
+
+  @Operation(summary = "Stream recipes by title",
+      description = "Stream the summary of every recipe with the given title, newest first, one JSON document "
+          + "per line. Selected with Accept: application/x-ndjson.",
+      tags = {"recipe"},
+      responses = {
+          @ApiResponse(description = "Recipes streamed",
+              responseCode = "200",
+              content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                  schema = @Schema(implementation = RestRecipeSummary.class)))
+      })
+  @GetMapping(value = "/recipes/by-title/{title}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  Flux<RestRecipeSummary> streamRecipesByName(@PathVariable("title") String title);
 
   @Operation(summary = "Get recipes by tags",
-      description = "Search and retrieve recipes based on a list of tags.",
+      description = "Search and retrieve a page of recipe summaries by tags, compared case-insensitively. With "
+          + "match=all a recipe needs every tag and the page is newest first. With match=any (the default) it needs "
+          + "one and with match=min-k at least minMatches of them, and recipes having more of the tags come first. "
+          + "When more recipes exist, the X-Next-Cursor response header holds the cursor of the next page.",
       tags = {"recipe"},
       responses = {
           @ApiResponse(description = "Recipes retrieved",
               responseCode = "200",
-              content = @Content(schema = @Schema(implementation = RestUserRecipe.class))),
+              content = @Content(schema = @Schema(implementation = RestRecipeSummary.class))),
+          @ApiResponse(description = "Invalid tags, match, minMatches, cursor or limit", responseCode = "400"),
           @ApiResponse(description = "No recipes found for the specified tags", responseCode = "404")
       })
-  @GetMapping("/recipes/by-tags")
-  Flux<RestUserRecipe> getRecipeByTags(@RequestParam List<String> tags);
+  @GetMapping(value = "/recipes/by-tags", produces = MediaType.APPLICATION_JSON_VALUE)
+  Mono<ResponseEntity<List<RestRecipeSummary>>> getRecipeByTags(@RequestParam List<String> tags,
+                                                                @RequestParam(required = false) String match,
+                                                                @RequestParam(required = false) Integer minMatches,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam(required = false) Integer limit);
+
+  @Operation(summary = "Stream recipes by tags",
+      description = "Stream the summary of every recipe having any of the given tags, compared "
+          + "case-insensitively, newest first, one JSON document per line. "
+          + "Selected with Accept: application/x-ndjson.",
+      tags = {"recipe"},
+      responses = {
+          @ApiResponse(description = "Recipes streamed",
+              responseCode = "200",
+              content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                  schema = @Schema(implementation = RestRecipeSummary.class)))
+      })
+  @GetMapping(value = "/recipes/by-tags", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  Flux<RestRecipeSummary> streamRecipesByTags(@RequestParam List<String> tags);
 
   @Operation(summary = "Update an existing recipe",
-      description = "Update the details of a specific recipe.",
+      description = "Update the details of a specific recipe. With an If-Match header the update only "
+          + "applies when the recipe still has that version.",
       tags = {"recipe"},
       responses = {
-          @ApiResponse(description = "Recipe successfully updated",
+          @ApiResponse(description = "Recipe successfully updated, the ETag header holds its new version",
               responseCode = "200",
               content = @Content(schema = @Schema(implementation = RestUserRecipe.class))),
-          @ApiResponse(description = "Invalid input or recipe not found", responseCode = "400")
+          @ApiResponse(description = "Invalid input or recipe not found", responseCode = "400"),
+          @ApiResponse(description = "Recipe modified since the If-Match version", responseCode = "412")
       })
   @PutMapping("/recipe")
-  Mono<DbUserRecipe> updateRecipe(@Valid @RequestBody RestUserRecipe recipe);
+  Mono<ResponseEntity<DbUserRecipe>> updateRecipe(@Valid @RequestBody RestUserRecipe recipe,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                  String ifMatch);
+
+  @Operation(summary = "Partially update a recipe",
+      description = "Change only the fields present in the request body. Reviews, ratings and the image are "
+          + "never touched. The recipe must belong to the given user. With an If-Match header the update only "
+          + "applies when the recipe still has that version.",
+      tags = {"recipe"},
+      responses = {
+          @ApiResponse(description = "Recipe successfully updated, the ETag header holds its new version",
+              responseCode = "200",
+              content = @Content(schema = @Schema(implementation = RestUserRecipe.class))),
+          @ApiResponse(description = "Invalid input or no fields to update", responseCode = "400"),
+          @ApiResponse(description = "Recipe not found for this user", responseCode = "404"),
+          @ApiResponse(description = "Recipe modified since the If-Match version", responseCode = "412")
+      })
+  @PatchMapping("/recipe/{userId}/{recipeId}")
+  Mono<ResponseEntity<RestUserRecipe>> patchRecipe(@PathVariable @NotBlank String userId,
+                                                   @PathVariable @NotBlank String recipeId,
+                                                   @Valid @RequestBody RecipePatch patch,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                   String ifMatch);
 
   @Operation(summary = "Delete a recipe",
       description = "Remove a recipe using its ID.",
@@ -124,7 +309,7 @@ public interface RecipeXApi {
                           @PathVariable @NotBlank String recipeId);
 
   @Operation(summary = "Upload an image for a recipe",
-      description = "Upload an image for the specified recipe.",
+      description = "Generate a presigned URL to upload an image for the specified recipe.",
       tags = {"image"},
       responses = {
           @ApiResponse(description = "Image uploaded successfully",
@@ -134,6 +319,18 @@ public interface RecipeXApi {
   @PostMapping("/image/{recipeId}")
   Mono<String> uploadImage(@PathVariable("recipeId") String recipeId);
 
+  @Operation(summary = "Complete an image upload for a recipe",
+      description = "Confirm that the image was uploaded to the presigned URL and store its location on the recipe.",
+      tags = {"image"},
+      responses = {
+          @ApiResponse(description = "Image upload completed",
+              responseCode = "200"),
+          @ApiResponse(description = "No uploaded image found", responseCode = "400"),
+          @ApiResponse(description = "Recipe not found", responseCode = "404")
+      })
+  @PostMapping("/image/{recipeId}/complete")
+  Mono<String> completeImageUpload(@PathVariable("recipeId") String recipeId);
+
   @Operation(summary = "Get the image of a recipe",
       description = "Retrieve the image associated with the specified recipe.",
       tags = {"image"},
@@ -146,15 +343,34 @@ public interface RecipeXApi {
   Mono<String> getImage(@PathVariable("recipeId") String recipeId);
 
   @Operation(summary = "Delete a user",
-      description = "Delete the user associated with the specified user ID.",
+      description = "Delete the user associated with the specified user ID together with their recipes, "
+          + "the reviews on those recipes and their images. With async=true the recipes are removed in "
+          + "chunks in the background and the returned deletion can be polled for progress.",
       tags = {"user"},
       responses = {
-          @ApiResponse(description = "User successfully deleted",
-              responseCode = "200"),
+          @ApiResponse(description = "User and owned data deleted",
+              responseCode = "200",
+              content = @Content(schema = @Schema(implementation = RestUserDeletion.class))),
+          @ApiResponse(description = "User deleted, owned data is being deleted in the background",
+              responseCode = "202",
+              content = @Content(schema = @Schema(implementation = RestUserDeletion.class))),
           @ApiResponse(description = "User not found", responseCode = "404")
       })
   @DeleteMapping("/user/{userId}")
-  Mono<Void> deleteUser(@PathVariable("userId") UUID userId);
+  Mono<ResponseEntity<RestUserDeletion>> deleteUser(@PathVariable("userId") UUID userId,
+                                                    @RequestParam(defaultValue = "false") boolean async);
+
+  @Operation(summary = "Get user deletion progress",
+      description = "Fetch the status and counts of a user deletion started with async=true.",
+      tags = {"user"},
+      responses = {
+          @ApiResponse(description = "Deletion progress retrieved",
+              responseCode = "200",
+              content = @Content(schema = @Schema(implementation = RestUserDeletion.class))),
+          @ApiResponse(description = "Deletion not found", responseCode = "404")
+      })
+  @GetMapping("/user/deletions/{deletionId}")
+  Mono<ResponseEntity<RestUserDeletion>> getUserDeletion(@PathVariable("deletionId") String deletionId);
 
   @Operation(summary = "Create a recipe review",
       description = "Submit a review for the specified recipe.",
@@ -170,15 +386,33 @@ public interface RecipeXApi {
                                       @Valid @RequestBody Review review);
 
   @Operation(summary = "Get reviews for a recipe",
-      description = "Retrieve all reviews associated with the specified recipe.",
+      description = "Retrieve a page of reviews for the specified recipe, newest first. "
+          + "When more reviews exist, the X-Next-Cursor response header holds the cursor of the next page.",
       tags = {"review"},
       responses = {
           @ApiResponse(description = "Reviews retrieved successfully",
               responseCode = "200",
               content = @Content(schema = @Schema(implementation = RestReview.class))),
+          @ApiResponse(description = "Invalid cursor or limit", responseCode = "400"),
+          @ApiResponse(description = "Recipe not found", responseCode = "404")
+      })
+  @GetMapping(value = "/{recipeId}/reviews", produces = MediaType.APPLICATION_JSON_VALUE)
+  Mono<ResponseEntity<List<RestReview>>> getRecipeReviews(@PathVariable("recipeId") String recipeId,
+                                                          @RequestParam(required = false) String cursor,
+                                                          @RequestParam(required = false) Integer limit);
+
+  @Operation(summary = "Stream reviews for a recipe",
+      description = "Stream every review of the specified recipe, newest first, one JSON document per line. "
+          + "Selected with Accept: application/x-ndjson.",
+      tags = {"review"},
+      responses = {
+          @ApiResponse(description = "Reviews streamed",
+              responseCode = "200",
+              content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                  schema = @Schema(implementation = RestReview.class))),
           @ApiResponse(description = "Recipe not found", responseCode = "404")
       })
-  @GetMapping("/{recipeId}/reviews")
-  Flux<RestReview> getRecipeReviews(@PathVariable("recipeId") String recipeId);
+  @GetMapping(value = "/{recipeId}/reviews", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  Flux<RestReview> streamRecipeReviews(@PathVariable("recipeId") String recipeId);
 
 }
\ No newline at end of file
@@ -4,19 +4,30 @@ import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import recipex.db.DbUserRecipe;
+import recipex.domain.RecipePatch;
 import recipex.domain.Review;
 import recipex.domain.UserRecipe;
 import recipex.domain.Username;
+import recipex.pagination.KeysetPage;
+import recipex.rest.RestImportResult;
+import recipex.rest.RestIngredientMatch;
+import recipex.rest.RestRecipeSummary;
 import recipex.rest.RestReview;
+import recipex.rest.RestSuggestion;
+import recipex.rest.RestTagFacet;
 import recipex.rest.RestUser;
+import recipex.rest.RestUserDeletion;
 import recipex.rest.RestUserRecipe;
 import recipex.service.external.DefaultS3ExternalService;
 import recipex.service.recipe.DefaultRecipeService;
 import recipex.service.review.DefaultReviewService;
+import recipex.service.tag.DefaultTagService;
 import recipex.service.user.DefaultUserService;
 
 @Slf4j
@@ -27,6 +38,7 @@ public class RecipeXController implements RecipeXApi {
   private final DefaultRecipeService recipeService;
   private final DefaultS3ExternalService defaultS3ExternalService;
   private final DefaultReviewService defaultReviewService;
+  private final DefaultTagService tagService;
 
   @Override
   public Mono<RestUser> createUser(Username username) {
@@ -34,8 +46,13 @@ public class RecipeXController implements RecipeXApi {
   }
 
   @Override
-  public Mono<RestUser> getUser(UUID userId) {
-    return userService.getUser(userId);
+  public Mono<RestUser> getUser(UUID userId, String cursor, Integer limit) {
+    return userService.getUser(userId, cursor, limit);
+  }
+
+  @Override
+  public Flux<RestUserRecipe> exportUserRecipes(UUID userId) {
+    return userService.exportUserRecipes(userId);
   }
 
   @Override
@@ -44,23 +61,85 @@ public class RecipeXController implements RecipeXApi {
   }
 
   @Override
-  public Mono<RestUserRecipe> getRecipe(String recipeId) {
-    return recipeService.getRecipe(recipeId);
+  public Flux<RestImportResult> importUserRecipes(UUID userId, Flux<UserRecipe> recipes) {
+    return recipeService.importRecipes(userId, recipes);
+  }
+
+  @Override
+  public Mono<ResponseEntity<RestUserRecipe>> getRecipe(String recipeId, String fields, String ifNoneMatch) {
+    return recipeService.getRecipe(recipeId)
+        .map(recipe -> {
+          // a selection differs from the full recipe byte for byte, so it is only weakly the same version
+          var eTag = fields == null || fields.isBlank()
+              ? RecipeETags.of(recipe.getVersion())
+              : RecipeETags.weakOf(recipe.getVersion());
+          var body = RecipeFields.select(recipe, fields);
+          if (eTag == null) {
+            return ResponseEntity.ok(body);
+          }
+          if (RecipeETags.noneMatchHits(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).<RestUserRecipe>build();
+          }
+          return ResponseEntity.ok().eTag(eTag).body(body);
+        });
+  }
+
+  @Override
+  public Mono<ResponseEntity<List<RestRecipeSummary>>> searchRecipes(String query, String cursor, Integer limit) {
+    return recipeService.searchRecipes(query, cursor, limit)
+        .map(this::toResponse);
+  }
+
+  @Override
+  public Mono<List<RestIngredientMatch>> getRecipesByIngredients(List<String> ingredients, Integer limit) {
+    return recipeService.findRecipesByIngredients(ingredients, limit);
+  }
+
+  @Override
+  public Mono<List<RestTagFacet>> getTagFacets(List<String> tags, Integer limit) {
+    return tagService.getTagFacets(tags, limit);
+  }
+
+  @Override
+  public Mono<List<RestSuggestion>> getSuggestions(String prefix, String field, Integer limit) {
+    return recipeService.getSuggestions(prefix, field, limit);
+  }
+
+  @Override
+  public Mono<ResponseEntity<List<RestRecipeSummary>>> getRecipeByName(String name, String cursor, Integer limit) {
+    return recipeService.getRecipeByName(name, cursor, limit)
+        .map(this::toResponse);
+  }
+
+  @Override
+  public Mono<ResponseEntity<List<RestRecipeSummary>>> getRecipeByTags(List<String> tags, String match,
+                                                                       Integer minMatches, String cursor,
+                                                                       Integer limit) {
+    return recipeService.getRecipeByTags(tags, match, minMatches, cursor, limit)
+        .map(this::toResponse);
+  }
+
+  @Override
+  public Flux<RestRecipeSummary> streamRecipesByName(String name) {
+    return recipeService.streamRecipesByName(name);
   }
 
   @Override
-  public Flux<RestUserRecipe> getRecipeByName(String name) {
-    return recipeService.getRecipeByName(name);
+  public Flux<RestRecipeSummary> streamRecipesByTags(List<String> tags) {
+    return recipeService.streamRecipesByTags(tags);
   }
 
   @Override
-  public Flux<RestUserRecipe> getRecipeByTags(List<String> tags) {
-    return recipeService.getRecipeByTags(tags);
+  public Mono<ResponseEntity<DbUserRecipe>> updateRecipe(RestUserRecipe recipe, String ifMatch) {
+    return Mono.defer(() -> recipeService.updateRecipe(recipe, RecipeETags.expectedVersion(ifMatch)))
+        .map(updated -> withETag(updated, updated.getVersion()));
   }
 
   @Override
-  public Mono<DbUserRecipe> updateRecipe(RestUserRecipe recipe) {
-    return recipeService.updateRecipe(recipe);
+  public Mono<ResponseEntity<RestUserRecipe>> patchRecipe(String userId, String recipeId, RecipePatch patch,
+                                                          String ifMatch) {
+    return Mono.defer(() -> recipeService.patchRecipe(userId, recipeId, patch, RecipeETags.expectedVersion(ifMatch)))
+        .map(patched -> withETag(patched, patched.getVersion()));
   }
 
   @Override
@@ -73,14 +152,32 @@ public class RecipeXController implements RecipeXApi {
     return defaultS3ExternalService.uploadImage(recipeId);
   }
 
+  @Override
+  public Mono<String> completeImageUpload(String recipeId) {
+    return defaultS3ExternalService.completeImageUpload(recipeId);
+  }
+
   @Override
   public Mono<String> getImage(String recipeId) {
     return defaultS3ExternalService.getImage(recipeId);
   }
 
   @Override
-  public Mono<Void> deleteUser(UUID userId) {
-    return userService.deleteUser(userId);
+  public Mono<ResponseEntity<RestUserDeletion>> deleteUser(UUID userId, boolean async) {
+    if (async) {
+      return userService.startUserDeletion(userId)
+          .map(deletion -> ResponseEntity.accepted().body(deletion));
+    }
+
+    return userService.deleteUser(userId)
+        .map(ResponseEntity::ok);
+  }
+
+  @Override
+  public Mono<ResponseEntity<RestUserDeletion>> getUserDeletion(String deletionId) {
+    return userService.getUserDeletion(deletionId)
+        .map(ResponseEntity::ok)
+        .defaultIfEmpty(ResponseEntity.notFound().build());
   }
 
   @Override
@@ -89,7 +186,30 @@ public class RecipeXController implements RecipeXApi {
   }
 
   @Override
-  public Flux<RestReview> getRecipeReviews(String recipeId) {
-    return defaultReviewService.getReviews(recipeId);
+  public Mono<ResponseEntity<List<RestReview>>> getRecipeReviews(String recipeId, String cursor, Integer limit) {
+    return defaultReviewService.getReviews(recipeId, cursor, limit)
+        .map(this::toResponse);
+  }
+
+  @Override
+  public Flux<RestReview> streamRecipeReviews(String recipeId) {
+    return defaultReviewService.streamReviews(recipeId);
+  }
+
+  // the new version, so the client can chain a conditional write without reading the recipe again
+  private static <T> ResponseEntity<T> withETag(T body, Long version) {
+    var eTag = RecipeETags.of(version);
+
+    return eTag != null ? ResponseEntity.ok().eTag(eTag).body(body) : ResponseEntity.ok(body);
+  }
+
+  private <T> ResponseEntity<List<T>> toResponse(KeysetPage<T> page) {
+    var response = ResponseEntity.ok();
+
+    if (page.getNextCursor() != null) {
+      response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+    }
+
+    return response.body(page.getItems());
   }
 }
\ No newline at end of file
@@ -2,10 +2,12 @@ package recipex.boot;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.data.mongodb.repository.config.EnableReactiveMongoRepositories;
 
 @SpringBootApplication(scanBasePackages = "recipex")
 @EnableReactiveMongoRepositories(basePackages = "recipex.mongo")
+@EntityScan(basePackages = "recipex.db")
 public class RecipexApplication {
 
 	public static void main(String[] args) {
@@ -3,7 +3,13 @@ package recipex.boot.config;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import recipex.boot.config.properties.CacheProperties;
+import recipex.boot.config.properties.ImportProperties;
+import recipex.boot.config.properties.IndexProperties;
+import recipex.boot.config.properties.JobProperties;
+import recipex.boot.config.properties.PaginationProperties;
 import recipex.boot.config.properties.S3Properties;
+import recipex.boot.config.properties.SearchProperties;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
@@ -12,7 +18,13 @@ import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 
 @Configuration
 @EnableConfigurationProperties({
-    S3Properties.class
+    S3Properties.class,
+    CacheProperties.class,
+    JobProperties.class,
+    PaginationProperties.class,
+    IndexProperties.class,
+    ImportProperties.class,
+    SearchProperties.class
 })
 public class AppConfig {
   @Bean
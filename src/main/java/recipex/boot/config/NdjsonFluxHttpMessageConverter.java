@@ -0,0 +1,87 @@
+package recipex.boot.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.lang.reflect.Type;
+import java.util.List;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Lets servlet controllers take an {@code application/x-ndjson} request body as a {@link Flux}, which
+ * WebFlux supports natively. Records are decoded lazily from the request stream as they are requested,
+ * so the body is never read into memory as a whole. The converter is read-only: a controller's
+ * {@link Flux} return value is streamed by the reactive return value handler before converters are
+ * consulted. Unused on the reactive runtime.
+ */
+@Component
+public class NdjsonFluxHttpMessageConverter implements GenericHttpMessageConverter<Flux<?>> {
+  private static final int BUFFER_SIZE = 8 * 1024;
+
+  private final Jackson2JsonDecoder decoder;
+
+  public NdjsonFluxHttpMessageConverter(ObjectMapper objectMapper) {
+    this.decoder = new Jackson2JsonDecoder(objectMapper, MediaType.APPLICATION_NDJSON);
+  }
+
+  @Override
+  public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+    return canRead(ResolvableType.forType(type).resolve(), mediaType);
+  }
+
+  @Override
+  public boolean canRead(Class<?> clazz, MediaType mediaType) {
+    return clazz != null && Flux.class.isAssignableFrom(clazz)
+        && mediaType != null && MediaType.APPLICATION_NDJSON.isCompatibleWith(mediaType);
+  }
+
+  @Override
+  public Flux<?> read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+    var elementType = ResolvableType.forType(type).getGeneric(0);
+    var body = DataBufferUtils.readInputStream(inputMessage::getBody, DefaultDataBufferFactory.sharedInstance,
+            BUFFER_SIZE)
+        // reading the servlet stream blocks
+        .subscribeOn(Schedulers.boundedElastic());
+
+    return decoder.decode(body, elementType, MediaType.APPLICATION_NDJSON, null);
+  }
+
+  @Override
+  public Flux<?> read(Class<? extends Flux<?>> clazz, HttpInputMessage inputMessage) {
+    return read(clazz, null, inputMessage);
+  }
+
+  @Override
+  public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+    return false;
+  }
+
+  @Override
+  public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+    return false;
+  }
+
+  @Override
+  public List<MediaType> getSupportedMediaTypes() {
+    return List.of(MediaType.APPLICATION_NDJSON);
+  }
+
+  @Override
+  public void write(Flux<?> flux, Type type, MediaType contentType, HttpOutputMessage outputMessage) {
+    throw new HttpMessageNotWritableException("NDJSON responses are streamed by the reactive return value handler");
+  }
+
+  @Override
+  public void write(Flux<?> flux, MediaType contentType, HttpOutputMessage outputMessage) {
+    write(flux, null, contentType, outputMessage);
+  }
+}
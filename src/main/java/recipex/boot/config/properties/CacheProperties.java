@@ -0,0 +1,54 @@
+package recipex.boot.config.properties;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "recipex.cache")
+public class CacheProperties {
+
+  private Recipes recipes = new Recipes();
+  private ImageUrls imageUrls = new ImageUrls();
+  private SingleFlight singleFlight = new SingleFlight();
+  private MissingRecipes missingRecipes = new MissingRecipes();
+  private RecipeIds recipeIds = new RecipeIds();
+  private TagCounts tagCounts = new TagCounts();
+
+  @Data
+  public static class Recipes {
+    private long maximumSize = 10_000;
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+    private boolean changeStreamEnabled = true;
+  }
+
+  @Data
+  public static class ImageUrls {
+    private long maximumSize = 10_000;
+    private Duration safetyMargin = Duration.ofMinutes(1);
+  }
+
+  @Data
+  public static class SingleFlight {
+    private Duration timeout = Duration.ofSeconds(5);
+  }
+
+  @Data
+  public static class MissingRecipes {
+    private long maximumSize = 100_000;
+    private Duration expireAfterWrite = Duration.ofSeconds(30);
+  }
+
+  @Data
+  public static class RecipeIds {
+    private boolean enabled = true;
+    private long expectedInsertions = 1_000_000;
+    private double falsePositiveProbability = 0.01;
+  }
+
+  @Data
+  public static class TagCounts {
+    private int maximumSize = 10_000;
+    private Duration refreshInterval = Duration.ofMinutes(1);
+  }
+}
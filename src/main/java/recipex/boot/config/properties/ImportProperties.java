@@ -0,0 +1,11 @@
+package recipex.boot.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "recipex.import")
+public class ImportProperties {
+
+  private int chunkSize = 1000;
+}
@@ -0,0 +1,12 @@
+package recipex.boot.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "recipex.indexes")
+public class IndexProperties {
+
+  private boolean reconcileOnStartup = true;
+  private boolean dropUndeclared = false;
+}
@@ -0,0 +1,67 @@
+package recipex.boot.config.properties;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "recipex.jobs")
+public class JobProperties {
+
+  private RatingRepair ratingRepair = new RatingRepair();
+  private ReviewMigration reviewMigration = new ReviewMigration();
+  private UserDeletion userDeletion = new UserDeletion();
+  private UserDeletionResume userDeletionResume = new UserDeletionResume();
+  private VersionBackfill versionBackfill = new VersionBackfill();
+  private TagCountReconcile tagCountReconcile = new TagCountReconcile();
+  private TagBackfill tagBackfill = new TagBackfill();
+  private TitleBackfill titleBackfill = new TitleBackfill();
+
+  @Data
+  public static class RatingRepair {
+    private boolean enabled = false;
+    private int batchSize = 500;
+  }
+
+  @Data
+  public static class ReviewMigration {
+    private boolean enabled = false;
+    private int batchSize = 200;
+  }
+
+  @Data
+  public static class UserDeletion {
+    private int batchSize = 500;
+  }
+
+  @Data
+  public static class UserDeletionResume {
+    private boolean enabled = true;
+    private Duration staleAfter = Duration.ofMinutes(5);
+  }
+
+  @Data
+  public static class VersionBackfill {
+    private boolean enabled = true;
+  }
+
+  @Data
+  public static class TagCountReconcile {
+    private boolean enabled = false;
+    private Duration lease = Duration.ofHours(1);
+  }
+
+  @Data
+  public static class TagBackfill {
+    private boolean enabled = true;
+    private int batchSize = 500;
+    private Duration pause = Duration.ofMillis(200);
+  }
+
+  @Data
+  public static class TitleBackfill {
+    private boolean enabled = true;
+    private int batchSize = 500;
+    private Duration pause = Duration.ofMillis(200);
+  }
+}
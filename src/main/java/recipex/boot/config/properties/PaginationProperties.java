@@ -0,0 +1,12 @@
+package recipex.boot.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "recipex.pagination")
+public class PaginationProperties {
+
+  private int defaultPageSize = 20;
+  private int maxPageSize = 100;
+}
@@ -0,0 +1,33 @@
+package recipex.boot.config.properties;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "recipex.search")
+public class SearchProperties {
+
+  private Ingredients ingredients = new Ingredients();
+  private Tags tags = new Tags();
+  private Suggestions suggestions = new Suggestions();
+
+  @Data
+  public static class Ingredients {
+    private boolean enabled = true;
+    private int maxQueryIngredients = 30;
+  }
+
+  @Data
+  public static class Tags {
+    private int maxQueryTags = 20;
+  }
+
+  @Data
+  public static class Suggestions {
+    private boolean enabled = true;
+    private int topK = 10;
+    private Duration rebuildInterval = Duration.ofHours(1);
+    private Duration remoteWriteDelay = Duration.ofMinutes(1);
+  }
+}
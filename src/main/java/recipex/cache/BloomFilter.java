@@ -0,0 +1,88 @@
+package recipex.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size Bloom filter of strings. Bits are only ever set, with a compare-and-set per word,
+ * so concurrent puts and reads need no lock and a put is never lost.
+ */
+final class BloomFilter {
+  private static final double LN2 = Math.log(2);
+
+  private final AtomicLongArray words;
+  private final long bitSize;
+  private final int hashFunctions;
+  private final AtomicLong bitsSet = new AtomicLong();
+
+  BloomFilter(long expectedInsertions, double falsePositiveProbability) {
+    var insertions = Math.max(1, expectedInsertions);
+    var bits = (long) Math.ceil(-insertions * Math.log(falsePositiveProbability) / (LN2 * LN2));
+
+    this.words = new AtomicLongArray(Math.toIntExact(Math.max(1, (bits + 63) / 64)));
+    this.bitSize = words.length() * 64L;
+    this.hashFunctions = Math.max(1, (int) Math.round((double) bitSize / insertions * LN2));
+  }
+
+  void put(String value) {
+    var hash = hash(value);
+    var h1 = hash;
+    var h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+
+    for (int i = 0; i < hashFunctions; i++) {
+      var bit = Math.floorMod(h1 + i * h2, bitSize);
+      var mask = 1L << bit;
+      var index = (int) (bit >>> 6);
+      var previous = words.getAndAccumulate(index, mask, (word, m) -> word | m);
+      if ((previous & mask) == 0) {
+        bitsSet.incrementAndGet();
+      }
+    }
+  }
+
+  boolean mightContain(String value) {
+    var hash = hash(value);
+    var h1 = hash;
+    var h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+
+    for (int i = 0; i < hashFunctions; i++) {
+      var bit = Math.floorMod(h1 + i * h2, bitSize);
+      if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * The false positive probability implied by the share of bits set so far. It rises above the
+   * configured one once more values than expected have been put.
+   */
+  double expectedFalsePositiveProbability() {
+    return Math.pow((double) bitsSet.get() / bitSize, hashFunctions);
+  }
+
+  long bitSize() {
+    return bitSize;
+  }
+
+  private static long hash(String value) {
+    // 64-bit FNV-1a over the UTF-8 bytes, finished with a full avalanche
+    var hash = 0xCBF29CE484222325L;
+    for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+      hash ^= b & 0xFF;
+      hash *= 0x100000001B3L;
+    }
+    return mix(hash);
+  }
+
+  private static long mix(long hash) {
+    hash ^= hash >>> 33;
+    hash *= 0xFF51AFD7ED558CCDL;
+    hash ^= hash >>> 33;
+    hash *= 0xC4CEB9FE1A85EC53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
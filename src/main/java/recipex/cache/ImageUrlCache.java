@@ -0,0 +1,66 @@
+package recipex.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import recipex.boot.config.properties.CacheProperties;
+import recipex.boot.config.properties.S3Properties;
+
+@Slf4j
+@Component
+public class ImageUrlCache {
+  public static final String CACHE_NAME = "image-urls";
+
+  private final Cache<String, String> cache;
+
+  @Autowired
+  public ImageUrlCache(CacheProperties cacheProperties, S3Properties s3Properties, MeterRegistry meterRegistry) {
+    this(cacheProperties, s3Properties, meterRegistry, Ticker.systemTicker());
+  }
+
+  ImageUrlCache(CacheProperties cacheProperties, S3Properties s3Properties, MeterRegistry meterRegistry,
+                Ticker ticker) {
+    var properties = cacheProperties.getImageUrls();
+    var timeToLive = reuseWindow(s3Properties, properties);
+
+    log.info("Presigned image URLs are reused for {}", timeToLive);
+
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(properties.getMaximumSize())
+        .expireAfterWrite(timeToLive)
+        .ticker(ticker)
+        .recordStats()
+        .build();
+
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+  }
+
+  /**
+   * Returns the presigned URL for the given recipe, signing a new one only when the cached URL is
+   * missing or is about to expire.
+   *
+   * @param recipeId the recipe ID
+   * @param presign  the function used to sign a new URL
+   * @return the presigned URL
+   */
+  public String get(String recipeId, Function<String, String> presign) {
+    return cache.get(recipeId, presign);
+  }
+
+  public void evict(String recipeId) {
+    cache.invalidate(recipeId);
+  }
+
+  private static Duration reuseWindow(S3Properties s3Properties, CacheProperties.ImageUrls properties) {
+    var window = Duration.ofMinutes(s3Properties.getUrlExpiration()).minus(properties.getSafetyMargin());
+
+    return window.isNegative() ? Duration.ZERO : window;
+  }
+}
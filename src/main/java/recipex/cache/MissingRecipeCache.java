@@ -0,0 +1,47 @@
+package recipex.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import recipex.boot.config.properties.CacheProperties;
+
+/**
+ * Remembers recipe IDs that were just looked up and not found, so repeated requests for deleted or
+ * made-up IDs are answered without a query until the entry expires.
+ */
+@Component
+public class MissingRecipeCache {
+  public static final String CACHE_NAME = "missing-recipes";
+
+  private final Cache<String, Boolean> cache;
+
+  public MissingRecipeCache(CacheProperties cacheProperties, MeterRegistry meterRegistry) {
+    var properties = cacheProperties.getMissingRecipes();
+
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(properties.getMaximumSize())
+        .expireAfterWrite(properties.getExpireAfterWrite())
+        .recordStats()
+        .build();
+
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+  }
+
+  public boolean isMissing(String recipeId) {
+    return cache.getIfPresent(recipeId) != null;
+  }
+
+  public void markMissing(String recipeId) {
+    cache.put(recipeId, Boolean.TRUE);
+  }
+
+  public void evict(String recipeId) {
+    cache.invalidate(recipeId);
+  }
+
+  public void evictAll() {
+    cache.invalidateAll();
+  }
+}
@@ -0,0 +1,55 @@
+package recipex.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import recipex.boot.config.properties.CacheProperties;
+import recipex.rest.RestUserRecipe;
+
+@Slf4j
+@Component
+public class RecipeCache {
+  public static final String CACHE_NAME = "recipes";
+
+  private final AsyncCache<String, RestUserRecipe> cache;
+
+  public RecipeCache(CacheProperties cacheProperties, MeterRegistry meterRegistry) {
+    var properties = cacheProperties.getRecipes();
+
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(properties.getMaximumSize())
+        .expireAfterWrite(properties.getExpireAfterWrite())
+        .recordStats()
+        .buildAsync();
+
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+  }
+
+  /**
+   * Returns the cached recipe or loads it with the given loader. Concurrent callers for the same
+   * key share a single load, and an empty loader result is not cached. Every caller gets the same
+   * cached instance, which must not be modified.
+   *
+   * @param recipeId the stored recipe ID
+   * @param loader   the function used to load the recipe on a miss
+   * @return the recipe, or empty if the loader found none
+   */
+  public Mono<RestUserRecipe> get(String recipeId, Function<String, Mono<RestUserRecipe>> loader) {
+    return Mono.fromFuture(() -> cache.get(recipeId, (key, executor) -> loader.apply(key).toFuture()));
+  }
+
+  public void evict(String recipeId) {
+    log.debug("Evicting recipe {} from cache", recipeId);
+    cache.synchronous().invalidate(recipeId);
+  }
+
+  public void evictAll() {
+    log.debug("Evicting all recipes from cache");
+    cache.synchronous().invalidateAll();
+  }
+}
@@ -0,0 +1,153 @@
+package recipex.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import recipex.boot.config.properties.CacheProperties;
+import recipex.mongo.DbRecipeRepository;
+
+/**
+ * An in-memory Bloom filter of every stored recipe ID. A negative answer is definite, so lookups of
+ * IDs that were never created skip the database. Until the filter is built, and when it is disabled,
+ * every ID might exist.
+ *
+ * <p>The recipe change stream builds the filter each time it connects, from a server time read
+ * before the stream opens, and adds the recipes other instances create as it reports them. Without
+ * the change stream, or once it stops, the filter stays off, since it could not learn those recipes.
+ * Deleted IDs stay in the filter until the next rebuild, so their lookups fall through to the
+ * database and the {@link MissingRecipeCache}.
+ */
+@Slf4j
+@Component
+public class RecipeIdFilter {
+  public static final String LOOKUPS_METRIC = "recipe.ids.lookups";
+  public static final String FALSE_POSITIVE_PROBABILITY_METRIC = "recipe.ids.expected.fpp";
+
+  private final CacheProperties.RecipeIds properties;
+  private final DbRecipeRepository dbRecipeRepository;
+  private final Counter absent;
+  private final Counter present;
+  private final Counter falsePositive;
+
+  private volatile BloomFilter active;
+  private volatile BloomFilter building;
+  private volatile boolean stopped;
+
+  public RecipeIdFilter(CacheProperties cacheProperties, DbRecipeRepository dbRecipeRepository,
+                        MeterRegistry meterRegistry) {
+    this.properties = cacheProperties.getRecipeIds();
+    this.dbRecipeRepository = dbRecipeRepository;
+    this.absent = lookups(meterRegistry, "absent");
+    this.present = lookups(meterRegistry, "present");
+    this.falsePositive = lookups(meterRegistry, "false-positive");
+
+    Gauge.builder(FALSE_POSITIVE_PROBABILITY_METRIC, this,
+            filter -> filter.active != null ? filter.active.expectedFalsePositiveProbability() : Double.NaN)
+        .description("False positive probability implied by the bits set in the recipe ID filter")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Rebuilds the filter in the background if it is enabled, once the change stream will report
+   * every insert the rebuild misses. The current filter keeps answering until the new one is built.
+   */
+  public void refresh() {
+    if (!properties.isEnabled() || stopped) {
+      return;
+    }
+
+    rebuild().subscribe(
+        count -> log.info("Recipe ID filter built from {} recipes", count),
+        error -> log.error("Recipe ID filter build failed, lookups keep querying the database", error));
+  }
+
+  /**
+   * Builds a new filter from the IDs in the database and swaps it in. IDs added while the build
+   * runs go into both filters, so none is lost by the swap.
+   *
+   * @return the number of IDs streamed
+   */
+  public Mono<Long> rebuild() {
+    return Mono.defer(() -> {
+      var filter = new BloomFilter(properties.getExpectedInsertions(), properties.getFalsePositiveProbability());
+      building = filter;
+
+      return dbRecipeRepository.streamRecipeIds()
+          .doOnNext(filter::put)
+          .count()
+          .doOnSuccess(count -> swapIn(filter))
+          .doFinally(signal -> building = null);
+    });
+  }
+
+  /**
+   * Turns the filter off for good, when the change stream stops and recipes created by other
+   * instances can no longer be learned. Every ID might exist from then on.
+   */
+  public synchronized void disable() {
+    if (!stopped && properties.isEnabled()) {
+      log.warn("Recipe ID filter is disabled, it needs the recipe change stream to learn other instances' recipes");
+    }
+
+    stopped = true;
+    active = null;
+  }
+
+  private synchronized void swapIn(BloomFilter filter) {
+    if (!stopped) {
+      active = filter;
+    }
+  }
+
+  public void add(String recipeId) {
+    var current = active;
+    if (current != null) {
+      current.put(recipeId);
+    }
+
+    var next = building;
+    if (next != null) {
+      next.put(recipeId);
+    }
+  }
+
+  /**
+   * Whether the recipe might exist. A false result is definite and counted as an absent lookup.
+   */
+  public boolean mightExist(String recipeId) {
+    var current = active;
+    if (current == null || current.mightContain(recipeId)) {
+      return true;
+    }
+
+    absent.increment();
+    return false;
+  }
+
+  /**
+   * Records the database answer for an ID the filter let through, which measures its real false
+   * positive rate. Deleted IDs count as false positives until the next rebuild.
+   */
+  public void recordLookup(String recipeId, boolean found) {
+    if (active == null) {
+      return;
+    }
+
+    if (found) {
+      present.increment();
+    } else {
+      log.debug("Recipe ID filter false positive for {}", recipeId);
+      falsePositive.increment();
+    }
+  }
+
+  private static Counter lookups(MeterRegistry meterRegistry, String result) {
+    return Counter.builder(LOOKUPS_METRIC)
+        .description("Recipe lookups by recipe ID filter answer")
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+}
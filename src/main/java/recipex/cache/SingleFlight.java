@@ -0,0 +1,86 @@
+package recipex.cache;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Deduplicates concurrent fetches of the same key. The first caller starts the fetch, and every
+ * caller that arrives while it is in flight subscribes to the same result, value, empty or error
+ * alike. The entry is dropped as soon as the fetch terminates, so later calls fetch again.
+ *
+ * @param <K> the lookup key
+ * @param <V> the fetched value
+ */
+@Slf4j
+public class SingleFlight<K, V> {
+  public static final String METRIC_NAME = "singleflight.calls";
+
+  private final String name;
+  private final Duration timeout;
+  private final DistributionSummary sharedCalls;
+  private final ConcurrentMap<K, Flight<V>> flights = new ConcurrentHashMap<>();
+
+  public SingleFlight(String name, Duration timeout, MeterRegistry meterRegistry) {
+    this.name = name;
+    this.timeout = timeout;
+    this.sharedCalls = DistributionSummary.builder(METRIC_NAME)
+        .description("Calls served by a single shared fetch")
+        .tag("lookup", name)
+        .register(meterRegistry);
+  }
+
+  /**
+   * Returns the result of the fetch in flight for the key, starting one if there is none. The
+   * shared fetch fails with a {@link java.util.concurrent.TimeoutException} after the configured
+   * timeout, so no caller waits on it longer than that.
+   *
+   * @param key   the lookup key
+   * @param fetch the function used to fetch the value when no fetch is in flight
+   * @return the shared result
+   */
+  public Mono<V> execute(K key, Function<K, Mono<V>> fetch) {
+    return Mono.defer(() -> flights.compute(key, (k, flight) -> flight != null ? flight.join() : start(k, fetch))
+        .result);
+  }
+
+  int inFlight() {
+    return flights.size();
+  }
+
+  private Flight<V> start(K key, Function<K, Mono<V>> fetch) {
+    var flight = new Flight<V>();
+    flight.result = Mono.defer(() -> fetch.apply(key))
+        .timeout(timeout)
+        .doFinally(signal -> land(key, flight))
+        .cache();
+    return flight;
+  }
+
+  private void land(K key, Flight<V> flight) {
+    // callers join under the map's lock, so once removed the count is final
+    if (flights.remove(key, flight)) {
+      var calls = flight.calls.get();
+      sharedCalls.record(calls);
+      if (calls > 1) {
+        log.debug("Shared {} fetch of {} served {} calls", name, key, calls);
+      }
+    }
+  }
+
+  private static final class Flight<V> {
+    private final AtomicInteger calls = new AtomicInteger(1);
+    private Mono<V> result;
+
+    private Flight<V> join() {
+      calls.incrementAndGet();
+      return this;
+    }
+  }
+}
@@ -0,0 +1,87 @@
+package recipex.cache;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import recipex.boot.config.properties.CacheProperties;
+import recipex.db.DbTagCount;
+import recipex.mongo.DbTagCountRepository;
+
+/**
+ * In-memory copy of the most used tags and their recipe counts, reloaded from the tag_counts
+ * collection on a fixed interval. Facet requests are answered from it, so counts lag writes by at
+ * most one interval.
+ */
+@Slf4j
+@Component
+public class TagCountSnapshot {
+  private final CacheProperties.TagCounts properties;
+  private final DbTagCountRepository dbTagCountRepository;
+
+  private volatile Snapshot snapshot;
+  private Disposable refresher;
+
+  public TagCountSnapshot(CacheProperties cacheProperties, DbTagCountRepository dbTagCountRepository) {
+    this.properties = cacheProperties.getTagCounts();
+    this.dbTagCountRepository = dbTagCountRepository;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    refresher = Flux.interval(Duration.ZERO, properties.getRefreshInterval())
+        .onBackpressureDrop()
+        // a failed reload keeps serving the previous snapshot
+        .concatMap(tick -> refresh().onErrorResume(error -> {
+          log.warn("Could not reload tag counts", error);
+          return Mono.empty();
+        }))
+        .subscribe(loaded -> log.debug("Tag count snapshot reloaded with {} tags", loaded.getMostUsed().size()));
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (refresher != null) {
+      refresher.dispose();
+    }
+  }
+
+  /**
+   * @return the current snapshot, loading the first one if no refresh has completed yet
+   */
+  public Mono<Snapshot> get() {
+    var current = snapshot;
+    return current != null ? Mono.just(current) : refresh();
+  }
+
+  public Mono<Snapshot> refresh() {
+    return dbTagCountRepository.findMostUsed(properties.getMaximumSize())
+        .collectList()
+        .map(mostUsed -> new Snapshot(mostUsed, mostUsed.size() < properties.getMaximumSize()))
+        .doOnNext(loaded -> snapshot = loaded);
+  }
+
+  @Getter
+  public static class Snapshot {
+    private final List<DbTagCount> mostUsed;
+    private final Map<String, DbTagCount> byTag;
+    /** Whether every tag is in the snapshot, so a tag missing from it is used by no recipe. */
+    private final boolean complete;
+
+    Snapshot(List<DbTagCount> mostUsed, boolean complete) {
+      this.mostUsed = List.copyOf(mostUsed);
+      this.byTag = mostUsed.stream().collect(Collectors.toUnmodifiableMap(DbTagCount::getTag, Function.identity()));
+      this.complete = complete;
+    }
+  }
+}
@@ -0,0 +1,15 @@
+package recipex.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import recipex.boot.config.properties.CacheProperties;
+import recipex.rest.RestUser;
+
+@Component
+public class UserSingleFlight extends SingleFlight<String, RestUser> {
+  public static final String LOOKUP_NAME = "user";
+
+  public UserSingleFlight(CacheProperties cacheProperties, MeterRegistry meterRegistry) {
+    super(LOOKUP_NAME, cacheProperties.getSingleFlight().getTimeout(), meterRegistry);
+  }
+}
@@ -0,0 +1,20 @@
+package recipex.db;
+
+import java.time.LocalDateTime;
+import lombok.Data;
+import lombok.experimental.Accessors;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+@Data
+@Accessors(chain = true)
+@Document(collection = "job_checkpoints")
+public class DbJobCheckpoint {
+
+  @Id
+  private String jobName;
+  private String lastProcessedId;
+  private long processed;
+  private boolean completed;
+  private LocalDateTime updatedAt;
+}
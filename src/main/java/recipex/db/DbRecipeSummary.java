@@ -0,0 +1,28 @@
+package recipex.db;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.Data;
+import lombok.experimental.Accessors;
+import org.springframework.data.annotation.Id;
+
+/**
+ * The fields of a recipe that listings project, with the relevance score of the match when the
+ * listing is a text search.
+ */
+@Data
+@Accessors(chain = true)
+public class DbRecipeSummary {
+
+  @Id
+  private String recipeId;
+  private String userId;
+  private String title;
+  private String description;
+  private List<String> tags;
+  private String imageUrl;
+  private LocalDateTime createdAt;
+  private Double averageRating;
+  private Long reviewCount;
+  private Double score;
+}
@@ -3,11 +3,18 @@ package recipex.db;
 import java.time.LocalDateTime;
 import lombok.Data;
 import lombok.experimental.Accessors;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
 
 @Data
 @Accessors(chain = true)
+@Document(collection = "reviews")
+@CompoundIndex(name = "recipe_newest_first", def = "{'recipeId': 1, 'createdAt': -1, '_id': -1}")
+@CompoundIndex(name = "recipe_user", def = "{'recipeId': 1, 'userId': 1}", unique = true)
 public class DbReview {
 
+  @Id
   private String reviewId;
   private String recipeId;
   private String userId;
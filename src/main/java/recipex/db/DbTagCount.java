@@ -0,0 +1,18 @@
+package recipex.db;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+@Data
+@Accessors(chain = true)
+@Document(collection = "tag_counts")
+@CompoundIndex(name = "most_used", def = "{'count': -1, '_id': 1}")
+public class DbTagCount {
+
+  @Id
+  private String tag;
+  private long count;
+}
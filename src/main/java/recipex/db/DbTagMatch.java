@@ -0,0 +1,15 @@
+package recipex.db;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * A recipe found by tags, with the number of queried tags it has.
+ */
+@Data
+@Accessors(chain = true)
+public class DbTagMatch {
+
+  private DbRecipeSummary recipe;
+  private int overlap;
+}
@@ -4,16 +4,18 @@ import java.util.List;
 import lombok.Data;
 import lombok.experimental.Accessors;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import recipex.domain.Username;
 
 @Data
 @Accessors(chain = true)
 @Document(collection = "users")
+@CompoundIndex(name = "username_email", def = "{'username.email': 1}", unique = true)
 public class DbUser {
 
   @Id
   private String id;
   private Username username;
-  private List<DbUserRecipe> recipes;
+  private List<DbRecipeSummary> recipes;
 }
\ No newline at end of file
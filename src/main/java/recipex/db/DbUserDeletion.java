@@ -0,0 +1,28 @@
+package recipex.db;
+
+import java.time.LocalDateTime;
+import lombok.Data;
+import lombok.experimental.Accessors;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import recipex.domain.DeletionStatus;
+
+@Data
+@Accessors(chain = true)
+@Document(collection = "user_deletions")
+public class DbUserDeletion {
+
+  @Id
+  private String deletionId;
+  private String userId;
+  private DeletionStatus status;
+  private long usersDeleted;
+  private long recipesDeleted;
+  private long reviewsDeleted;
+  private long imagesDeleted;
+  private String failure;
+  private LocalDateTime startedAt;
+  private LocalDateTime completedAt;
+  // touched after every chunk, a running deletion left untouched for long was orphaned by its instance
+  private LocalDateTime updatedAt;
+}
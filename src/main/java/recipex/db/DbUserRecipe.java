@@ -2,27 +2,47 @@ package recipex.db;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import lombok.Data;
 import lombok.experimental.Accessors;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Data
 @Accessors(chain = true)
 @Document(collection = "recipes")
+@CompoundIndex(name = "normalized_title_newest_first", def = "{'normalizedTitle': 1, 'createdAt': -1, '_id': -1}")
+@CompoundIndex(name = "normalized_tags_newest_first", def = "{'normalizedTags': 1, 'createdAt': -1, '_id': -1}")
+@CompoundIndex(name = "user_newest_first", def = "{'userId': 1, 'createdAt': -1, '_id': -1}")
 public class DbUserRecipe {
 
   @Id
   private String recipeId;
   private String userId;
+  @TextIndexed(weight = 10)
   private String title;
+  // written from title on every save, title lookups match on it rather than on the title as entered
+  private String normalizedTitle;
+  @TextIndexed
   private String description;
+  @TextIndexed(weight = 2)
   private List<String> ingredients;
   private List<String> instructions;
+  @TextIndexed(weight = 5)
   private List<String> tags;
+  // written from tags on every save, tag queries match on it rather than on the tags as entered
+  private List<String> normalizedTags;
   private String imageUrl;
   private String imageUploadUrl;
   private LocalDateTime createdAt;
-  private List<DbReview> reviews;
   private Double averageRating;
+  private Long reviewCount;
+  private Long ratingSum;
+  private Map<String, Long> ratingHistogram;
+
+  @Version
+  private Long version;
 }
@@ -0,0 +1,7 @@
+package recipex.domain;
+
+public enum ImportStatus {
+  CREATED,
+  INVALID,
+  FAILED
+}
@@ -0,0 +1,35 @@
+package recipex.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * The recipe fields a client may change. Fields left out of the request stay null and are not
+ * touched, so the constraints only apply to the fields that are present.
+ */
+@Data
+@Accessors(chain = true)
+@JsonInclude(Include.NON_NULL)
+public class RecipePatch {
+
+  @Pattern(regexp = ".*\\S.*", message = "Title cannot be blank")
+  @Size(min = 3, max = 50, message = "Title must be between 3 and 50 characters")
+  private String title;
+
+  @Pattern(regexp = ".*\\S.*", message = "Description cannot be blank")
+  @Size(max = 500, message = "Description cannot exceed 500 characters")
+  private String description;
+
+  @Size(min = 1, message = "Ingredients cannot be empty")
+  private List<String> ingredients;
+
+  @Size(min = 1, message = "Instructions cannot be empty")
+  private List<String> instructions;
+
+  private List<String> tags;
+}
@@ -0,0 +1,32 @@
+package recipex.domain;
+
+import java.util.Arrays;
+
+/**
+ * The recipe field a type-ahead suggestion completes.
+ */
+public enum SuggestionField {
+  TITLE("title"),
+  TAG("tag");
+
+  private final String value;
+
+  SuggestionField(String value) {
+    this.value = value;
+  }
+
+  /**
+   * @param value the field as given in the request, {@code title} when absent
+   * @throws IllegalArgumentException if the value is not a known field
+   */
+  public static SuggestionField from(String value) {
+    if (value == null || value.isBlank()) {
+      return TITLE;
+    }
+
+    return Arrays.stream(values())
+        .filter(field -> field.value.equalsIgnoreCase(value.trim()))
+        .findFirst()
+        .orElseThrow(() -> new IllegalArgumentException("Unknown suggestion field: " + value));
+  }
+}
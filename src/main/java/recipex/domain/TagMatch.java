@@ -0,0 +1,53 @@
+package recipex.domain;
+
+import java.util.Arrays;
+
+/**
+ * How many of the queried tags a recipe needs to match.
+ */
+public enum TagMatch {
+  ALL("all"),
+  ANY("any"),
+  MIN_K("min-k");
+
+  private final String value;
+
+  TagMatch(String value) {
+    this.value = value;
+  }
+
+  /**
+   * @param value the match mode as given in the request, {@code any} when absent
+   * @throws IllegalArgumentException if the value is not a known match mode
+   */
+  public static TagMatch from(String value) {
+    if (value == null || value.isBlank()) {
+      return ANY;
+    }
+
+    return Arrays.stream(values())
+        .filter(match -> match.value.equalsIgnoreCase(value.trim()))
+        .findFirst()
+        .orElseThrow(() -> new IllegalArgumentException("Unknown tag match: " + value));
+  }
+
+  /**
+   * Resolves the number of tags a recipe must have out of the queried ones.
+   *
+   * @param tagCount   the number of distinct queried tags
+   * @param minMatches the requested minimum, only used by {@link #MIN_K}
+   * @throws IllegalArgumentException if the minimum is missing or out of range for {@link #MIN_K}
+   */
+  public int minMatches(int tagCount, Integer minMatches) {
+    return switch (this) {
+      case ALL -> tagCount;
+      case ANY -> 1;
+      case MIN_K -> {
+        if (minMatches == null || minMatches < 1 || minMatches > tagCount) {
+          throw new IllegalArgumentException("minMatches must be between 1 and " + tagCount);
+        }
+        yield minMatches;
+      }
+    };
+  }
+}
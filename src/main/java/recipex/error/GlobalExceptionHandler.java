@@ -4,30 +4,30 @@ import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import java.util.Objects;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import recipex.exceptions.EmailAlreadyExistsException;
+import recipex.exceptions.PreconditionFailedException;
+import recipex.exceptions.RecipeNotFoundException;
+import recipex.exceptions.SearchIndexUnavailableException;
+import recipex.exceptions.UserNotFoundException;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
   @ExceptionHandler(MethodArgumentNotValidException.class)
   public ResponseEntity<ApiError> handleValidationExceptions(MethodArgumentNotValidException ex) {
+    return validationError(ex.getBindingResult());
+  }
 
-    var errorMessage = ex.getBindingResult().getFieldErrors()
-        .stream()
-        .map(DefaultMessageSourceResolvable::getDefaultMessage)
-        .filter(Objects::nonNull)
-        .findFirst()
-        .orElse("Validation failed");
-
-    var apiError = new ApiError()
-        .setError("VALIDATION_ERROR")
-        .setMessage(errorMessage)
-        .setPath(ex.getBindingResult().getFieldErrors().get(0).getObjectName());
-
-    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(apiError);
+  @ExceptionHandler(WebExchangeBindException.class)
+  public ResponseEntity<ApiError> handleWebExchangeBindException(WebExchangeBindException ex) {
+    return validationError(ex.getBindingResult());
   }
 
   @ExceptionHandler(IllegalArgumentException.class)
@@ -55,4 +55,80 @@ public class GlobalExceptionHandler {
 
     return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(apiError);
   }
+
+  @ExceptionHandler(RecipeNotFoundException.class)
+  public ResponseEntity<ApiError> handleRecipeNotFoundException(RecipeNotFoundException ex) {
+    var apiError = new ApiError()
+        .setError("RECIPE_NOT_FOUND")
+        .setMessage(ex.getMessage())
+        .setPath("Recipe");
+
+    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(apiError);
+  }
+
+  @ExceptionHandler(UserNotFoundException.class)
+  public ResponseEntity<ApiError> handleUserNotFoundException(UserNotFoundException ex) {
+    var apiError = new ApiError()
+        .setError("USER_NOT_FOUND")
+        .setMessage(ex.getMessage())
+        .setPath("User");
+
+    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(apiError);
+  }
+
+  @ExceptionHandler(PreconditionFailedException.class)
+  public ResponseEntity<ApiError> handlePreconditionFailedException(PreconditionFailedException ex) {
+    return preconditionFailed(ex.getMessage());
+  }
+
+  @ExceptionHandler(OptimisticLockingFailureException.class)
+  public ResponseEntity<ApiError> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+    return preconditionFailed("Recipe was modified by another request");
+  }
+
+  @ExceptionHandler(SearchIndexUnavailableException.class)
+  public ResponseEntity<ApiError> handleSearchIndexUnavailableException(SearchIndexUnavailableException ex) {
+    var apiError = new ApiError()
+        .setError("INDEX_UNAVAILABLE")
+        .setMessage(ex.getMessage())
+        .setPath("Search");
+
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(apiError);
+  }
+
+  @ExceptionHandler(EmailAlreadyExistsException.class)
+  public ResponseEntity<ApiError> handleEmailAlreadyExistsException(EmailAlreadyExistsException ex) {
+    var apiError = new ApiError()
+        .setError("EMAIL_ALREADY_EXISTS")
+        .setMessage(ex.getMessage())
+        .setPath("Username");
+
+    return ResponseEntity.status(HttpStatus.CONFLICT).body(apiError);
+  }
+
+  private ResponseEntity<ApiError> preconditionFailed(String message) {
+    var apiError = new ApiError()
+        .setError("PRECONDITION_FAILED")
+        .setMessage(message)
+        .setPath("Recipe");
+
+    return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(apiError);
+  }
+
+  // MVC and WebFlux report @Valid body failures with different exceptions but the same binding result
+  private ResponseEntity<ApiError> validationError(BindingResult bindingResult) {
+    var errorMessage = bindingResult.getFieldErrors()
+        .stream()
+        .map(DefaultMessageSourceResolvable::getDefaultMessage)
+        .filter(Objects::nonNull)
+        .findFirst()
+        .orElse("Validation failed");
+
+    var apiError = new ApiError()
+        .setError("VALIDATION_ERROR")
+        .setMessage(errorMessage)
+        .setPath(bindingResult.getFieldErrors().get(0).getObjectName());
+
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(apiError);
+  }
 }
@@ -0,0 +1,7 @@
+package recipex.exceptions;
+
+public class PreconditionFailedException extends RuntimeException {
+  public PreconditionFailedException(String recipeId) {
+    super(String.format("Recipe %s was modified by another request", recipeId));
+  }
+}
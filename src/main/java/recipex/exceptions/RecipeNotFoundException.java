@@ -0,0 +1,7 @@
+package recipex.exceptions;
+
+public class RecipeNotFoundException extends RuntimeException {
+  public RecipeNotFoundException(String recipeId) {
+    super(String.format("Recipe not found with ID: %s", recipeId));
+  }
+}
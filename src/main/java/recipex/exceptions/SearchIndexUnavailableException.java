@@ -0,0 +1,7 @@
+package recipex.exceptions;
+
+public class SearchIndexUnavailableException extends RuntimeException {
+  public SearchIndexUnavailableException(String index) {
+    super(String.format("The %s index is not built yet, retry shortly", index));
+  }
+}
@@ -0,0 +1,7 @@
+package recipex.exceptions;
+
+public class UserNotFoundException extends RuntimeException {
+  public UserNotFoundException(String userId) {
+    super(String.format("User not found with ID: %s", userId));
+  }
+}
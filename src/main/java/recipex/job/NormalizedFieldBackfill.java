@@ -0,0 +1,95 @@
+package recipex.job;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+import recipex.db.DbJobCheckpoint;
+import recipex.db.DbUserRecipe;
+import recipex.mongo.DbJobCheckpointRepository;
+
+/**
+ * Derives a normalized field of recipes written before it was stored, from the field it normalizes.
+ * Runs in batches ordered by recipe ID with a pause between batches, so the backfill never competes
+ * with live traffic for long, and checkpoints after every batch. Values are normalized in Java, for
+ * normalizers an aggregation pipeline update cannot express.
+ *
+ * @param <T> the type of the source field
+ */
+@Slf4j
+@RequiredArgsConstructor
+class NormalizedFieldBackfill<T> {
+  private final ReactiveMongoTemplate reactiveMongoTemplate;
+  private final DbJobCheckpointRepository checkpointRepository;
+  private final String jobName;
+  private final String sourceField;
+  private final Function<DbUserRecipe, T> source;
+  private final String targetField;
+  private final Function<T, ?> normalizer;
+  private final int batchSize;
+  private final Duration pause;
+
+  /**
+   * Resumes from the checkpoint of an unfinished run, or starts over after a completed one.
+   *
+   * @return the total number of recipes backfilled by this run
+   */
+  Mono<Long> run() {
+    return checkpointRepository.findById(jobName)
+        // a completed run is started over, recipes may have been written without the field since
+        .filter(checkpoint -> !checkpoint.isCompleted())
+        .defaultIfEmpty(new DbJobCheckpoint().setJobName(jobName))
+        .flatMap(checkpoint -> backfillBatch(checkpoint)
+            .expand(previous -> Mono.delay(pause).then(backfillBatch(previous)))
+            .last(checkpoint))
+        .flatMap(checkpoint -> checkpointRepository.save(checkpoint
+            .setCompleted(true)
+            .setUpdatedAt(LocalDateTime.now())))
+        .map(DbJobCheckpoint::getProcessed);
+  }
+
+  private Mono<DbJobCheckpoint> backfillBatch(DbJobCheckpoint checkpoint) {
+    var criteria = where(targetField).exists(false);
+    if (checkpoint.getLastProcessedId() != null) {
+      criteria.and("_id").gt(checkpoint.getLastProcessedId());
+    }
+
+    var query = query(criteria)
+        .with(Sort.by("_id"))
+        .limit(batchSize);
+    query.fields().include("_id", sourceField);
+
+    return reactiveMongoTemplate.find(query, DbUserRecipe.class)
+        .collectList()
+        .filter(batch -> !batch.isEmpty())
+        .flatMap(batch -> writeNormalized(batch)
+            .then(Mono.defer(() -> checkpointRepository.save(checkpoint
+                .setLastProcessedId(batch.get(batch.size() - 1).getRecipeId())
+                .setProcessed(checkpoint.getProcessed() + batch.size())
+                .setUpdatedAt(LocalDateTime.now()))))
+            .doOnNext(saved -> log.debug("Backfilled {} of {} recipes, last recipe: {}",
+                targetField, saved.getProcessed(), saved.getLastProcessedId())));
+  }
+
+  private Mono<Void> writeNormalized(List<DbUserRecipe> batch) {
+    var bulkOperations = reactiveMongoTemplate.bulkOps(BulkMode.UNORDERED, DbUserRecipe.class);
+
+    // the read value is part of the filter, so a source changed meanwhile keeps the normalized value
+    // its writer stored. The version is left alone, the recipe as clients see it does not change.
+    batch.forEach(recipe -> bulkOperations.updateOne(
+        query(where("_id").is(recipe.getRecipeId()).and(sourceField).is(source.apply(recipe))),
+        new Update().set(targetField, normalizer.apply(source.apply(recipe)))));
+
+    return bulkOperations.execute().then();
+  }
+}
@@ -0,0 +1,72 @@
+package recipex.job;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import recipex.boot.config.properties.JobProperties;
+import recipex.db.DbUserRecipe;
+import recipex.mongo.DbRecipeRepository;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "recipex.jobs.rating-repair", name = "enabled", havingValue = "true")
+public class RatingAggregateRepairJob {
+  private final ReactiveMongoTemplate reactiveMongoTemplate;
+  private final DbRecipeRepository dbRecipeRepository;
+  private final JobProperties jobProperties;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    run().subscribe(
+        repaired -> log.info("Rating aggregates repaired for {} recipes", repaired),
+        error -> log.error("Rating aggregate repair failed", error));
+  }
+
+  /**
+   * Recomputes review count, rating sum, histogram and average for every recipe from the reviews
+   * collection, walking the recipes in batches ordered by ID.
+   *
+   * <p>Writing a review takes two writes: the review is upserted first and the recipe's counters are
+   * incremented after it. When the second write fails, the reviews collection already holds the
+   * review while the counters lag behind it. The reviews collection is the source of truth, so a
+   * run of this job, enabled with {@code recipex.jobs.rating-repair.enabled}, brings the counters
+   * back in line with it.
+   *
+   * @return the number of recipes repaired
+   */
+  public Mono<Long> run() {
+    var repaired = new AtomicLong();
+
+    log.info("Starting rating aggregate repair");
+
+    return repairBatch(null, repaired)
+        .expand(lastRecipeId -> repairBatch(lastRecipeId, repaired))
+        .then(Mono.fromSupplier(repaired::get));
+  }
+
+  private Mono<String> repairBatch(String afterRecipeId, AtomicLong repaired) {
+    var query = afterRecipeId != null ? query(where("_id").gt(afterRecipeId)) : new Query();
+    query.with(Sort.by("_id")).limit(jobProperties.getRatingRepair().getBatchSize());
+    query.fields().include("_id");
+
+    return reactiveMongoTemplate.find(query, DbUserRecipe.class)
+        .map(DbUserRecipe::getRecipeId)
+        .collectList()
+        .filter(batch -> !batch.isEmpty())
+        .flatMap(batch -> dbRecipeRepository.recomputeRatingAggregates(batch)
+            .doOnNext(written -> log.debug("Repaired rating aggregates for {} recipes", repaired.addAndGet(written)))
+            .thenReturn(batch.get(batch.size() - 1)));
+  }
+}
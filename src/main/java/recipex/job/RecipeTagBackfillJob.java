@@ -0,0 +1,51 @@
+package recipex.job;
+
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import recipex.boot.config.properties.JobProperties;
+import recipex.db.DbUserRecipe;
+import recipex.mongo.DbJobCheckpointRepository;
+import recipex.search.TagNormalizer;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "recipex.jobs.tag-backfill", name = "enabled", havingValue = "true",
+    matchIfMissing = true)
+public class RecipeTagBackfillJob {
+  public static final String JOB_NAME = "tag-backfill";
+
+  private final NormalizedFieldBackfill<List<String>> backfill;
+
+  public RecipeTagBackfillJob(ReactiveMongoTemplate reactiveMongoTemplate,
+                              DbJobCheckpointRepository checkpointRepository, JobProperties jobProperties) {
+    var properties = jobProperties.getTagBackfill();
+    this.backfill = new NormalizedFieldBackfill<>(reactiveMongoTemplate, checkpointRepository, JOB_NAME,
+        "tags", DbUserRecipe::getTags, "normalizedTags", TagNormalizer::normalize,
+        properties.getBatchSize(), properties.getPause());
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    run().subscribe(
+        backfilled -> log.info("Normalized tag backfill finished, {} recipes backfilled", backfilled),
+        error -> log.error("Normalized tag backfill failed, it resumes from its checkpoint on the next run", error));
+  }
+
+  /**
+   * Derives the normalized tags of recipes written before they were stored. Tag queries only match
+   * on normalized tags, so until then such a recipe is not found by its tags. Tags are normalized with
+   * {@link TagNormalizer} rather than in a pipeline update, since {@code $toLower} only lowers ASCII
+   * letters.
+   *
+   * @return the total number of recipes backfilled by this run
+   */
+  public Mono<Long> run() {
+    return backfill.run();
+  }
+}
@@ -0,0 +1,49 @@
+package recipex.job;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import recipex.boot.config.properties.JobProperties;
+import recipex.db.DbUserRecipe;
+import recipex.mongo.DbJobCheckpointRepository;
+import recipex.search.TitleNormalizer;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "recipex.jobs.title-backfill", name = "enabled", havingValue = "true",
+    matchIfMissing = true)
+public class RecipeTitleBackfillJob {
+  public static final String JOB_NAME = "title-backfill";
+
+  private final NormalizedFieldBackfill<String> backfill;
+
+  public RecipeTitleBackfillJob(ReactiveMongoTemplate reactiveMongoTemplate,
+                                DbJobCheckpointRepository checkpointRepository, JobProperties jobProperties) {
+    var properties = jobProperties.getTitleBackfill();
+    this.backfill = new NormalizedFieldBackfill<>(reactiveMongoTemplate, checkpointRepository, JOB_NAME,
+        "title", DbUserRecipe::getTitle, "normalizedTitle", TitleNormalizer::normalize,
+        properties.getBatchSize(), properties.getPause());
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    run().subscribe(
+        backfilled -> log.info("Normalized title backfill finished, {} recipes backfilled", backfilled),
+        error -> log.error("Normalized title backfill failed, it resumes from its checkpoint on the next run", error));
+  }
+
+  /**
+   * Derives the normalized title of recipes written before it was stored. Accent folding has no
+   * aggregation operator, which is why titles are normalized with {@link TitleNormalizer} rather than
+   * in a pipeline update.
+   *
+   * @return the total number of recipes backfilled by this run
+   */
+  public Mono<Long> run() {
+    return backfill.run();
+  }
+}
@@ -0,0 +1,43 @@
+package recipex.job;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import recipex.db.DbUserRecipe;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "recipex.jobs.version-backfill", name = "enabled", havingValue = "true",
+    matchIfMissing = true)
+public class RecipeVersionBackfillJob {
+  private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    run().subscribe(
+        backfilled -> log.info("Version backfilled for {} recipes", backfilled),
+        error -> log.error("Recipe version backfill failed", error));
+  }
+
+  /**
+   * Sets version 0 on recipes written before they were versioned. Without it a full update of such a
+   * recipe is taken for a new document and a patch with If-Match can never match.
+   *
+   * @return the number of recipes backfilled
+   */
+  public Mono<Long> run() {
+    return reactiveMongoTemplate.updateMulti(query(where("version").exists(false)),
+            new Update().set("version", 0L), DbUserRecipe.class)
+        .map(result -> result.getModifiedCount());
+  }
+}
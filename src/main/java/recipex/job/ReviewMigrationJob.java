@@ -0,0 +1,148 @@
+package recipex.job;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import com.mongodb.MongoBulkWriteException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import recipex.boot.config.properties.JobProperties;
+import recipex.db.DbJobCheckpoint;
+import recipex.mongo.DbJobCheckpointRepository;
+import recipex.mongo.DbRecipeRepository;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "recipex.jobs.review-migration", name = "enabled", havingValue = "true")
+public class ReviewMigrationJob {
+  public static final String JOB_NAME = "review-migration";
+  private static final String RECIPES_COLLECTION = "recipes";
+  private static final String REVIEWS_COLLECTION = "reviews";
+  private static final String EMBEDDED_REVIEWS = "reviews";
+  private static final int DUPLICATE_KEY = 11000;
+
+  private final ReactiveMongoTemplate reactiveMongoTemplate;
+  private final DbRecipeRepository dbRecipeRepository;
+  private final DbJobCheckpointRepository checkpointRepository;
+  private final JobProperties jobProperties;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    run().subscribe(
+        migrated -> log.info("Review migration finished, {} recipes migrated", migrated),
+        error -> log.error("Review migration failed, it resumes from its checkpoint on the next run", error));
+  }
+
+  /**
+   * Moves reviews embedded in recipe documents into the reviews collection in batches ordered by
+   * recipe ID. Progress is checkpointed after every batch, so an interrupted run resumes where it
+   * stopped, and a batch that is replayed is harmless because inserts skip reviews that already
+   * exist.
+   *
+   * @return the total number of recipes migrated so far
+   */
+  public Mono<Long> run() {
+    log.info("Starting review migration");
+
+    return checkpointRepository.findById(JOB_NAME)
+        .defaultIfEmpty(new DbJobCheckpoint().setJobName(JOB_NAME))
+        .filter(checkpoint -> !checkpoint.isCompleted())
+        .flatMap(checkpoint -> migrateBatch(checkpoint)
+            .expand(this::migrateBatch)
+            .last(checkpoint))
+        .flatMap(checkpoint -> checkpointRepository.save(checkpoint
+            .setCompleted(true)
+            .setUpdatedAt(LocalDateTime.now())))
+        .map(DbJobCheckpoint::getProcessed)
+        .defaultIfEmpty(0L);
+  }
+
+  private Mono<DbJobCheckpoint> migrateBatch(DbJobCheckpoint checkpoint) {
+    var criteria = where(EMBEDDED_REVIEWS).exists(true);
+    if (checkpoint.getLastProcessedId() != null) {
+      criteria.and("_id").gt(checkpoint.getLastProcessedId());
+    }
+
+    var query = query(criteria)
+        .with(Sort.by("_id"))
+        .limit(jobProperties.getReviewMigration().getBatchSize());
+    query.fields().include("_id", EMBEDDED_REVIEWS);
+
+    return reactiveMongoTemplate.find(query, Document.class, RECIPES_COLLECTION)
+        .collectList()
+        .filter(batch -> !batch.isEmpty())
+        .flatMap(batch -> {
+          var recipeIds = batch.stream().map(recipe -> recipe.getString("_id")).toList();
+
+          return insertReviews(batch)
+              .then(Mono.defer(() -> reactiveMongoTemplate.updateMulti(query(where("_id").in(recipeIds)),
+                  new Update().unset(EMBEDDED_REVIEWS), RECIPES_COLLECTION)))
+              .then(Mono.defer(() -> dbRecipeRepository.recomputeRatingAggregates(recipeIds)))
+              .then(Mono.defer(() -> checkpointRepository.save(checkpoint
+                  .setLastProcessedId(recipeIds.get(recipeIds.size() - 1))
+                  .setProcessed(checkpoint.getProcessed() + recipeIds.size())
+                  .setUpdatedAt(LocalDateTime.now()))))
+              .doOnNext(saved -> log.info("Migrated reviews of {} recipes, last recipe: {}",
+                  saved.getProcessed(), saved.getLastProcessedId()));
+        });
+  }
+
+  private Mono<Void> insertReviews(List<Document> batch) {
+    var reviews = batch.stream()
+        .flatMap(recipe -> toReviews(recipe).stream())
+        .toList();
+
+    if (reviews.isEmpty()) {
+      return Mono.empty();
+    }
+
+    return reactiveMongoTemplate.bulkOps(BulkMode.UNORDERED, REVIEWS_COLLECTION)
+        .insert(reviews)
+        .execute()
+        .onErrorResume(this::onlyDuplicates, error -> Mono.empty())
+        .then();
+  }
+
+  private List<Document> toReviews(Document recipe) {
+    var recipeId = recipe.getString("_id");
+    var reviewsByUser = new LinkedHashMap<Object, Document>();
+
+    // a user has at most one review per recipe, the last one embedded wins
+    recipe.getList(EMBEDDED_REVIEWS, Document.class, List.of()).forEach(review ->
+        reviewsByUser.put(review.get("userId"), new Document("_id", Optional.ofNullable(review.getString("reviewId"))
+            .orElseGet(() -> UUID.randomUUID().toString().toUpperCase()))
+            .append("recipeId", recipeId)
+            .append("userId", review.get("userId"))
+            .append("rating", review.get("rating"))
+            .append("comment", review.get("comment"))
+            .append("createdAt", review.get("createdAt"))));
+
+    return List.copyOf(reviewsByUser.values());
+  }
+
+  private boolean onlyDuplicates(Throwable error) {
+    for (var cause = error; cause != null; cause = cause.getCause()) {
+      if (cause instanceof MongoBulkWriteException bulkWriteException) {
+        return bulkWriteException.getWriteConcernError() == null && bulkWriteException.getWriteErrors().stream()
+            .allMatch(writeError -> writeError.getCode() == DUPLICATE_KEY);
+      }
+    }
+    return false;
+  }
+}
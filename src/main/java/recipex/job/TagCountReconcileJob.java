@@ -0,0 +1,59 @@
+package recipex.job;
+
+import java.time.LocalDateTime;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import recipex.boot.config.properties.JobProperties;
+import recipex.cache.TagCountSnapshot;
+import recipex.db.DbTagCount;
+import recipex.mongo.DbJobCheckpointRepository;
+import recipex.mongo.DbRecipeRepository;
+import recipex.mongo.DbTagCountRepository;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "recipex.jobs.tag-count-reconcile", name = "enabled", havingValue = "true")
+public class TagCountReconcileJob {
+  public static final String JOB_NAME = "tag-count-reconcile";
+
+  private final DbRecipeRepository dbRecipeRepository;
+  private final DbTagCountRepository dbTagCountRepository;
+  private final DbJobCheckpointRepository checkpointRepository;
+  private final TagCountSnapshot tagCountSnapshot;
+  private final JobProperties jobProperties;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    run().subscribe(
+        corrected -> log.info("Tag counts reconciled, {} tags corrected", corrected),
+        error -> log.error("Tag count reconciliation failed", error),
+        () -> log.debug("Tag counts were reconciled by another instance less than {} ago",
+            jobProperties.getTagCountReconcile().getLease()));
+  }
+
+  /**
+   * Recounts the recipes of every tag from the recipes collection and corrects the tag_counts
+   * collection where it drifted, after increments that failed. One instance runs it per lease, the
+   * others find the job claimed and skip it.
+   *
+   * @return the number of tags corrected, or empty when another instance ran it within the lease
+   */
+  public Mono<Long> run() {
+    var untouchedSince = LocalDateTime.now().minus(jobProperties.getTagCountReconcile().getLease());
+
+    return checkpointRepository.claim(JOB_NAME, untouchedSince)
+        .doOnNext(claimed -> log.info("Starting tag count reconciliation"))
+        // the counts are read before the recount, so one changed meanwhile is told apart and kept
+        .flatMap(claimed -> dbTagCountRepository.findAll().collectMap(DbTagCount::getTag, DbTagCount::getCount))
+        .flatMap(read -> dbRecipeRepository.recountTags()
+            .collectMap(DbTagCount::getTag, DbTagCount::getCount)
+            .flatMap(recounted -> dbTagCountRepository.correctCounts(read, recounted)))
+        .flatMap(corrected -> tagCountSnapshot.refresh().thenReturn(corrected));
+  }
+}
@@ -0,0 +1,65 @@
+package recipex.job;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import recipex.boot.config.properties.JobProperties;
+import recipex.service.user.DefaultUserService;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "recipex.jobs.user-deletion-resume", name = "enabled", havingValue = "true",
+    matchIfMissing = true)
+public class UserDeletionResumeJob {
+  private final DefaultUserService userService;
+  private final JobProperties jobProperties;
+
+  private Disposable sweeper;
+
+  /**
+   * Background deletions run on the instance that accepted them, so a restart or crash leaves them
+   * running with nobody working on them. Every stale-after interval, starting at startup, deletions
+   * whose progress has not moved for that long are claimed one at a time and finished from the
+   * recipes that are left.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    var staleAfter = jobProperties.getUserDeletionResume().getStaleAfter();
+
+    sweeper = Flux.interval(Duration.ZERO, staleAfter)
+        .onBackpressureDrop()
+        .concatMap(tick -> run().onErrorResume(error -> {
+          log.error("Resuming user deletions failed, they are retried on the next sweep", error);
+          return Mono.empty();
+        }))
+        .subscribe(resumed -> {
+          if (resumed > 0) {
+            log.info("Resumed {} orphaned user deletions", resumed);
+          }
+        });
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (sweeper != null) {
+      sweeper.dispose();
+    }
+  }
+
+  /**
+   * @return the number of deletions resumed
+   */
+  public Mono<Long> run() {
+    return userService.resumeUserDeletions(jobProperties.getUserDeletionResume().getStaleAfter())
+        .count();
+  }
+}
@@ -22,11 +22,20 @@ public interface DbMapper extends UuidMapper {
 
   DbUser toDbDto(RestUser restUser);
 
+  @Mapping(target = "ratingSum", ignore = true)
+  @Mapping(target = "normalizedTitle", ignore = true)
+  @Mapping(target = "normalizedTags", ignore = true)
   DbUserRecipe toDbDto(RestUserRecipe restUserRecipe);
 
   @Mapping(target = "reviewId", ignore = true)
   DbReview toDbDto(Review review);
 
+  @Mapping(target = "reviewCount", ignore = true)
+  @Mapping(target = "ratingSum", ignore = true)
+  @Mapping(target = "ratingHistogram", ignore = true)
+  @Mapping(target = "version", ignore = true)
+  @Mapping(target = "normalizedTitle", ignore = true)
+  @Mapping(target = "normalizedTags", ignore = true)
   DbUserRecipe toDbDto(UserRecipe userRecipe);
 
   List<DbUserRecipe> toDbDto(List<RestUserRecipe> restUserRecipes);
@@ -1,14 +1,25 @@
 package recipex.mapper;
 
 
+import recipex.db.DbRecipeSummary;
 import recipex.db.DbReview;
+import recipex.db.DbTagCount;
 import recipex.db.DbUser;
+import recipex.db.DbUserDeletion;
 import recipex.db.DbUserRecipe;
+import recipex.search.IngredientMatch;
+import recipex.search.Suggestion;
+import recipex.rest.RestIngredientMatch;
+import recipex.rest.RestRecipeSummary;
 import recipex.rest.RestReview;
+import recipex.rest.RestSuggestion;
+import recipex.rest.RestTagFacet;
 import recipex.rest.RestUser;
+import recipex.rest.RestUserDeletion;
 import recipex.rest.RestUserRecipe;
 import java.util.List;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.ReportingPolicy;
 
 @Mapper(
@@ -17,11 +28,26 @@ import org.mapstruct.ReportingPolicy;
 )
 public interface RestMapper extends UuidMapper {
 
+  @Mapping(target = "recipesNextCursor", ignore = true)
   RestUser toRestDto(DbUser dbUser);
 
   RestUserRecipe toRestDto(DbUserRecipe dbUserRecipe);
 
   List<RestUserRecipe> toRestDto(List<DbUserRecipe> dbUserRecipes);
 
+  RestRecipeSummary toRestDto(DbRecipeSummary dbRecipeSummary);
+
+  @Mapping(target = "recipeId", source = "dbUserRecipe.recipeId")
+  @Mapping(target = "matchedIngredients", source = "match.covered")
+  @Mapping(target = "totalIngredients", source = "match.total")
+  @Mapping(target = "missingIngredients", ignore = true)
+  RestIngredientMatch toRestDto(DbUserRecipe dbUserRecipe, IngredientMatch match);
+
   RestReview toRestDto(DbReview dbReview);
+
+  RestTagFacet toRestDto(DbTagCount dbTagCount);
+
+  RestSuggestion toRestDto(Suggestion suggestion);
+
+  RestUserDeletion toRestDto(DbUserDeletion dbUserDeletion);
 }
@@ -0,0 +1,10 @@
+package recipex.mongo;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import recipex.db.DbJobCheckpoint;
+
+@Repository
+public interface DbJobCheckpointRepository extends ReactiveMongoRepository<DbJobCheckpoint, String>,
+    DbJobCheckpointRepositoryCustom {
+}
@@ -0,0 +1,9 @@
+package recipex.mongo;
+
+import java.time.LocalDateTime;
+import reactor.core.publisher.Mono;
+import recipex.db.DbJobCheckpoint;
+
+public interface DbJobCheckpointRepositoryCustom {
+  Mono<DbJobCheckpoint> claim(String jobName, LocalDateTime untouchedSince);
+}
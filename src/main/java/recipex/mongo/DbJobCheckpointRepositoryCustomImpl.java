@@ -0,0 +1,31 @@
+package recipex.mongo;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.time.LocalDateTime;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+import recipex.db.DbJobCheckpoint;
+
+@RequiredArgsConstructor
+public class DbJobCheckpointRepositoryCustomImpl implements DbJobCheckpointRepositoryCustom {
+  private static final String UPDATED_AT = "updatedAt";
+
+  private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+  @Override
+  public Mono<DbJobCheckpoint> claim(String jobName, LocalDateTime untouchedSince) {
+    var query = query(where("_id").is(jobName)
+        .orOperator(where(UPDATED_AT).lt(untouchedSince), where(UPDATED_AT).exists(false)));
+
+    // a checkpoint touched since does not match, and the upsert of its ID then fails on the unique _id
+    return reactiveMongoTemplate.findAndModify(query, new Update().set(UPDATED_AT, LocalDateTime.now()),
+            FindAndModifyOptions.options().returnNew(true).upsert(true), DbJobCheckpoint.class)
+        .onErrorResume(DuplicateKeyException.class, error -> Mono.empty());
+  }
+}
@@ -1,16 +1,17 @@
 package recipex.mongo;
 
-import java.util.List;
+import java.util.Collection;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import recipex.db.DbUserRecipe;
 
 @Repository
-public interface DbRecipeRepository extends ReactiveMongoRepository<DbUserRecipe, String> {
-  Flux<DbUserRecipe> findByTitle(String title);
+public interface DbRecipeRepository extends ReactiveMongoRepository<DbUserRecipe, String>, DbRecipeRepositoryCustom {
+  Flux<DbUserRecipe> findByUserId(String userId);
 
-  Flux<DbUserRecipe> findByTagsContaining(List<String> tags);
+  Mono<Long> deleteByUserId(String userId);
 
-  Flux<DbUserRecipe> findByUserId(String userId);
+  Mono<Long> deleteByRecipeIdIn(Collection<String> recipeIds);
 }
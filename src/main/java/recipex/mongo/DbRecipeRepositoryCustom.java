@@ -0,0 +1,56 @@
+package recipex.mongo;
+
+import java.util.List;
+import java.util.Map;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import recipex.db.DbRecipeSummary;
+import recipex.db.DbTagCount;
+import recipex.db.DbTagMatch;
+import recipex.db.DbUserRecipe;
+import recipex.pagination.KeysetCursor;
+import recipex.pagination.OverlapCursor;
+import recipex.pagination.ScoreCursor;
+
+public interface DbRecipeRepositoryCustom {
+  Flux<DbRecipeSummary> findPageByTitle(String title, KeysetCursor after, int limit);
+
+  Flux<DbRecipeSummary> findPageByTags(List<String> tags, KeysetCursor after, int limit);
+
+  Flux<DbTagMatch> findPageByTagOverlap(List<String> tags, int minMatches, OverlapCursor after, int limit);
+
+  Flux<DbRecipeSummary> findPageByUserId(String userId, KeysetCursor after, int limit);
+
+  Flux<DbRecipeSummary> searchPage(String text, ScoreCursor after, int limit);
+
+  Flux<DbRecipeSummary> streamByTitle(String title);
+
+  Flux<DbRecipeSummary> streamByTags(List<String> tags);
+
+  Flux<DbUserRecipe> streamByUserId(String userId);
+
+  Flux<DbUserRecipe> findTitlesAndTagsByUserId(String userId, int limit);
+
+  Flux<String> streamRecipeIds();
+
+  Flux<DbUserRecipe> streamIngredients();
+
+  Flux<DbUserRecipe> streamTitlesAndTags();
+
+  Flux<DbTagCount> recountTags();
+
+  Mono<Map<Integer, String>> insertUnordered(List<DbUserRecipe> recipes);
+
+  Mono<DbUserRecipe> patchRecipe(String recipeId, String userId, Long expectedVersion,
+                                 Map<String, Object> changes);
+
+  Mono<DbUserRecipe> replaceContent(String recipeId, Long version, Map<String, Object> fields);
+
+  Mono<Boolean> updateImageUrl(String recipeId, String imageUrl);
+
+  Mono<DbUserRecipe> applyReviewRating(String recipeId, Integer previousRating, int rating);
+
+  Mono<Boolean> updateAverageRating(String recipeId, long reviewCount, long ratingSum);
+
+  Mono<Integer> recomputeRatingAggregates(List<String> recipeIds);
+}
@@ -0,0 +1,373 @@
+package recipex.mongo;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.GroupOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import recipex.db.DbRecipeSummary;
+import recipex.db.DbReview;
+import recipex.db.DbTagCount;
+import recipex.db.DbTagMatch;
+import recipex.db.DbUserRecipe;
+import recipex.pagination.KeysetCursor;
+import recipex.pagination.OverlapCursor;
+import recipex.pagination.ScoreCursor;
+
+@RequiredArgsConstructor
+public class DbRecipeRepositoryCustomImpl implements DbRecipeRepositoryCustom {
+  private static final String REVIEW_COUNT = "reviewCount";
+  private static final String RATING_SUM = "ratingSum";
+  private static final String RATING_HISTOGRAM = "ratingHistogram.";
+  private static final String VERSION = "version";
+  private static final int ID_BATCH_SIZE = 5_000;
+  private static final int INGREDIENT_BATCH_SIZE = 1_000;
+  private static final int SUGGESTION_BATCH_SIZE = 2_000;
+  private static final String SCORE = "score";
+  private static final String NORMALIZED_TITLE = "normalizedTitle";
+  private static final String NORMALIZED_TAGS = "normalizedTags";
+  private static final String OVERLAP = "overlap";
+  private static final String TAG_COUNT = "count";
+  private static final List<String> SUMMARY_FIELDS = List.of("userId", "title", "description", "tags", "imageUrl",
+      "createdAt", "averageRating", "reviewCount");
+  private static final List<Integer> STARS = List.of(1, 2, 3, 4, 5);
+
+  private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+  @Override
+  public Flux<DbRecipeSummary> findPageByTitle(String title, KeysetCursor after, int limit) {
+    return findPage(where(NORMALIZED_TITLE).is(title), after, limit);
+  }
+
+  @Override
+  public Flux<DbRecipeSummary> findPageByTags(List<String> tags, KeysetCursor after, int limit) {
+    return findPage(where(NORMALIZED_TAGS).all(tags), after, limit);
+  }
+
+  @Override
+  public Flux<DbTagMatch> findPageByTagOverlap(List<String> tags, int minMatches, OverlapCursor after, int limit) {
+    var operations = new ArrayList<AggregationOperation>();
+    operations.add(Aggregation.match(where(NORMALIZED_TAGS).in(tags)));
+    operations.add(context -> new Document("$addFields", new Document(OVERLAP,
+        new Document("$size", new Document("$setIntersection",
+            List.of("$" + NORMALIZED_TAGS, new Document("$literal", tags)))))));
+    operations.add(Aggregation.match(where(OVERLAP).gte(minMatches)));
+    if (after != null) {
+      operations.add(Aggregation.match(new Criteria().orOperator(
+          where(OVERLAP).lt(after.getOverlap()),
+          new Criteria().andOperator(where(OVERLAP).is(after.getOverlap()),
+              KeysetQueries.olderThan(new KeysetCursor(after.getCreatedAt(), after.getId()))))));
+    }
+    // sort followed by limit keeps only the top of the ranking in memory, however many recipes match
+    operations.add(Aggregation.sort(Sort.by(Sort.Direction.DESC, OVERLAP).and(KeysetQueries.NEWEST_FIRST)));
+    operations.add(Aggregation.limit(limit));
+    // the projection runs after the limit, so only the summaries of the page are built
+    var recipe = new Document("_id", "$_id");
+    SUMMARY_FIELDS.forEach(field -> recipe.append(field, "$" + field));
+    operations.add(context -> new Document("$project",
+        new Document("_id", 0).append(OVERLAP, 1).append("recipe", recipe)));
+
+    return reactiveMongoTemplate.aggregate(Aggregation.newAggregation(operations), DbUserRecipe.class,
+        DbTagMatch.class);
+  }
+
+  @Override
+  public Flux<DbRecipeSummary> findPageByUserId(String userId, KeysetCursor after, int limit) {
+    return findPage(where("userId").is(userId), after, limit);
+  }
+
+  @Override
+  public Flux<DbRecipeSummary> searchPage(String text, ScoreCursor after, int limit) {
+    var operations = new ArrayList<AggregationOperation>();
+    operations.add(Aggregation.match(TextCriteria.forDefaultLanguage().matching(text)));
+    operations.add(context -> new Document("$project", summaryProjection()));
+    if (after != null) {
+      operations.add(Aggregation.match(new Criteria().orOperator(
+          where(SCORE).lt(after.getScore()),
+          where(SCORE).is(after.getScore()).and("_id").lt(after.getId()))));
+    }
+    operations.add(Aggregation.sort(Sort.by(Sort.Direction.DESC, SCORE, "_id")));
+    operations.add(Aggregation.limit(limit));
+
+    return reactiveMongoTemplate.aggregate(Aggregation.newAggregation(operations),
+        reactiveMongoTemplate.getCollectionName(DbUserRecipe.class), DbRecipeSummary.class);
+  }
+
+  @Override
+  public Flux<DbRecipeSummary> streamByTitle(String title) {
+    return streamSummaries(where(NORMALIZED_TITLE).is(title));
+  }
+
+  @Override
+  public Flux<DbRecipeSummary> streamByTags(List<String> tags) {
+    return streamSummaries(where(NORMALIZED_TAGS).in(tags));
+  }
+
+  @Override
+  public Flux<DbUserRecipe> streamByUserId(String userId) {
+    return stream(where("userId").is(userId));
+  }
+
+  @Override
+  public Flux<DbUserRecipe> findTitlesAndTagsByUserId(String userId, int limit) {
+    var query = query(where("userId").is(userId))
+        .with(Sort.by("_id"))
+        .limit(limit);
+    query.fields().include("_id", "title", NORMALIZED_TAGS);
+
+    return reactiveMongoTemplate.find(query, DbUserRecipe.class);
+  }
+
+  @Override
+  public Flux<String> streamRecipeIds() {
+    // only _id is returned, so large batches stay small on the wire
+    var query = new Query().cursorBatchSize(ID_BATCH_SIZE);
+    query.fields().include("_id");
+
+    return reactiveMongoTemplate.find(query, DbUserRecipe.class)
+        .map(DbUserRecipe::getRecipeId);
+  }
+
+  @Override
+  public Flux<DbUserRecipe> streamIngredients() {
+    var query = new Query().cursorBatchSize(INGREDIENT_BATCH_SIZE);
+    query.fields().include("_id", "ingredients");
+
+    return reactiveMongoTemplate.find(query, DbUserRecipe.class);
+  }
+
+  @Override
+  public Flux<DbUserRecipe> streamTitlesAndTags() {
+    var query = new Query().cursorBatchSize(SUGGESTION_BATCH_SIZE);
+    query.fields().include("_id", "title", NORMALIZED_TAGS);
+
+    return reactiveMongoTemplate.find(query, DbUserRecipe.class);
+  }
+
+  @Override
+  public Flux<DbTagCount> recountTags() {
+    var aggregation = Aggregation.newAggregation(tagCountStages())
+        .withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+
+    return reactiveMongoTemplate.aggregate(aggregation, DbUserRecipe.class, Document.class)
+        .map(count -> new DbTagCount()
+            .setTag(count.getString("_id"))
+            .setCount(((Number) count.get(TAG_COUNT)).longValue()));
+  }
+
+  private List<AggregationOperation> tagCountStages() {
+    return List.of(
+        // counted under the tags facets are asked for, a tag listed twice still counts its recipe once
+        context -> new Document("$project", new Document(NORMALIZED_TAGS,
+            new Document("$setUnion", List.of("$" + NORMALIZED_TAGS, List.of())))),
+        Aggregation.unwind(NORMALIZED_TAGS),
+        Aggregation.group(NORMALIZED_TAGS).count().as(TAG_COUNT));
+  }
+
+  private Document summaryProjection() {
+    var projection = new Document();
+    SUMMARY_FIELDS.forEach(field -> projection.append(field, 1));
+    // the text score is only reachable through $meta, so it is projected before ranking on it
+    return projection.append(SCORE, new Document("$meta", "textScore"));
+  }
+
+  private Flux<DbRecipeSummary> findPage(Criteria filter, KeysetCursor after, int limit) {
+    return findSummaries(KeysetQueries.newestFirst(filter, after, limit));
+  }
+
+  private Flux<DbRecipeSummary> streamSummaries(Criteria filter) {
+    return findSummaries(KeysetQueries.newestFirst(filter));
+  }
+
+  private Flux<DbRecipeSummary> findSummaries(Query query) {
+    // listings only read the summary fields, ingredients and instructions never leave the server
+    query.fields().include(SUMMARY_FIELDS.toArray(String[]::new));
+
+    return reactiveMongoTemplate.find(query, DbRecipeSummary.class,
+        reactiveMongoTemplate.getCollectionName(DbUserRecipe.class));
+  }
+
+  private Flux<DbUserRecipe> stream(Criteria filter) {
+    return reactiveMongoTemplate.find(KeysetQueries.newestFirst(filter), DbUserRecipe.class);
+  }
+
+  @Override
+  public Mono<Map<Integer, String>> insertUnordered(List<DbUserRecipe> recipes) {
+    // unordered: a rejected document neither stops nor rolls back the rest of the batch
+    return reactiveMongoTemplate.bulkOps(BulkMode.UNORDERED, DbUserRecipe.class)
+        .insert(recipes)
+        .execute()
+        .map(result -> Map.<Integer, String>of())
+        .onErrorResume(error -> writeErrorsOnly(error).isPresent(),
+            error -> Mono.just(writeErrorsOnly(error).orElseThrow().getWriteErrors().stream()
+                .collect(Collectors.toMap(BulkWriteError::getIndex, BulkWriteError::getMessage))));
+  }
+
+  private static Criteria versionIs(long version) {
+    // a recipe written before versioning has no version field until the backfill reaches it, and counts as 0
+    return version == 0L ? where(VERSION).in(0L, null) : where(VERSION).is(version);
+  }
+
+  private static Optional<MongoBulkWriteException> writeErrorsOnly(Throwable error) {
+    for (var cause = error; cause != null; cause = cause.getCause()) {
+      if (cause instanceof MongoBulkWriteException bulkWriteException) {
+        return Optional.of(bulkWriteException)
+            .filter(exception -> exception.getWriteConcernError() == null);
+      }
+    }
+    return Optional.empty();
+  }
+
+  @Override
+  public Mono<DbUserRecipe> patchRecipe(String recipeId, String userId, Long expectedVersion,
+                                        Map<String, Object> changes) {
+    // ownership and the expected version are part of the filter, so a foreign or stale recipe does not match
+    var query = query(where("_id").is(recipeId).and("userId").is(userId));
+    if (expectedVersion != null) {
+      query.addCriteria(versionIs(expectedVersion));
+    }
+    var update = new Update();
+    changes.forEach(update::set);
+
+    return reactiveMongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true),
+        DbUserRecipe.class);
+  }
+
+  @Override
+  public Mono<DbUserRecipe> replaceContent(String recipeId, Long version, Map<String, Object> fields) {
+    var query = query(where("_id").is(recipeId))
+        .addCriteria(versionIs(Objects.requireNonNullElse(version, 0L)));
+    var update = new Update().inc(VERSION, 1);
+    fields.forEach(update::set);
+
+    return reactiveMongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true),
+        DbUserRecipe.class);
+  }
+
+  @Override
+  public Mono<Boolean> updateImageUrl(String recipeId, String imageUrl) {
+    var update = new Update()
+        .set("imageUrl", imageUrl)
+        .unset("imageUploadUrl");
+
+    return reactiveMongoTemplate.updateFirst(query(where("_id").is(recipeId)), update, DbUserRecipe.class)
+        .map(result -> result.getMatchedCount() > 0);
+  }
+
+  @Override
+  public Mono<DbUserRecipe> applyReviewRating(String recipeId, Integer previousRating, int rating) {
+    var query = query(where("_id").is(recipeId));
+    query.fields().include(REVIEW_COUNT, RATING_SUM);
+
+    var update = new Update()
+        .inc(RATING_HISTOGRAM + rating, 1);
+
+    if (previousRating == null) {
+      update
+          .inc(REVIEW_COUNT, 1)
+          .inc(RATING_SUM, rating);
+    } else {
+      update
+          .inc(RATING_SUM, rating - previousRating)
+          .inc(RATING_HISTOGRAM + previousRating, -1);
+    }
+
+    return reactiveMongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true),
+        DbUserRecipe.class);
+  }
+
+  @Override
+  public Mono<Boolean> updateAverageRating(String recipeId, long reviewCount, long ratingSum) {
+    // only the writer that still sees the latest counters sets the average, so it never goes backwards
+    var query = query(where("_id").is(recipeId)
+        .and(REVIEW_COUNT).is(reviewCount)
+        .and(RATING_SUM).is(ratingSum));
+
+    var update = reviewCount > 0
+        ? new Update().set("averageRating", (double) ratingSum / reviewCount)
+        : new Update().unset("averageRating");
+
+    return reactiveMongoTemplate.updateFirst(query, update, DbUserRecipe.class)
+        .map(result -> result.getModifiedCount() > 0);
+  }
+
+  @Override
+  public Mono<Integer> recomputeRatingAggregates(List<String> recipeIds) {
+    var aggregation = Aggregation.newAggregation(
+        Aggregation.match(where("recipeId").in(recipeIds)),
+        ratingAggregates());
+
+    return reactiveMongoTemplate.aggregate(aggregation, DbReview.class, Document.class)
+        .collectMap(aggregates -> aggregates.getString("_id"))
+        .flatMap(aggregatesByRecipe -> writeAggregates(recipeIds, aggregatesByRecipe));
+  }
+
+  private Mono<Integer> writeAggregates(List<String> recipeIds, Map<String, Document> aggregatesByRecipe) {
+    var bulkOperations = reactiveMongoTemplate.bulkOps(BulkMode.UNORDERED, DbUserRecipe.class);
+
+    recipeIds.forEach(recipeId -> bulkOperations.updateOne(
+        query(where("_id").is(recipeId)), toUpdate(aggregatesByRecipe.get(recipeId))));
+
+    return bulkOperations.execute()
+        .map(result -> result.getMatchedCount());
+  }
+
+  private Update toUpdate(Document aggregates) {
+    // recipes without reviews have no group, which means all counters are zero
+    var reviewCount = aggregates != null ? ((Number) aggregates.get(REVIEW_COUNT)).longValue() : 0L;
+    var ratingSum = aggregates != null ? ((Number) aggregates.get(RATING_SUM)).longValue() : 0L;
+    var ratingHistogram = new Document();
+
+    STARS.forEach(star -> ratingHistogram.append(String.valueOf(star),
+        aggregates != null ? ((Number) aggregates.get("rating" + star)).longValue() : 0L));
+
+    var update = new Update()
+        .set(REVIEW_COUNT, reviewCount)
+        .set(RATING_SUM, ratingSum)
+        .set("ratingHistogram", ratingHistogram)
+        // bulk writes bypass the template's automatic version increment
+        .inc(VERSION, 1);
+
+    return reviewCount > 0
+        ? update.set("averageRating", (double) ratingSum / reviewCount)
+        : update.unset("averageRating");
+  }
+
+  private GroupOperation ratingAggregates() {
+    var group = Aggregation.group("recipeId")
+        .count().as(REVIEW_COUNT)
+        .sum("rating").as(RATING_SUM);
+
+    for (var star : STARS) {
+      group = group.sum(ConditionalOperators.when(ComparisonOperators.valueOf("rating").equalToValue(star))
+          .then(1)
+          .otherwise(0)).as("rating" + star);
+    }
+
+    return group;
+  }
+}
@@ -0,0 +1,14 @@
+package recipex.mongo;
+
+import java.util.Collection;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+import recipex.db.DbReview;
+
+@Repository
+public interface DbReviewRepository extends ReactiveMongoRepository<DbReview, String>, DbReviewRepositoryCustom {
+  Mono<Long> deleteByRecipeId(String recipeId);
+
+  Mono<Long> deleteByRecipeIdIn(Collection<String> recipeIds);
+}
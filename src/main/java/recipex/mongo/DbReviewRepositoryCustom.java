@@ -0,0 +1,14 @@
+package recipex.mongo;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import recipex.db.DbReview;
+import recipex.pagination.KeysetCursor;
+
+public interface DbReviewRepositoryCustom {
+  Mono<DbReview> upsertReview(DbReview review);
+
+  Flux<DbReview> findPage(String recipeId, KeysetCursor after, int limit);
+
+  Flux<DbReview> streamByRecipeId(String recipeId);
+}
@@ -0,0 +1,47 @@
+package recipex.mongo;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import recipex.db.DbReview;
+import recipex.pagination.KeysetCursor;
+
+@RequiredArgsConstructor
+public class DbReviewRepositoryCustomImpl implements DbReviewRepositoryCustom {
+  private static final String RECIPE_ID = "recipeId";
+
+  private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+  @Override
+  public Mono<DbReview> upsertReview(DbReview review) {
+    var query = query(where(RECIPE_ID).is(review.getRecipeId())
+        .and("userId").is(review.getUserId()));
+
+    var update = new Update()
+        .set("rating", review.getRating())
+        .set("comment", review.getComment())
+        .setOnInsert("_id", review.getReviewId())
+        .setOnInsert("createdAt", review.getCreatedAt());
+
+    // returning the old document tells the caller whether this was an insert and which rating it replaced
+    return reactiveMongoTemplate.findAndModify(query, update,
+        FindAndModifyOptions.options().upsert(true).returnNew(false), DbReview.class);
+  }
+
+  @Override
+  public Flux<DbReview> findPage(String recipeId, KeysetCursor after, int limit) {
+    return reactiveMongoTemplate.find(KeysetQueries.newestFirst(where(RECIPE_ID).is(recipeId), after, limit),
+        DbReview.class);
+  }
+
+  @Override
+  public Flux<DbReview> streamByRecipeId(String recipeId) {
+    return reactiveMongoTemplate.find(KeysetQueries.newestFirst(where(RECIPE_ID).is(recipeId)), DbReview.class);
+  }
+}
@@ -0,0 +1,9 @@
+package recipex.mongo;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import recipex.db.DbTagCount;
+
+@Repository
+public interface DbTagCountRepository extends ReactiveMongoRepository<DbTagCount, String>, DbTagCountRepositoryCustom {
+}
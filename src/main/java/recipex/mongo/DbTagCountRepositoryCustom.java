@@ -0,0 +1,14 @@
+package recipex.mongo;
+
+import java.util.Map;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import recipex.db.DbTagCount;
+
+public interface DbTagCountRepositoryCustom {
+  Mono<Void> incrementCounts(Map<String, Long> deltas);
+
+  Flux<DbTagCount> findMostUsed(int limit);
+
+  Mono<Long> correctCounts(Map<String, Long> read, Map<String, Long> recounted);
+}
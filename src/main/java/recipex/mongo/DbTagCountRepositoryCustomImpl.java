@@ -0,0 +1,100 @@
+package recipex.mongo;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import recipex.db.DbTagCount;
+
+@RequiredArgsConstructor
+public class DbTagCountRepositoryCustomImpl implements DbTagCountRepositoryCustom {
+  private static final String COUNT = "count";
+
+  private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+  @Override
+  public Mono<Void> incrementCounts(Map<String, Long> deltas) {
+    var changed = deltas.entrySet().stream()
+        .filter(delta -> delta.getValue() != 0)
+        .toList();
+    if (changed.isEmpty()) {
+      return Mono.empty();
+    }
+
+    var bulkOperations = reactiveMongoTemplate.bulkOps(BulkMode.UNORDERED, DbTagCount.class);
+    changed.forEach(delta -> bulkOperations.upsert(query(where("_id").is(delta.getKey())),
+        new Update().inc(COUNT, delta.getValue())));
+
+    var decremented = changed.stream()
+        .filter(delta -> delta.getValue() < 0)
+        .map(Map.Entry::getKey)
+        .toList();
+
+    // a tag nobody uses any more is dropped rather than listed with zero recipes
+    return bulkOperations.execute()
+        .then(decremented.isEmpty()
+            ? Mono.empty()
+            : reactiveMongoTemplate.remove(query(where("_id").in(decremented).and(COUNT).lte(0)), DbTagCount.class)
+                .then());
+  }
+
+  @Override
+  public Flux<DbTagCount> findMostUsed(int limit) {
+    var query = new Query()
+        .with(Sort.by(Direction.DESC, COUNT).and(Sort.by("_id")))
+        .limit(limit);
+
+    return reactiveMongoTemplate.find(query, DbTagCount.class);
+  }
+
+  /**
+   * Sets each tag whose recount differs from the count read before it. A count is only replaced
+   * while it still holds the value read, so an increment made during the recount is never
+   * overwritten, and that tag is left for the next reconciliation.
+   *
+   * @param read      the stored counts, read before the recount started
+   * @param recounted the counts recounted from the recipes
+   * @return the number of tags corrected
+   */
+  @Override
+  public Mono<Long> correctCounts(Map<String, Long> read, Map<String, Long> recounted) {
+    var tags = new HashSet<>(read.keySet());
+    tags.addAll(recounted.keySet());
+
+    return Flux.fromIterable(tags)
+        .filter(tag -> !Objects.equals(read.get(tag), recounted.get(tag)))
+        .flatMap(tag -> correctCount(tag, read.get(tag), recounted.get(tag)))
+        .filter(Boolean::booleanValue)
+        .count();
+  }
+
+  private Mono<Boolean> correctCount(String tag, Long read, Long recounted) {
+    if (read == null) {
+      // a tag counted for the first time meanwhile already holds its increments
+      return reactiveMongoTemplate.insert(new DbTagCount().setTag(tag).setCount(recounted))
+          .thenReturn(true)
+          .onErrorResume(DuplicateKeyException.class, error -> Mono.just(false));
+    }
+
+    var unchanged = query(where("_id").is(tag).and(COUNT).is(read));
+    if (recounted == null) {
+      return reactiveMongoTemplate.remove(unchanged, DbTagCount.class)
+          .map(result -> result.getDeletedCount() > 0);
+    }
+
+    return reactiveMongoTemplate.updateFirst(unchanged, new Update().set(COUNT, recounted), DbTagCount.class)
+        .map(result -> result.getModifiedCount() > 0);
+  }
+}
@@ -0,0 +1,9 @@
+package recipex.mongo;
+
+import java.time.LocalDateTime;
+import reactor.core.publisher.Mono;
+import recipex.db.DbUserDeletion;
+
+public interface DbUserDeletionRepositoryCustom {
+  Mono<DbUserDeletion> claimStale(LocalDateTime untouchedSince);
+}
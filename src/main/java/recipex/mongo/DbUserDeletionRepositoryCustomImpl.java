@@ -0,0 +1,31 @@
+package recipex.mongo;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.time.LocalDateTime;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+import recipex.db.DbUserDeletion;
+import recipex.domain.DeletionStatus;
+
+@RequiredArgsConstructor
+public class DbUserDeletionRepositoryCustomImpl implements DbUserDeletionRepositoryCustom {
+  private static final String UPDATED_AT = "updatedAt";
+
+  private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+  @Override
+  public Mono<DbUserDeletion> claimStale(LocalDateTime untouchedSince) {
+    // deletions started before the heartbeat was stored have none and count as stale
+    var query = query(where("status").is(DeletionStatus.RUNNING)
+        .orOperator(where(UPDATED_AT).lt(untouchedSince), where(UPDATED_AT).exists(false)));
+
+    // touching the deletion in the same write claims it, another instance no longer sees it as stale
+    return reactiveMongoTemplate.findAndModify(query, new Update().set(UPDATED_AT, LocalDateTime.now()),
+        FindAndModifyOptions.options().returnNew(true), DbUserDeletion.class);
+  }
+}
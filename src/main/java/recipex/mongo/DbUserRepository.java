@@ -10,4 +10,6 @@ import recipex.db.DbUser;
 public interface DbUserRepository extends ReactiveMongoRepository<DbUser, String> {
   @Query(value = "{ 'username.email': ?0 }", fields = "{ 'username.email': 1 }")
   Mono<DbUser> findByEmail(String email);
+
+  Mono<Long> removeById(String id);
 }
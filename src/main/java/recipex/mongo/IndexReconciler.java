@@ -0,0 +1,87 @@
+package recipex.mongo;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import recipex.boot.config.properties.IndexProperties;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "recipex.indexes", name = "reconcile-on-startup", havingValue = "true",
+    matchIfMissing = true)
+public class IndexReconciler implements SmartInitializingSingleton {
+  private static final String ID_INDEX = "_id_";
+  private static final Duration TIMEOUT = Duration.ofMinutes(5);
+
+  private final ReactiveMongoTemplate reactiveMongoTemplate;
+  private final IndexProperties indexProperties;
+
+  @Override
+  public void afterSingletonsInstantiated() {
+    // runs before the web server starts, so no request is served against a missing index
+    reconcile().block(TIMEOUT);
+  }
+
+  /**
+   * Creates every index declared on the mapped documents that does not exist yet, and reports or
+   * drops indexes that are no longer declared. A failing index is logged and does not stop the
+   * others.
+   *
+   * @return completion once every collection has been reconciled
+   */
+  public Mono<Void> reconcile() {
+    var mappingContext = reactiveMongoTemplate.getConverter().getMappingContext();
+    var indexResolver = IndexResolver.create(mappingContext);
+
+    return Flux.fromIterable(mappingContext.getPersistentEntities())
+        .filter(entity -> entity.isAnnotationPresent(Document.class))
+        .concatMap(entity -> reconcile(entity, indexResolver.resolveIndexFor(entity.getType())))
+        .then();
+  }
+
+  private Mono<Void> reconcile(MongoPersistentEntity<?> entity, Iterable<? extends IndexDefinition> declared) {
+    var collection = entity.getCollection();
+    var indexOperations = reactiveMongoTemplate.indexOps(entity.getType());
+    var declaredNames = new HashSet<String>();
+
+    return Flux.fromIterable(declared)
+        .doOnNext(definition -> declaredNames.add(definition.getIndexOptions().getString("name")))
+        .concatMap(definition -> indexOperations.ensureIndex(definition)
+            .doOnNext(name -> log.info("Index {} on {} is in place", name, collection))
+            .onErrorResume(error -> {
+              log.error("Could not create index {} on {}", definition.getIndexKeys(), collection, error);
+              return Mono.empty();
+            }))
+        .thenMany(Flux.defer(() -> removeUndeclared(indexOperations, collection, declaredNames)))
+        .then();
+  }
+
+  private Flux<Void> removeUndeclared(ReactiveIndexOperations indexOperations, String collection,
+                                      Set<String> declaredNames) {
+    return indexOperations.getIndexInfo()
+        .filter(index -> !ID_INDEX.equals(index.getName()) && !declaredNames.contains(index.getName()))
+        .concatMap(index -> {
+          if (!indexProperties.isDropUndeclared()) {
+            log.warn("Index {} on {} is not declared by the application", index.getName(), collection);
+            return Mono.empty();
+          }
+
+          log.info("Dropping undeclared index {} on {}", index.getName(), collection);
+          return indexOperations.dropIndex(index.getName());
+        });
+  }
+}
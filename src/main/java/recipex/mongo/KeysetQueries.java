@@ -0,0 +1,67 @@
+package recipex.mongo;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import recipex.pagination.KeysetCursor;
+
+public final class KeysetQueries {
+  private static final String CREATED_AT = "createdAt";
+  private static final String ID = "_id";
+
+  private static final int STREAM_BATCH_SIZE = 100;
+
+  public static final Sort NEWEST_FIRST = Sort.by(Direction.DESC, CREATED_AT, ID);
+
+  private KeysetQueries() {
+  }
+
+  /**
+   * Builds a newest-first query that resumes strictly after the given cursor, so every page is an
+   * index range scan no matter how deep it is.
+   *
+   * @param filter the filter of the listing
+   * @param after  the position to resume after, or null for the first page
+   * @param limit  the number of documents to fetch
+   * @return the query
+   */
+  public static Query newestFirst(Criteria filter, KeysetCursor after, int limit) {
+    var criteria = after == null ? filter : new Criteria().andOperator(filter, olderThan(after));
+
+    return query(criteria)
+        .with(NEWEST_FIRST)
+        .limit(limit);
+  }
+
+  /**
+   * Builds an unbounded newest-first query for streaming. The cursor is fetched in small batches, so
+   * only the documents the subscriber has requested are held in memory.
+   *
+   * @param filter the filter of the listing
+   * @return the query
+   */
+  public static Query newestFirst(Criteria filter) {
+    return query(filter)
+        .with(NEWEST_FIRST)
+        .cursorBatchSize(STREAM_BATCH_SIZE);
+  }
+
+  /**
+   * @return the criteria of the documents after the cursor in newest-first order
+   */
+  static Criteria olderThan(KeysetCursor cursor) {
+    // documents without createdAt sort last in descending order
+    if (cursor.getCreatedAt() == null) {
+      return where(CREATED_AT).is(null).and(ID).lt(cursor.getId());
+    }
+
+    return new Criteria().orOperator(
+        where(CREATED_AT).lt(cursor.getCreatedAt()),
+        where(CREATED_AT).is(cursor.getCreatedAt()).and(ID).lt(cursor.getId()),
+        where(CREATED_AT).is(null));
+  }
+}
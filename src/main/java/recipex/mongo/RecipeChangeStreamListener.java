@@ -0,0 +1,205 @@
+package recipex.mongo;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.model.changestream.OperationType;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonTimestamp;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.util.retry.Retry;
+import recipex.cache.MissingRecipeCache;
+import recipex.cache.RecipeCache;
+import recipex.cache.RecipeIdFilter;
+import recipex.search.IngredientIndex;
+import recipex.search.SuggestionIndex;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "recipex.cache.recipes", name = "change-stream-enabled", havingValue = "true",
+    matchIfMissing = true)
+public class RecipeChangeStreamListener {
+  private static final String RECIPES_COLLECTION = "recipes";
+  private static final int CHANGE_STREAM_NOT_SUPPORTED = 40573;
+  private static final String INGREDIENTS = "ingredients";
+  private static final String FULL_DOCUMENT_INGREDIENTS = "fullDocument." + INGREDIENTS;
+  private static final String UPDATED_FIELDS = "updateDescription.updatedFields.";
+  private static final String UPDATED_INGREDIENTS = UPDATED_FIELDS + INGREDIENTS;
+  // the fields suggestions are made of, the tags for writers that do not store normalized ones
+  private static final List<String> SUGGESTED_FIELDS = List.of("title", "normalizedTags", "tags");
+
+  private final ReactiveMongoTemplate reactiveMongoTemplate;
+  private final RecipeCache recipeCache;
+  private final MissingRecipeCache missingRecipeCache;
+  private final RecipeIdFilter recipeIdFilter;
+  private final IngredientIndex ingredientIndex;
+  private final SuggestionIndex suggestionIndex;
+
+  private Disposable subscription;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    log.info("Listening for changes on collection: {}", RECIPES_COLLECTION);
+
+    var projection = new Document("operationType", 1)
+        .append("documentKey", 1)
+        .append("ns", 1)
+        .append(FULL_DOCUMENT_INGREDIENTS, 1)
+        .append(UPDATED_INGREDIENTS, 1);
+    SUGGESTED_FIELDS.forEach(field -> projection.append(UPDATED_FIELDS + field, 1));
+
+    subscription = Flux.defer(() -> openChangeStream(projection))
+        .doOnNext(this::evict)
+        .doOnNext(this::registerInsert)
+        // our own writes come back here as well, indexing them again is idempotent
+        .doOnNext(this::updateIngredients)
+        .doOnNext(this::updateSuggestions)
+        .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+            .maxBackoff(Duration.ofMinutes(1))
+            .filter(error -> !isChangeStreamNotSupported(error))
+            .doBeforeRetry(signal -> log.warn("Change stream on {} failed, reconnecting",
+                RECIPES_COLLECTION, signal.failure())))
+        // without the stream, recipes created by other instances would be answered as missing
+        .doFinally(signal -> recipeIdFilter.disable())
+        .subscribe(
+            unused -> { },
+            error -> log.error("Change stream on {} stopped, cache relies on TTL for remote writes",
+                RECIPES_COLLECTION, error));
+  }
+
+  /**
+   * Opens the stream at a server time read before the caches are cleared and the ID filter is
+   * rebuilt, so every write is either seen by the rebuild or reported by the stream, including
+   * those made while we were (re)connecting.
+   */
+  private Flux<ChangeStreamEvent<Document>> openChangeStream(Document projection) {
+    return reactiveMongoTemplate.executeCommand(new Document("ping", 1))
+        .flatMapMany(reply -> {
+          var options = ChangeStreamOptions.builder()
+              .filter(new Document("$project", projection));
+          var operationTime = reply.get("operationTime", BsonTimestamp.class);
+          if (operationTime != null) {
+            options.resumeAt(operationTime);
+          }
+
+          recipeCache.evictAll();
+          missingRecipeCache.evictAll();
+          recipeIdFilter.refresh();
+
+          return reactiveMongoTemplate.changeStream(RECIPES_COLLECTION, options.build(), Document.class);
+        });
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (subscription != null) {
+      subscription.dispose();
+    }
+  }
+
+  private void evict(ChangeStreamEvent<Document> event) {
+    var raw = event.getRaw();
+    var documentKey = raw != null ? raw.getDocumentKey() : null;
+
+    if (documentKey == null || !documentKey.isString("_id")) {
+      recipeCache.evictAll();
+      return;
+    }
+
+    recipeCache.evict(documentKey.getString("_id").getValue());
+  }
+
+  private void registerInsert(ChangeStreamEvent<Document> event) {
+    var raw = event.getRaw();
+    var documentKey = raw != null ? raw.getDocumentKey() : null;
+
+    // recipes created by other instances must not be answered as missing
+    if (documentKey != null && documentKey.isString("_id") && event.getOperationType() == OperationType.INSERT) {
+      var recipeId = documentKey.getString("_id").getValue();
+      recipeIdFilter.add(recipeId);
+      missingRecipeCache.evict(recipeId);
+    }
+  }
+
+  /**
+   * Indexes the ingredients the event carries, so only writes that touch them cost anything. Inserts
+   * and replacements carry the whole document. Recipe writes always set the ingredients as a whole
+   * list, so an update that changes them carries the new list in its updated fields.
+   */
+  private void updateIngredients(ChangeStreamEvent<Document> event) {
+    var raw = event.getRaw();
+    var documentKey = raw != null ? raw.getDocumentKey() : null;
+
+    if (documentKey == null || !documentKey.isString("_id")) {
+      return;
+    }
+
+    var recipeId = documentKey.getString("_id").getValue();
+    switch (event.getOperationType()) {
+      case INSERT, REPLACE -> {
+        var fullDocument = event.getBody();
+        if (fullDocument != null) {
+          ingredientIndex.index(recipeId, fullDocument.getList(INGREDIENTS, String.class));
+        }
+      }
+      case UPDATE -> {
+        var updateDescription = raw.getUpdateDescription();
+        var updatedFields = updateDescription != null ? updateDescription.getUpdatedFields() : null;
+        if (updatedFields != null && updatedFields.isArray(INGREDIENTS)) {
+          ingredientIndex.index(recipeId, updatedFields.getArray(INGREDIENTS).stream()
+              .filter(BsonValue::isString)
+              .map(ingredient -> ingredient.asString().getValue())
+              .toList());
+        }
+      }
+      case DELETE -> ingredientIndex.remove(recipeId);
+      default -> { }
+    }
+  }
+
+  private void updateSuggestions(ChangeStreamEvent<Document> event) {
+    var raw = event.getRaw();
+    if (raw == null) {
+      return;
+    }
+
+    var documentKey = raw.getDocumentKey();
+    var recipeId = documentKey != null && documentKey.isString("_id") ? documentKey.getString("_id").getValue() : null;
+
+    var changesSuggestions = switch (event.getOperationType()) {
+      case INSERT, REPLACE, DELETE -> true;
+      case UPDATE -> {
+        var updateDescription = raw.getUpdateDescription();
+        var updatedFields = updateDescription != null ? updateDescription.getUpdatedFields() : null;
+        yield updatedFields != null && SUGGESTED_FIELDS.stream().anyMatch(updatedFields::containsKey);
+      }
+      default -> false;
+    };
+    if (changesSuggestions) {
+      suggestionIndex.changed(recipeId);
+    }
+  }
+
+  private boolean isChangeStreamNotSupported(Throwable error) {
+    for (var cause = error; cause != null; cause = cause.getCause()) {
+      if (cause instanceof MongoCommandException commandException
+          && commandException.getErrorCode() == CHANGE_STREAM_NOT_SUPPORTED) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,25 @@
+package recipex.mongo;
+
+import org.reactivestreams.Publisher;
+import org.springframework.data.mongodb.core.mapping.event.ReactiveBeforeConvertCallback;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import recipex.db.DbUserRecipe;
+import recipex.search.TagNormalizer;
+import recipex.search.TitleNormalizer;
+
+/**
+ * Derives the normalised fields of a recipe right before it is written, so every save, insert and
+ * bulk insert stores them no matter which service or test wrote the recipe. Partial updates do not
+ * pass through here and set the derived fields themselves.
+ */
+@Component
+public class RecipeNormalizingCallback implements ReactiveBeforeConvertCallback<DbUserRecipe> {
+
+  @Override
+  public Publisher<DbUserRecipe> onBeforeConvert(DbUserRecipe recipe, String collection) {
+    return Mono.just(recipe
+        .setNormalizedTitle(TitleNormalizer.normalize(recipe.getTitle()))
+        .setNormalizedTags(TagNormalizer.normalize(recipe.getTags())));
+  }
+}
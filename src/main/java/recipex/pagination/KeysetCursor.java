@@ -0,0 +1,57 @@
+package recipex.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import lombok.Value;
+
+@Value
+public class KeysetCursor implements PageCursor {
+  private static final String SEPARATOR = "|";
+
+  LocalDateTime createdAt;
+  String id;
+
+  /**
+   * Encodes the cursor as an opaque, URL-safe continuation token.
+   *
+   * @return the token
+   */
+  @Override
+  public String encode() {
+    var value = (createdAt != null ? createdAt.toString() : "") + SEPARATOR + id;
+
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Decodes a continuation token produced by {@link #encode()}.
+   *
+   * @param token the token, may be null
+   * @return the cursor, or null when no token was given
+   * @throws IllegalArgumentException if the token is malformed
+   */
+  public static KeysetCursor decode(String token) {
+    if (token == null || token.isBlank()) {
+      return null;
+    }
+
+    try {
+      var value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      var separator = value.indexOf(SEPARATOR);
+      var createdAt = value.substring(0, separator);
+      var id = value.substring(separator + 1);
+
+      if (id.isEmpty()) {
+        throw new IllegalArgumentException("Invalid cursor: " + token);
+      }
+
+      return new KeysetCursor(createdAt.isEmpty() ? null : LocalDateTime.parse(createdAt), id);
+    } catch (IndexOutOfBoundsException | DateTimeParseException ex) {
+      throw new IllegalArgumentException("Invalid cursor: " + token, ex);
+    }
+  }
+}
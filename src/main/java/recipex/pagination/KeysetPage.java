@@ -0,0 +1,42 @@
+package recipex.pagination;
+
+import java.util.List;
+import java.util.function.Function;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+public class KeysetPage<T> {
+
+  private List<T> items;
+  private String nextCursor;
+
+  /**
+   * Builds a page from a result fetched with one element more than the page size, which is how
+   * we learn whether another page exists without counting.
+   *
+   * @param fetched  up to pageSize + 1 elements in keyset order
+   * @param pageSize the requested page size
+   * @param cursorOf extracts the keyset position of an element
+   * @return the page
+   */
+  public static <T> KeysetPage<T> of(List<T> fetched, int pageSize,
+                                     Function<T, ? extends PageCursor> cursorOf) {
+    if (fetched.size() <= pageSize) {
+      return new KeysetPage<T>().setItems(fetched);
+    }
+
+    var items = fetched.subList(0, pageSize);
+
+    return new KeysetPage<T>()
+        .setItems(items)
+        .setNextCursor(cursorOf.apply(items.get(pageSize - 1)).encode());
+  }
+
+  public <R> KeysetPage<R> map(Function<T, R> mapper) {
+    return new KeysetPage<R>()
+        .setItems(items.stream().map(mapper).toList())
+        .setNextCursor(nextCursor);
+  }
+}
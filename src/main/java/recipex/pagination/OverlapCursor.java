@@ -0,0 +1,59 @@
+package recipex.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import lombok.Value;
+
+/**
+ * Keyset position in a result ranked by the number of queried tags a recipe has, newest first
+ * among recipes with the same overlap.
+ */
+@Value
+public class OverlapCursor implements PageCursor {
+  private static final String SEPARATOR = "|";
+
+  int overlap;
+  LocalDateTime createdAt;
+  String id;
+
+  @Override
+  public String encode() {
+    var value = overlap + SEPARATOR + (createdAt != null ? createdAt.toString() : "") + SEPARATOR + id;
+
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Decodes a continuation token produced by {@link #encode()}.
+   *
+   * @param token the token, may be null
+   * @return the cursor, or null when no token was given
+   * @throws IllegalArgumentException if the token is malformed
+   */
+  public static OverlapCursor decode(String token) {
+    if (token == null || token.isBlank()) {
+      return null;
+    }
+
+    try {
+      var value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      var first = value.indexOf(SEPARATOR);
+      var second = value.indexOf(SEPARATOR, first + 1);
+      var createdAt = value.substring(first + 1, second);
+      var id = value.substring(second + 1);
+
+      if (first < 0 || id.isEmpty()) {
+        throw new IllegalArgumentException("Invalid cursor: " + token);
+      }
+
+      return new OverlapCursor(Integer.parseInt(value.substring(0, first)),
+          createdAt.isEmpty() ? null : LocalDateTime.parse(createdAt), id);
+    } catch (IndexOutOfBoundsException | NumberFormatException | DateTimeParseException ex) {
+      throw new IllegalArgumentException("Invalid cursor: " + token, ex);
+    }
+  }
+}
@@ -0,0 +1,8 @@
+package recipex.pagination;
+
+/**
+ * A keyset position that can be handed to clients as an opaque continuation token.
+ */
+public interface PageCursor {
+  String encode();
+}
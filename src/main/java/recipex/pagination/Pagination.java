@@ -0,0 +1,28 @@
+package recipex.pagination;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import recipex.boot.config.properties.PaginationProperties;
+
+@Component
+@RequiredArgsConstructor
+public class Pagination {
+  private final PaginationProperties paginationProperties;
+
+  /**
+   * Resolves the page size for a request, falling back to the default and never exceeding the
+   * configured maximum.
+   *
+   * @param limit the requested page size, may be null
+   * @return the page size to use
+   */
+  public int pageSize(Integer limit) {
+    if (limit == null) {
+      return paginationProperties.getDefaultPageSize();
+    }
+    if (limit < 1) {
+      throw new IllegalArgumentException("Page size must be at least 1");
+    }
+    return Math.min(limit, paginationProperties.getMaxPageSize());
+  }
+}
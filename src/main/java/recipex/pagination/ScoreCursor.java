@@ -0,0 +1,54 @@
+package recipex.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import lombok.Value;
+
+/**
+ * Keyset position in a result ranked by relevance score, with the ID breaking ties between equal
+ * scores.
+ */
+@Value
+public class ScoreCursor implements PageCursor {
+  private static final String SEPARATOR = "|";
+
+  double score;
+  String id;
+
+  @Override
+  public String encode() {
+    // Double.toString round-trips exactly, so the next page starts right after this element
+    var value = score + SEPARATOR + id;
+
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Decodes a continuation token produced by {@link #encode()}.
+   *
+   * @param token the token, may be null
+   * @return the cursor, or null when no token was given
+   * @throws IllegalArgumentException if the token is malformed
+   */
+  public static ScoreCursor decode(String token) {
+    if (token == null || token.isBlank()) {
+      return null;
+    }
+
+    try {
+      var value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      var separator = value.indexOf(SEPARATOR);
+      var id = value.substring(separator + 1);
+
+      if (id.isEmpty()) {
+        throw new IllegalArgumentException("Invalid cursor: " + token);
+      }
+
+      return new ScoreCursor(Double.parseDouble(value.substring(0, separator)), id);
+    } catch (IndexOutOfBoundsException | NumberFormatException ex) {
+      throw new IllegalArgumentException("Invalid cursor: " + token, ex);
+    }
+  }
+}
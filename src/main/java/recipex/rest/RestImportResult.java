@@ -0,0 +1,19 @@
+package recipex.rest;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import java.util.List;
+import lombok.Data;
+import lombok.experimental.Accessors;
+import recipex.domain.ImportStatus;
+
+@Data
+@Accessors(chain = true)
+@JsonInclude(Include.NON_NULL)
+public class RestImportResult {
+
+  private long index;
+  private String recipeId;
+  private ImportStatus status;
+  private List<String> errors;
+}
@@ -0,0 +1,23 @@
+package recipex.rest;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import java.util.List;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+@JsonInclude(Include.NON_NULL)
+public class RestIngredientMatch {
+
+  private String recipeId;
+  private String userId;
+  private String title;
+  private String description;
+  private String imageUrl;
+  private Double averageRating;
+  private Integer matchedIngredients;
+  private Integer totalIngredients;
+  private List<String> missingIngredients;
+}
@@ -0,0 +1,25 @@
+package recipex.rest;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+@JsonInclude(Include.NON_NULL)
+public class RestRecipeSummary {
+
+  private String recipeId;
+  private String userId;
+  private String title;
+  private String description;
+  private List<String> tags;
+  private String imageUrl;
+  private LocalDateTime createdAt;
+  private Double averageRating;
+  private Long reviewCount;
+  private Double score;
+}
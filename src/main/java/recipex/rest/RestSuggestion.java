@@ -0,0 +1,12 @@
+package recipex.rest;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+public class RestSuggestion {
+
+  private String text;
+  private long count;
+}
@@ -0,0 +1,12 @@
+package recipex.rest;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+public class RestTagFacet {
+
+  private String tag;
+  private long count;
+}
@@ -15,5 +15,6 @@ public class RestUser {
 
   private UUID id;
   private Username username;
-  private List<RestUserRecipe> recipes;
+  private List<RestRecipeSummary> recipes;
+  private String recipesNextCursor;
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package recipex.rest;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import java.time.LocalDateTime;
+import lombok.Data;
+import lombok.experimental.Accessors;
+import recipex.domain.DeletionStatus;
+
+@Data
+@Accessors(chain = true)
+@JsonInclude(Include.NON_NULL)
+public class RestUserDeletion {
+
+  private String deletionId;
+  private String userId;
+  private DeletionStatus status;
+  private long usersDeleted;
+  private long recipesDeleted;
+  private long reviewsDeleted;
+  private long imagesDeleted;
+  private String failure;
+  private LocalDateTime startedAt;
+  private LocalDateTime completedAt;
+}
@@ -2,9 +2,12 @@ package recipex.rest;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonProperty.Access;
 import jakarta.validation.constraints.NotBlank;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import lombok.Data;
 import lombok.experimental.Accessors;
 
@@ -27,6 +30,10 @@ public class RestUserRecipe {
   private String imageUrl;
   private String imageUploadUrl;
   private LocalDateTime createdAt;
-  private List<RestReview> reviews;
   private Double averageRating;
+  private Long reviewCount;
+  private Map<String, Long> ratingHistogram;
+
+  @JsonProperty(access = Access.READ_ONLY)
+  private Long version;
 }
@@ -0,0 +1,263 @@
+package recipex.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SortedMap;
+
+/**
+ * Read-only, path-compressed prefix tree over the keys of one suggestion field. Every node keeps
+ * the most popular terms below it, so a lookup walks at most the length of the prefix and copies
+ * out a precomputed list, whatever the number of terms under the prefix.
+ *
+ * <p>The tree is laid out in flat arrays in breadth-first order: the children of a node are
+ * contiguous and sorted by their first character, and a node's edge label is not stored but read
+ * from any key below it between its parent's depth and its own.
+ */
+final class FrozenTrie {
+  private static final int ROOT = 0;
+
+  private final String[] keys;
+  private final String[] texts;
+  private final long[] counts;
+  // per node: a term below it to read the edge label from, the depth the label ends at and the
+  // term ending exactly there or -1
+  private final int[] labelTerm;
+  private final int[] depth;
+  private final int[] terminal;
+  // children of node i are the nodes childOffsets[i] until childOffsets[i + 1]
+  private final int[] childOffsets;
+  // the top terms of node i are top[topOffsets[i]] until top[topOffsets[i + 1]]
+  private final int[] topOffsets;
+  private final int[] top;
+  private final long bytes;
+
+  private FrozenTrie(String[] keys, String[] texts, long[] counts, int[] labelTerm, int[] depth, int[] terminal,
+                     int[] childOffsets, int[] topOffsets, int[] top) {
+    this.keys = keys;
+    this.texts = texts;
+    this.counts = counts;
+    this.labelTerm = labelTerm;
+    this.depth = depth;
+    this.terminal = terminal;
+    this.childOffsets = childOffsets;
+    this.topOffsets = topOffsets;
+    this.top = top;
+    this.bytes = estimate();
+  }
+
+  /**
+   * @param terms the suggestions by their lookup key
+   * @param topK  how many terms every node keeps
+   */
+  static FrozenTrie build(SortedMap<String, Suggestion> terms, int topK) {
+    var size = terms.size();
+    var keys = terms.keySet().toArray(String[]::new);
+    var texts = new String[size];
+    var counts = new long[size];
+    var i = 0;
+    for (var term : terms.values()) {
+      texts[i] = term.getText();
+      counts[i++] = term.getCount();
+    }
+
+    // a path-compressed tree over n keys has at most 2n nodes, the root included
+    var maxNodes = 2 * size + 1;
+    var labelTerm = new int[maxNodes];
+    var depth = new int[maxNodes];
+    var terminal = new int[maxNodes];
+    var childOffsets = new int[maxNodes + 1];
+    // the key range [lo, hi) below each queued node and the depth its edge label starts at
+    var ranges = new ArrayDeque<int[]>();
+    ranges.add(new int[] {0, size, 0});
+    var nodes = 1;
+
+    for (var node = 0; node < nodes; node++) {
+      var range = ranges.poll();
+      var lo = range[0];
+      var hi = range[1];
+      // in sorted keys the common prefix of a range is the one of its first and last key
+      var end = lo < hi ? commonPrefix(keys[lo], keys[hi - 1]) : 0;
+      labelTerm[node] = lo;
+      depth[node] = Math.max(range[2], end);
+      terminal[node] = -1;
+      if (lo < hi && keys[lo].length() == end) {
+        terminal[node] = lo++;
+      }
+
+      childOffsets[node] = nodes;
+      while (lo < hi) {
+        var next = lo + 1;
+        while (next < hi && keys[next].charAt(end) == keys[lo].charAt(end)) {
+          next++;
+        }
+        ranges.add(new int[] {lo, next, end});
+        nodes++;
+        lo = next;
+      }
+    }
+    childOffsets[nodes] = nodes;
+
+    var topOffsets = new int[nodes + 1];
+    var top = topTerms(counts, Arrays.copyOf(terminal, nodes), childOffsets, nodes, topK, topOffsets);
+
+    return new FrozenTrie(keys, texts, counts, Arrays.copyOf(labelTerm, nodes), Arrays.copyOf(depth, nodes),
+        Arrays.copyOf(terminal, nodes), Arrays.copyOf(childOffsets, nodes + 1), topOffsets, top);
+  }
+
+  /**
+   * Merges the top terms bottom-up: children come after their parent in breadth-first order, so
+   * walking the nodes backwards sees every child before its parent.
+   */
+  private static int[] topTerms(long[] counts, int[] terminal, int[] childOffsets, int nodes, int topK,
+                                int[] topOffsets) {
+    // most popular first, and in key order between equally popular terms
+    Comparator<Integer> byPopularity = Comparator.<Integer>comparingLong(term -> -counts[term])
+        .thenComparingInt(term -> term);
+    var topByNode = new int[nodes][];
+
+    for (var node = nodes - 1; node >= 0; node--) {
+      var candidates = new ArrayList<Integer>();
+      if (terminal[node] >= 0) {
+        candidates.add(terminal[node]);
+      }
+      for (var child = childOffsets[node]; child < childOffsets[node + 1]; child++) {
+        for (var term : topByNode[child]) {
+          candidates.add(term);
+        }
+      }
+      topByNode[node] = candidates.stream()
+          .sorted(byPopularity)
+          .limit(topK)
+          .mapToInt(Integer::intValue)
+          .toArray();
+    }
+
+    for (var node = 0; node < nodes; node++) {
+      topOffsets[node + 1] = topOffsets[node] + topByNode[node].length;
+    }
+    var top = new int[topOffsets[nodes]];
+    for (var node = 0; node < nodes; node++) {
+      System.arraycopy(topByNode[node], 0, top, topOffsets[node], topByNode[node].length);
+    }
+    return top;
+  }
+
+  /**
+   * @return the most popular terms whose key starts with the prefix, most popular first
+   */
+  List<Suggestion> top(String prefix) {
+    var node = find(prefix, false);
+    if (node < 0) {
+      return List.of();
+    }
+
+    var suggestions = new ArrayList<Suggestion>(topOffsets[node + 1] - topOffsets[node]);
+    for (var i = topOffsets[node]; i < topOffsets[node + 1]; i++) {
+      suggestions.add(new Suggestion(texts[top[i]], counts[top[i]]));
+    }
+    return suggestions;
+  }
+
+  /**
+   * @return the count of the term with exactly this key, 0 when there is none
+   */
+  long count(String key) {
+    var node = find(key, true);
+    return node >= 0 && terminal[node] >= 0 ? counts[terminal[node]] : 0;
+  }
+
+  int termCount() {
+    return keys.length;
+  }
+
+  /**
+   * @return an estimate of the heap taken by the tree, its arrays and its strings
+   */
+  long estimateBytes() {
+    return bytes;
+  }
+
+  private long estimate() {
+    long bytes = 0;
+    for (var array : List.of(labelTerm, depth, terminal, childOffsets, topOffsets, top)) {
+      bytes += 16 + 4L * array.length;
+    }
+    bytes += 2 * (16 + 4L * keys.length) + 16 + 8L * counts.length;
+    for (var i = 0; i < keys.length; i++) {
+      bytes += stringBytes(keys[i]);
+      // most texts are their key, those share the string
+      if (texts[i] != keys[i]) {
+        bytes += stringBytes(texts[i]);
+      }
+    }
+    return bytes;
+  }
+
+  /**
+   * Walks the tree along the given characters.
+   *
+   * @param exact whether the walk has to end on a node boundary rather than inside an edge label
+   * @return the node below which every key starts with the characters, or -1 when there is none
+   */
+  private int find(String prefix, boolean exact) {
+    if (keys.length == 0) {
+      return -1;
+    }
+
+    var node = ROOT;
+    var position = 0;
+    while (true) {
+      var label = keys[labelTerm[node]];
+      for (; position < depth[node]; position++) {
+        if (position == prefix.length()) {
+          return exact ? -1 : node;
+        }
+        if (label.charAt(position) != prefix.charAt(position)) {
+          return -1;
+        }
+      }
+      if (position == prefix.length()) {
+        return node;
+      }
+
+      node = child(node, prefix.charAt(position), position);
+      if (node < 0) {
+        return -1;
+      }
+    }
+  }
+
+  private int child(int node, char first, int position) {
+    var lo = childOffsets[node];
+    var hi = childOffsets[node + 1] - 1;
+    while (lo <= hi) {
+      var mid = (lo + hi) >>> 1;
+      var label = keys[labelTerm[mid]].charAt(position);
+      if (label < first) {
+        lo = mid + 1;
+      } else if (label > first) {
+        hi = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -1;
+  }
+
+  private static int commonPrefix(String first, String last) {
+    var length = Math.min(first.length(), last.length());
+    var i = 0;
+    while (i < length && first.charAt(i) == last.charAt(i)) {
+      i++;
+    }
+    return i;
+  }
+
+  private static long stringBytes(String value) {
+    // object header, fields and backing array, assuming compact one-byte-per-char strings
+    return 40 + value.length();
+  }
+}
@@ -0,0 +1,144 @@
+package recipex.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Collection;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import recipex.boot.config.properties.SearchProperties;
+import recipex.exceptions.SearchIndexUnavailableException;
+import recipex.mongo.DbRecipeRepository;
+
+/**
+ * In-memory inverted index from normalised ingredients to the recipes using them, answering
+ * "what can I cook with these" without touching the database. It is built by streaming the
+ * recipes collection once at startup and then follows every recipe write of this instance; writes
+ * of other instances arrive through {@link #refresh(String)} from the change stream.
+ */
+@Slf4j
+@Component
+public class IngredientIndex {
+  public static final String INDEX_NAME = "ingredient";
+  public static final String TERMS_METRIC = "ingredient.index.terms";
+  public static final String RECIPES_METRIC = "ingredient.index.recipes";
+
+  private final SearchProperties.Ingredients properties;
+  private final DbRecipeRepository dbRecipeRepository;
+
+  private volatile IngredientPostings active;
+  private volatile IngredientPostings building;
+
+  public IngredientIndex(SearchProperties searchProperties, DbRecipeRepository dbRecipeRepository,
+                         MeterRegistry meterRegistry) {
+    this.properties = searchProperties.getIngredients();
+    this.dbRecipeRepository = dbRecipeRepository;
+
+    Gauge.builder(TERMS_METRIC, this, index -> index.active != null ? index.active.termCount() : Double.NaN)
+        .description("Distinct normalised ingredients in the ingredient index")
+        .register(meterRegistry);
+    Gauge.builder(RECIPES_METRIC, this, index -> index.active != null ? index.active.recipeCount() : Double.NaN)
+        .description("Recipes with at least one ingredient in the ingredient index")
+        .register(meterRegistry);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    if (!properties.isEnabled()) {
+      log.info("Ingredient index is disabled");
+      return;
+    }
+
+    rebuild().subscribe(
+        count -> log.info("Ingredient index built from {} recipes", count),
+        error -> log.error("Ingredient index build failed, ingredient queries stay unavailable", error));
+  }
+
+  /**
+   * Builds a new generation of the index from the database and swaps it in. Recipes written while
+   * the build runs go into both generations, and their streamed copy is skipped as possibly stale.
+   *
+   * @return the number of recipes streamed
+   */
+  public Mono<Long> rebuild() {
+    return Mono.defer(() -> {
+      var postings = new IngredientPostings();
+      building = postings;
+
+      return dbRecipeRepository.streamIngredients()
+          .doOnNext(recipe -> postings.load(recipe.getRecipeId(), recipe.getIngredients()))
+          .count()
+          .doOnSuccess(count -> {
+            postings.loaded();
+            active = postings;
+          })
+          .doFinally(signal -> building = null);
+    });
+  }
+
+  public boolean isReady() {
+    return active != null;
+  }
+
+  /**
+   * Indexes the current ingredients of a created or updated recipe, replacing its previous ones.
+   */
+  public void index(String recipeId, List<String> ingredients) {
+    var current = active;
+    if (current != null) {
+      current.put(recipeId, ingredients);
+    }
+
+    var next = building;
+    if (next != null) {
+      next.put(recipeId, ingredients);
+    }
+  }
+
+  public void remove(String recipeId) {
+    var current = active;
+    if (current != null) {
+      current.remove(recipeId);
+    }
+
+    var next = building;
+    if (next != null) {
+      next.remove(recipeId);
+    }
+  }
+
+  /**
+   * Re-reads one recipe after a write this instance did not make, indexing or removing it.
+   */
+  public Mono<Void> refresh(String recipeId) {
+    return dbRecipeRepository.findById(recipeId)
+        .doOnNext(recipe -> index(recipeId, recipe.getIngredients()))
+        .switchIfEmpty(Mono.fromRunnable(() -> remove(recipeId)))
+        .then();
+  }
+
+  /**
+   * Ranks recipes by how many of the given ingredients they use, then by fewest missing ones.
+   *
+   * @throws SearchIndexUnavailableException if the index is not built yet
+   * @throws IllegalArgumentException if no or too many ingredients are given
+   */
+  public List<IngredientMatch> match(Collection<String> ingredients, int limit) {
+    if (ingredients == null || ingredients.isEmpty()) {
+      throw new IllegalArgumentException("At least one ingredient is required");
+    }
+    if (ingredients.size() > properties.getMaxQueryIngredients()) {
+      throw new IllegalArgumentException("At most " + properties.getMaxQueryIngredients() + " ingredients allowed");
+    }
+
+    var current = active;
+    if (current == null) {
+      throw new SearchIndexUnavailableException(INDEX_NAME);
+    }
+
+    return current.match(ingredients, limit);
+  }
+}
@@ -0,0 +1,18 @@
+package recipex.search;
+
+import lombok.Value;
+
+/**
+ * A recipe found by {@link IngredientIndex#match}, with how many of its distinct ingredients the
+ * query covered out of how many it has.
+ */
+@Value
+public class IngredientMatch {
+  String recipeId;
+  int covered;
+  int total;
+
+  public int getMissing() {
+    return total - covered;
+  }
+}
@@ -0,0 +1,81 @@
+package recipex.search;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Reduces a free-text ingredient line such as "2 cups of finely chopped Onions (red), to taste" to
+ * the term it is indexed and queried under, here "onion". Quantities, units, preparation words,
+ * parenthesised notes and anything after the first comma are dropped and the last word is
+ * singularised, so the same term comes out of a recipe line and of a query.
+ */
+public final class IngredientNormalizer {
+  private static final Pattern PARENTHESES = Pattern.compile("\\([^)]*\\)");
+  private static final Pattern NON_LETTERS = Pattern.compile("[^\\p{L}\\s]+");
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+  private static final Set<String> STOP_WORDS = Set.of("of", "a", "an", "the", "some", "about", "x", "to", "taste",
+      "fresh", "large", "medium", "small", "chopped", "diced", "minced", "sliced", "grated", "peeled", "crushed",
+      "melted", "softened", "beaten", "finely", "roughly", "thinly");
+  private static final Set<String> UNITS = Set.of(
+      "cup", "cups", "c", "tablespoon", "tablespoons", "tbsp", "tbs", "tb", "teaspoon", "teaspoons", "tsp",
+      "g", "gr", "gram", "grams", "kg", "kilogram", "kilograms", "mg", "ml", "millilitre", "milliliter",
+      "millilitres", "milliliters", "l", "litre", "liter", "litres", "liters", "dl", "cl", "oz", "ounce",
+      "ounces", "lb", "lbs", "pound", "pounds", "pinch", "pinches", "dash", "dashes", "handful", "handfuls",
+      "clove", "cloves", "can", "cans", "tin", "tins", "slice", "slices", "piece", "pieces", "bunch",
+      "bunches", "sprig", "sprigs", "stick", "sticks", "package", "packages", "pkg", "jar", "jars");
+
+  private IngredientNormalizer() {
+  }
+
+  /**
+   * @return the normalised term, or {@code null} when nothing but quantities and units is left
+   */
+  public static String normalize(String ingredient) {
+    if (ingredient == null) {
+      return null;
+    }
+
+    var text = ingredient.toLowerCase(Locale.ROOT);
+    var comma = text.indexOf(',');
+    if (comma >= 0) {
+      text = text.substring(0, comma);
+    }
+    text = NON_LETTERS.matcher(PARENTHESES.matcher(text).replaceAll(" ")).replaceAll(" ").trim();
+
+    var term = new StringBuilder();
+    for (var word : WHITESPACE.split(text)) {
+      // units only count while they lead the line, "2 cans tomato" but not "sweet can"
+      if (word.isEmpty() || STOP_WORDS.contains(word) || term.isEmpty() && UNITS.contains(word)) {
+        continue;
+      }
+      if (!term.isEmpty()) {
+        term.append(' ');
+      }
+      term.append(word);
+    }
+
+    if (term.isEmpty()) {
+      return null;
+    }
+
+    var lastSpace = term.lastIndexOf(" ");
+    return term.substring(0, lastSpace + 1) + singular(term.substring(lastSpace + 1));
+  }
+
+  static String singular(String word) {
+    if (word.length() <= 3) {
+      return word;
+    }
+    if (word.endsWith("ies")) {
+      return word.substring(0, word.length() - 3) + "y";
+    }
+    if (word.endsWith("oes") || word.endsWith("ches") || word.endsWith("shes") || word.endsWith("xes")) {
+      return word.substring(0, word.length() - 2);
+    }
+    if (word.endsWith("s") && !word.endsWith("ss") && !word.endsWith("us") && !word.endsWith("is")) {
+      return word.substring(0, word.length() - 1);
+    }
+    return word;
+  }
+}
@@ -0,0 +1,241 @@
+package recipex.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.roaringbitmap.RoaringBitmap;
+
+/**
+ * One generation of the ingredient index. Every normalised ingredient gets an integer term ID and
+ * every recipe an integer document ID, and each term keeps the documents containing it in a
+ * compressed bitmap. Documents are also grouped by their number of distinct ingredients, which
+ * turns "fewest missing ingredients" into another bitmap intersection.
+ *
+ * <p>Queries share a read lock and writes take the write lock, so a query never sees a recipe
+ * half re-indexed. Document IDs of removed recipes are not reused until the next rebuild.
+ */
+final class IngredientPostings {
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<String, Integer> termIds = new HashMap<>();
+  private final List<RoaringBitmap> termDocs = new ArrayList<>();
+  private final Map<String, Integer> docIds = new HashMap<>();
+  private final List<String> recipeIds = new ArrayList<>();
+  private final List<int[]> docTerms = new ArrayList<>();
+  private final NavigableMap<Integer, RoaringBitmap> docsBySize = new TreeMap<>();
+  // recipes written while the generation loads, the streamed copy of them may be older
+  private final Set<String> written = new HashSet<>();
+  private boolean loading = true;
+
+  /**
+   * Indexes a recipe streamed by the initial load, unless a live write already indexed it.
+   */
+  void load(String recipeId, List<String> ingredients) {
+    lock.writeLock().lock();
+    try {
+      if (!written.contains(recipeId)) {
+        index(recipeId, ingredients);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Marks the initial load as finished, from then on only live writes change the generation.
+   */
+  void loaded() {
+    lock.writeLock().lock();
+    try {
+      loading = false;
+      written.clear();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  void put(String recipeId, List<String> ingredients) {
+    lock.writeLock().lock();
+    try {
+      markWritten(recipeId);
+      index(recipeId, ingredients);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  void remove(String recipeId) {
+    lock.writeLock().lock();
+    try {
+      markWritten(recipeId);
+      drop(recipeId);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Ranks recipes by how many of the given ingredients they use, then by how few ingredients they
+   * are missing. Recipes using none of them are not returned.
+   */
+  List<IngredientMatch> match(Collection<String> ingredients, int limit) {
+    lock.readLock().lock();
+    try {
+      var queryTerms = ingredients.stream()
+          .map(IngredientNormalizer::normalize)
+          .filter(Objects::nonNull)
+          .distinct()
+          .map(termIds::get)
+          .filter(Objects::nonNull)
+          .toList();
+
+      return rank(coverage(queryTerms), limit);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  int termCount() {
+    lock.readLock().lock();
+    try {
+      return termIds.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  int recipeCount() {
+    lock.readLock().lock();
+    try {
+      return docIds.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * @return bitmaps where element {@code c} holds the documents using at least {@code c} of the
+   *     query terms, with an empty one past the last
+   */
+  private RoaringBitmap[] coverage(List<Integer> queryTerms) {
+    var atLeast = new RoaringBitmap[queryTerms.size() + 2];
+    Arrays.setAll(atLeast, i -> new RoaringBitmap());
+
+    for (int seen = 0; seen < queryTerms.size(); seen++) {
+      var docs = termDocs.get(queryTerms.get(seen));
+      // downwards, so every step reads the counts from before this term
+      for (int covered = seen + 1; covered >= 2; covered--) {
+        atLeast[covered].or(RoaringBitmap.and(atLeast[covered - 1], docs));
+      }
+      atLeast[1].or(docs);
+    }
+
+    return atLeast;
+  }
+
+  private List<IngredientMatch> rank(RoaringBitmap[] atLeast, int limit) {
+    var matches = new ArrayList<IngredientMatch>(limit);
+
+    for (int covered = atLeast.length - 2; covered >= 1; covered--) {
+      var exactly = RoaringBitmap.andNot(atLeast[covered], atLeast[covered + 1]);
+
+      for (var size : docsBySize.tailMap(covered, true).entrySet()) {
+        if (exactly.isEmpty()) {
+          break;
+        }
+
+        var docs = RoaringBitmap.and(exactly, size.getValue());
+        for (int doc : docs) {
+          matches.add(new IngredientMatch(recipeIds.get(doc), covered, size.getKey()));
+          if (matches.size() == limit) {
+            return matches;
+          }
+        }
+        exactly.andNot(docs);
+      }
+    }
+
+    return matches;
+  }
+
+  private void index(String recipeId, List<String> ingredients) {
+    var terms = termsOf(ingredients);
+    if (terms.length == 0) {
+      drop(recipeId);
+      return;
+    }
+
+    unindex(recipeId);
+    // a re-indexed recipe keeps its document ID, so an update is done in place
+    var doc = docIds.computeIfAbsent(recipeId, id -> {
+      recipeIds.add(id);
+      docTerms.add(null);
+      return recipeIds.size() - 1;
+    });
+    docTerms.set(doc, terms);
+
+    for (int term : terms) {
+      termDocs.get(term).add(doc);
+    }
+    docsBySize.computeIfAbsent(terms.length, size -> new RoaringBitmap()).add(doc);
+  }
+
+  private void drop(String recipeId) {
+    var doc = unindex(recipeId);
+    if (doc != null) {
+      docIds.remove(recipeId);
+      recipeIds.set(doc, null);
+      docTerms.set(doc, null);
+    }
+  }
+
+  private Integer unindex(String recipeId) {
+    var doc = docIds.get(recipeId);
+    if (doc == null) {
+      return null;
+    }
+
+    var terms = docTerms.get(doc);
+    for (int term : terms) {
+      termDocs.get(term).remove(doc);
+    }
+    docsBySize.get(terms.length).remove(doc);
+
+    return doc;
+  }
+
+  private int[] termsOf(List<String> ingredients) {
+    if (ingredients == null) {
+      return new int[0];
+    }
+
+    return ingredients.stream()
+        .map(IngredientNormalizer::normalize)
+        .filter(Objects::nonNull)
+        .distinct()
+        .mapToInt(this::termId)
+        .toArray();
+  }
+
+  private int termId(String term) {
+    return termIds.computeIfAbsent(term, unused -> {
+      termDocs.add(new RoaringBitmap());
+      return termDocs.size() - 1;
+    });
+  }
+
+  private void markWritten(String recipeId) {
+    if (loading) {
+      written.add(recipeId);
+    }
+  }
+}
@@ -0,0 +1,12 @@
+package recipex.search;
+
+import lombok.Value;
+
+/**
+ * A title or tag suggested by {@link SuggestionIndex#suggest}, with the number of recipes using it.
+ */
+@Value
+public class Suggestion {
+  String text;
+  long count;
+}
@@ -0,0 +1,293 @@
+package recipex.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import recipex.boot.config.properties.SearchProperties;
+import recipex.db.DbUserRecipe;
+import recipex.domain.SuggestionField;
+import recipex.exceptions.SearchIndexUnavailableException;
+import recipex.mongo.DbRecipeRepository;
+
+/**
+ * Type-ahead suggestions for recipe titles and tags, ranked by the number of recipes using them.
+ * Each generation is a {@link FrozenTrie} per field built by streaming the recipes collection, plus
+ * a small sorted map of the count changes made by this instance's recipe writes since. The
+ * generation is rebuilt on a fixed interval, and sooner once the recipe change stream reports a
+ * write this instance did not apply, such as a patch or a write of another instance, whose previous
+ * title and tags are unknown here.
+ */
+@Slf4j
+@Component
+public class SuggestionIndex {
+  public static final String INDEX_NAME = "suggestion";
+  public static final String TERMS_METRIC = "suggestion.index.terms";
+  public static final String BYTES_METRIC = "suggestion.index.bytes";
+  public static final String LOOKUP_METRIC = "suggestion.lookup";
+
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+  private static final Duration APPLIED_WRITE_EXPIRY = Duration.ofMinutes(1);
+  private static final long APPLIED_WRITE_MAXIMUM_SIZE = 100_000;
+  private static final Comparator<Suggestion> MOST_USED_FIRST = Comparator.comparingLong(Suggestion::getCount)
+      .reversed()
+      .thenComparing(Suggestion::getText);
+
+  private final SearchProperties.Suggestions properties;
+  private final DbRecipeRepository dbRecipeRepository;
+  private final Map<SuggestionField, Timer> lookupTimers = new EnumMap<>(SuggestionField.class);
+  // recipes whose write was applied here, so the change stream echo of that write is skipped
+  private final Cache<String, Boolean> appliedWrites = Caffeine.newBuilder()
+      .maximumSize(APPLIED_WRITE_MAXIMUM_SIZE)
+      .expireAfterWrite(APPLIED_WRITE_EXPIRY)
+      .build();
+
+  private volatile Generation active;
+  private volatile Instant builtAt;
+  private volatile boolean stale;
+  private Disposable rebuilder;
+
+  public SuggestionIndex(SearchProperties searchProperties, DbRecipeRepository dbRecipeRepository,
+                         MeterRegistry meterRegistry) {
+    this.properties = searchProperties.getSuggestions();
+    this.dbRecipeRepository = dbRecipeRepository;
+
+    for (var field : SuggestionField.values()) {
+      var name = field.name().toLowerCase(Locale.ROOT);
+      Gauge.builder(TERMS_METRIC, this, index -> index.active != null ? index.active.termCount(field) : Double.NaN)
+          .description("Distinct terms in the suggestion index")
+          .tag("field", name)
+          .register(meterRegistry);
+      lookupTimers.put(field, Timer.builder(LOOKUP_METRIC)
+          .description("Time to answer a suggestion lookup from memory")
+          .tag("field", name)
+          .publishPercentiles(0.5, 0.99)
+          .register(meterRegistry));
+    }
+    Gauge.builder(BYTES_METRIC, this, index -> index.active != null ? index.active.estimateBytes() : Double.NaN)
+        .description("Estimated heap taken by the suggestion index")
+        .baseUnit("bytes")
+        .register(meterRegistry);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    if (!properties.isEnabled()) {
+      log.info("Suggestion index is disabled");
+      return;
+    }
+
+    rebuilder = Flux.interval(Duration.ZERO, properties.getRemoteWriteDelay())
+        .onBackpressureDrop()
+        .filter(tick -> needsRebuild())
+        // a failed build keeps serving the previous generation
+        .concatMap(tick -> rebuild().onErrorResume(error -> {
+          log.error("Suggestion index build failed", error);
+          return Mono.empty();
+        }))
+        .subscribe(count -> log.info("Suggestion index built from {} recipes", count));
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (rebuilder != null) {
+      rebuilder.dispose();
+    }
+  }
+
+  /**
+   * Builds a new generation from the database off to the side and swaps it in. Writes made while
+   * the build runs only change the serving generation, the new one reads them from the database.
+   *
+   * @return the number of recipes streamed
+   */
+  public Mono<Long> rebuild() {
+    return Mono.defer(() -> {
+      // writes reported from now on are after the build started and mark the new generation stale
+      stale = false;
+      var next = new Generation();
+      var terms = new EnumMap<SuggestionField, TreeMap<String, Suggestion>>(SuggestionField.class);
+      for (var field : SuggestionField.values()) {
+        terms.put(field, new TreeMap<>());
+      }
+
+      return dbRecipeRepository.streamTitlesAndTags()
+          .doOnNext(recipe -> termsOf(recipe).forEach((field, texts) -> texts.forEach(text ->
+              terms.get(field).merge(keyOf(field, text), new Suggestion(text, 1),
+                  (known, added) -> new Suggestion(known.getText(), known.getCount() + 1)))))
+          .count()
+          .doOnSuccess(count -> {
+            terms.forEach((field, fieldTerms) -> next.tries.put(field,
+                FrozenTrie.build(fieldTerms, properties.getTopK())));
+            active = next;
+            builtAt = Instant.now();
+          });
+    });
+  }
+
+  public boolean isReady() {
+    return active != null;
+  }
+
+  public void add(DbUserRecipe recipe) {
+    apply(recipe, 1);
+  }
+
+  public void remove(DbUserRecipe recipe) {
+    apply(recipe, -1);
+  }
+
+  /**
+   * Notes a recipe write reported by the change stream that may change titles or tags. A write this
+   * instance applied itself is skipped, any other one has the index rebuilt within the remote write
+   * delay.
+   */
+  public void changed(String recipeId) {
+    if (recipeId != null && appliedWrites.asMap().remove(recipeId) != null) {
+      return;
+    }
+
+    stale = true;
+  }
+
+  /**
+   * Completes a prefix to the most used titles or tags starting with it, compared ignoring case,
+   * repeated whitespace and, for titles, accents.
+   *
+   * @param limit the number of suggestions, capped at the configured top-k
+   * @throws SearchIndexUnavailableException if the index is not built yet
+   * @throws IllegalArgumentException if no prefix is given
+   */
+  public List<Suggestion> suggest(SuggestionField field, String prefix, int limit) {
+    if (prefix == null) {
+      throw new IllegalArgumentException("A prefix is required");
+    }
+
+    var current = active;
+    if (current == null) {
+      throw new SearchIndexUnavailableException(INDEX_NAME);
+    }
+
+    var key = field == SuggestionField.TITLE
+        ? TitleNormalizer.fold(prefix.stripLeading())
+        : WHITESPACE.matcher(prefix.stripLeading()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    return lookupTimers.get(field).record(() -> current.suggest(field, key, Math.min(limit, properties.getTopK())));
+  }
+
+  boolean needsRebuild() {
+    var lastBuild = builtAt;
+
+    return lastBuild == null || stale || lastBuild.plus(properties.getRebuildInterval()).isBefore(Instant.now());
+  }
+
+  private void apply(DbUserRecipe recipe, long delta) {
+    if (recipe.getRecipeId() != null) {
+      appliedWrites.put(recipe.getRecipeId(), Boolean.TRUE);
+    }
+
+    var generation = active;
+    if (generation != null) {
+      termsOf(recipe).forEach((field, texts) -> texts.forEach(text ->
+          generation.change(field, keyOf(field, text), text, delta)));
+    }
+  }
+
+  private static Map<SuggestionField, List<String>> termsOf(DbUserRecipe recipe) {
+    var title = recipe.getTitle() != null && !recipe.getTitle().isBlank()
+        ? List.of(WHITESPACE.matcher(recipe.getTitle().trim()).replaceAll(" "))
+        : List.<String>of();
+    // streamed recipes only carry the normalized tags, written ones always carry the tags
+    var tags = recipe.getNormalizedTags() != null
+        ? recipe.getNormalizedTags()
+        : TagNormalizer.normalize(recipe.getTags());
+
+    return Map.of(SuggestionField.TITLE, title, SuggestionField.TAG, tags);
+  }
+
+  private static String keyOf(SuggestionField field, String text) {
+    return field == SuggestionField.TAG ? text : TitleNormalizer.fold(text);
+  }
+
+  private static final class Generation {
+    // written once before the generation is published through the volatile active field
+    private final Map<SuggestionField, FrozenTrie> tries = new EnumMap<>(SuggestionField.class);
+    private final Map<SuggestionField, ConcurrentSkipListMap<String, Suggestion>> changes =
+        new EnumMap<>(SuggestionField.class);
+
+    private Generation() {
+      for (var field : SuggestionField.values()) {
+        changes.put(field, new ConcurrentSkipListMap<>());
+      }
+    }
+
+    void change(SuggestionField field, String key, String text, long delta) {
+      changes.get(field).compute(key, (unused, known) -> {
+        var count = (known != null ? known.getCount() : 0) + delta;
+        return count != 0 ? new Suggestion(known != null ? known.getText() : text, count) : null;
+      });
+    }
+
+    /**
+     * Merges the frozen top terms of the prefix with the changed terms under it. A frozen term that
+     * only drops into the top after other terms were removed shows up from the next build on.
+     */
+    List<Suggestion> suggest(SuggestionField field, String key, int limit) {
+      var trie = tries.get(field);
+      var changed = changes.get(field).subMap(key, true, key + Character.MAX_VALUE, false);
+      var frozenTop = trie.top(key);
+      if (changed.isEmpty()) {
+        return frozenTop.size() > limit ? frozenTop.subList(0, limit) : frozenTop;
+      }
+
+      var candidates = new HashMap<String, Suggestion>();
+      frozenTop.forEach(suggestion -> candidates.put(keyOf(field, suggestion.getText()), suggestion));
+      changed.forEach((changedKey, delta) -> {
+        var frozen = candidates.get(changedKey);
+        var count = (frozen != null ? frozen.getCount() : trie.count(changedKey)) + delta.getCount();
+        candidates.put(changedKey, new Suggestion(frozen != null ? frozen.getText() : delta.getText(), count));
+      });
+
+      return candidates.values().stream()
+          .filter(suggestion -> suggestion.getCount() > 0)
+          .sorted(MOST_USED_FIRST)
+          .limit(limit)
+          .toList();
+    }
+
+    int termCount(SuggestionField field) {
+      return tries.get(field).termCount();
+    }
+
+    long estimateBytes() {
+      long bytes = 0;
+      for (var field : SuggestionField.values()) {
+        bytes += tries.get(field).estimateBytes();
+        // a skip list entry with its node, index share, suggestion and strings
+        bytes += changes.get(field).entrySet().stream()
+            .mapToLong(entry -> 120 + entry.getKey().length() + entry.getValue().getText().length())
+            .sum();
+      }
+      return bytes;
+    }
+  }
+}
@@ -0,0 +1,42 @@
+package recipex.search;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Reduces a tag to the form it is stored and queried under, so "Vegan ", "vegan" and "VEGAN" are
+ * one tag. Only case and surrounding whitespace are normalised, tags are otherwise kept as written.
+ */
+public final class TagNormalizer {
+
+  private TagNormalizer() {
+  }
+
+  /**
+   * @return the normalised tag, or {@code null} when the tag is blank
+   */
+  public static String normalize(String tag) {
+    if (tag == null || tag.isBlank()) {
+      return null;
+    }
+
+    return tag.trim().toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * @return the distinct normalised tags in their first-seen order, empty when none are given
+   */
+  public static List<String> normalize(Collection<String> tags) {
+    if (tags == null) {
+      return List.of();
+    }
+
+    return tags.stream()
+        .map(TagNormalizer::normalize)
+        .filter(Objects::nonNull)
+        .distinct()
+        .toList();
+  }
+}
@@ -0,0 +1,39 @@
+package recipex.search;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Reduces a recipe title to the form it is stored and looked up under, so "Crème  Brûlée" and
+ * "creme brulee" are one title. Case, accents and runs of whitespace are folded, words and
+ * punctuation are kept.
+ */
+public final class TitleNormalizer {
+  private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+  private TitleNormalizer() {
+  }
+
+  /**
+   * @return the normalised title, or {@code null} when the title is blank
+   */
+  public static String normalize(String title) {
+    if (title == null || title.isBlank()) {
+      return null;
+    }
+
+    return fold(title).trim();
+  }
+
+  /**
+   * Folds case, accents and whitespace runs without trimming, for prefixes whose trailing space
+   * still ends a word.
+   */
+  public static String fold(String text) {
+    var decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+
+    return WHITESPACE.matcher(MARKS.matcher(decomposed).replaceAll("")).replaceAll(" ").toLowerCase(Locale.ROOT);
+  }
+}
@@ -1,9 +1,14 @@
 package recipex.service.external;
 
+import java.util.List;
 import reactor.core.publisher.Mono;
 
 public interface DefaultS3ExternalService {
   Mono<String> uploadImage(String recipeId);
 
+  Mono<String> completeImageUpload(String recipeId);
+
   Mono<String> getImage(String recipeId);
+
+  Mono<Integer> deleteImages(List<String> recipeIds);
 }
@@ -1,37 +1,131 @@
 package recipex.service.external;
 
 import java.time.Duration;
+import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import recipex.boot.config.properties.S3Properties;
-import recipex.mapper.DbMapper;
-import recipex.mapper.RestMapper;
+import recipex.cache.ImageUrlCache;
+import recipex.cache.RecipeCache;
+import recipex.exceptions.RecipeNotFoundException;
 import recipex.mongo.DbRecipeRepository;
+import recipex.service.recipe.DefaultRecipeService;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.Delete;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetUrlRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 
 @Slf4j
 @Service
 @AllArgsConstructor
 public class S3ExternalService implements DefaultS3ExternalService {
+  private static final int NOT_FOUND = 404;
+  private static final int MAX_KEYS_PER_DELETE = 1000;
 
   private final S3Presigner s3Presigner;
+  private final S3AsyncClient s3AsyncClient;
   private final S3Properties s3Properties;
   private final DbRecipeRepository dbRecipeRepository;
-  private final DbMapper dbMapper;
-  private final RestMapper restMapper;
-
+  private final DefaultRecipeService recipeService;
+  private final RecipeCache recipeCache;
+  private final ImageUrlCache imageUrlCache;
 
   @Override
   public Mono<String> uploadImage(String recipeId) {
     log.info("Starting image upload process for recipeId: {}", recipeId);
 
+    var id = recipeId.toUpperCase();
+
+    return recipeService.recipeExists(id)
+        .filter(Boolean::booleanValue)
+        .switchIfEmpty(Mono.error(new RecipeNotFoundException(id)))
+        .map(exists -> presignUploadUrl(id));
+  }
+
+  @Override
+  public Mono<String> completeImageUpload(String id) {
+    log.info("Completing image upload for recipeId: {}", id);
+
+    var recipeId = id.toUpperCase();
+
+    var headObjectRequest = HeadObjectRequest.builder()
+        .bucket(s3Properties.getBucket())
+        .key(imageKey(recipeId))
+        .build();
+
+    var imageUrl = s3AsyncClient.utilities()
+        .getUrl(GetUrlRequest.builder()
+            .bucket(s3Properties.getBucket())
+            .key(imageKey(recipeId))
+            .build())
+        .toString();
+
+    return Mono.fromFuture(() -> s3AsyncClient.headObject(headObjectRequest))
+        .onErrorMap(error -> error instanceof S3Exception s3Exception && s3Exception.statusCode() == NOT_FOUND,
+            error -> new IllegalArgumentException("No uploaded image found for recipe: " + recipeId))
+        .then(Mono.defer(() -> dbRecipeRepository.updateImageUrl(recipeId, imageUrl)))
+        .filter(Boolean::booleanValue)
+        .switchIfEmpty(Mono.error(() -> new RecipeNotFoundException(recipeId)))
+        .doOnNext(updated -> recipeCache.evict(recipeId))
+        .doOnNext(updated -> imageUrlCache.evict(recipeId))
+        .doOnNext(updated -> log.info("Image metadata saved for recipeId: {}", recipeId))
+        .doOnError(error -> log.error("Error while completing image upload for recipeId: {}", recipeId, error))
+        .map(updated -> imageUrl);
+  }
+
+  @Override
+  public Mono<String> getImage(String recipeId) {
+    log.info("Starting image retrieval process for recipeId: {}", recipeId);
+
+    var id = recipeId.toUpperCase();
+
+    return recipeService.recipeExists(id)
+        .filter(Boolean::booleanValue)
+        .switchIfEmpty(Mono.error(new RecipeNotFoundException(id)))
+        .map(exists -> imageUrlCache.get(id, this::presignGetUrl));
+  }
+
+  @Override
+  public Mono<Integer> deleteImages(List<String> recipeIds) {
+    log.info("Deleting images of {} recipes", recipeIds.size());
+
+    return Flux.fromIterable(recipeIds)
+        .buffer(MAX_KEYS_PER_DELETE)
+        .concatMap(chunk -> Mono.fromFuture(() -> s3AsyncClient.deleteObjects(deleteObjectsRequest(chunk)))
+            .map(response -> response.deleted().size()))
+        .reduce(0, Integer::sum)
+        .doOnSuccess(deleted -> recipeIds.forEach(imageUrlCache::evict))
+        // a leftover image is harmless, so a storage failure must not fail the caller's cascade
+        .onErrorResume(error -> {
+          log.error("Error while deleting images of {} recipes", recipeIds.size(), error);
+          return Mono.just(0);
+        });
+  }
+
+  private DeleteObjectsRequest deleteObjectsRequest(List<String> recipeIds) {
+    var objects = recipeIds.stream()
+        .map(recipeId -> ObjectIdentifier.builder().key(imageKey(recipeId)).build())
+        .toList();
+
+    return DeleteObjectsRequest.builder()
+        .bucket(s3Properties.getBucket())
+        .delete(Delete.builder().objects(objects).build())
+        .build();
+  }
+
+  private String presignUploadUrl(String recipeId) {
     var putObjectRequest = PutObjectRequest.builder()
         .bucket(s3Properties.getBucket())
-        .key(s3Properties.getFolder() + recipeId)
+        .key(imageKey(recipeId))
         .contentType("image/jpeg")
         .build();
 
@@ -42,22 +136,13 @@ public class S3ExternalService implements DefaultS3ExternalService {
     var imageUploadUrl = presignedRequest.url().toString();
     log.info("Presigned URL for image upload generated for recipeId: {}. URL: {}", recipeId, imageUploadUrl);
 
-    return dbRecipeRepository.findById(recipeId)
-        .map(restMapper::toRestDto)
-        .doOnNext(recipe -> recipe.setImageUploadUrl(imageUploadUrl))
-        .flatMap(recipe -> dbRecipeRepository.save(dbMapper.toDbDto(recipe)))
-        .doOnSuccess(recipe -> log.info("Recipe updated successfully in the database for recipeId: {}", recipeId))
-        .doOnError(error -> log.error("Error while updating recipe for recipeId: {}", recipeId, error))
-        .thenReturn(imageUploadUrl);
+    return imageUploadUrl;
   }
 
-  @Override
-  public Mono<String> getImage(String recipeId) {
-    log.info("Starting image retrieval process for recipeId: {}", recipeId);
-
+  private String presignGetUrl(String recipeId) {
     var getObjectRequest = GetObjectRequest.builder()
         .bucket(s3Properties.getBucket())
-        .key(s3Properties.getFolder() + recipeId)
+        .key(imageKey(recipeId))
         .build();
 
     var presignedRequest = s3Presigner.presignGetObject(r -> r
@@ -67,10 +152,10 @@ public class S3ExternalService implements DefaultS3ExternalService {
     var imageGetUrl = presignedRequest.url().toString();
     log.info("Presigned URL for image retrieval generated for recipeId: {}. URL: {}", recipeId, imageGetUrl);
 
-    return dbRecipeRepository.findById(recipeId)
-        .map(restMapper::toRestDto)
-        .doOnNext(recipe -> recipe.setImageUrl(imageGetUrl))
-        .flatMap(recipe -> dbRecipeRepository.save(dbMapper.toDbDto(recipe)))
-        .thenReturn(imageGetUrl);
+    return imageGetUrl;
+  }
+
+  private String imageKey(String recipeId) {
+    return s3Properties.getFolder() + recipeId;
   }
 }
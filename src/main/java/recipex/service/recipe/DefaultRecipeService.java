@@ -5,19 +5,42 @@ import java.util.UUID;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import recipex.db.DbUserRecipe;
+import recipex.domain.RecipePatch;
 import recipex.domain.UserRecipe;
+import recipex.pagination.KeysetPage;
+import recipex.rest.RestImportResult;
+import recipex.rest.RestIngredientMatch;
+import recipex.rest.RestRecipeSummary;
+import recipex.rest.RestSuggestion;
 import recipex.rest.RestUserRecipe;
 
 public interface DefaultRecipeService {
   Flux<DbUserRecipe> createRecipes(UUID userId, List<UserRecipe> recipes);
 
+  Flux<RestImportResult> importRecipes(UUID userId, Flux<UserRecipe> recipes);
+
   Mono<RestUserRecipe> getRecipe(String recipeId);
 
-  Flux<RestUserRecipe> getRecipeByName(String name);
+  Mono<Boolean> recipeExists(String recipeId);
+
+  Mono<KeysetPage<RestRecipeSummary>> getRecipeByName(String name, String cursor, Integer limit);
+
+  Mono<KeysetPage<RestRecipeSummary>> getRecipeByTags(List<String> tags, String match, Integer minMatches,
+                                                      String cursor, Integer limit);
+
+  Mono<KeysetPage<RestRecipeSummary>> searchRecipes(String query, String cursor, Integer limit);
+
+  Mono<List<RestIngredientMatch>> findRecipesByIngredients(List<String> ingredients, Integer limit);
+
+  Mono<List<RestSuggestion>> getSuggestions(String prefix, String field, Integer limit);
+
+  Flux<RestRecipeSummary> streamRecipesByName(String name);
+
+  Flux<RestRecipeSummary> streamRecipesByTags(List<String> tags);
 
-  Flux<RestUserRecipe> getRecipeByTags(List<String> tags);
+  Mono<DbUserRecipe> updateRecipe(RestUserRecipe recipe, Long expectedVersion);
 
-  Mono<DbUserRecipe> updateRecipe(RestUserRecipe recipe);
+  Mono<RestUserRecipe> patchRecipe(String userId, String recipeId, RecipePatch patch, Long expectedVersion);
 
   Mono<Void> deleteRecipe(String userId, String recipeId);
 }
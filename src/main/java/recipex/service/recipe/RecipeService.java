@@ -1,100 +1,568 @@
 package recipex.service.recipe;
 
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import recipex.boot.config.properties.ImportProperties;
+import recipex.boot.config.properties.SearchProperties;
+import recipex.cache.MissingRecipeCache;
+import recipex.cache.RecipeCache;
+import recipex.cache.RecipeIdFilter;
+import recipex.db.DbRecipeSummary;
+import recipex.db.DbReview;
 import recipex.db.DbUserRecipe;
+import recipex.domain.ImportStatus;
+import recipex.domain.RecipePatch;
+import recipex.domain.SuggestionField;
+import recipex.domain.TagMatch;
 import recipex.domain.UserRecipe;
+import recipex.exceptions.PreconditionFailedException;
+import recipex.exceptions.RecipeNotFoundException;
 import recipex.mapper.DbMapper;
 import recipex.mapper.RestMapper;
 import recipex.mongo.DbRecipeRepository;
+import recipex.mongo.DbReviewRepository;
+import recipex.pagination.KeysetCursor;
+import recipex.pagination.KeysetPage;
+import recipex.pagination.OverlapCursor;
+import recipex.pagination.ScoreCursor;
+import recipex.pagination.Pagination;
+import recipex.rest.RestImportResult;
+import recipex.rest.RestIngredientMatch;
+import recipex.rest.RestRecipeSummary;
+import recipex.rest.RestSuggestion;
 import recipex.rest.RestUserRecipe;
+import recipex.search.IngredientIndex;
+import recipex.search.IngredientMatch;
+import recipex.search.IngredientNormalizer;
+import recipex.search.SuggestionIndex;
+import recipex.search.TagNormalizer;
+import recipex.search.TitleNormalizer;
+import recipex.service.tag.DefaultTagService;
 
 @Slf4j
 @Service
 @AllArgsConstructor
 public class RecipeService implements DefaultRecipeService {
+  private static final String TITLE = "title";
+  private static final String TAGS = "tags";
+  private static final String NORMALIZED_TITLE = "normalizedTitle";
+  private static final String NORMALIZED_TAGS = "normalizedTags";
   private static final String POST_NOT_DELETED_MESSAGE = "Error deleting post {}";
   private static final String POST_NOT_SAVED_MESSAGE = "Error saving user {} post {} ";
+  private static final String RECIPES_NOT_IMPORTED_MESSAGE = "Error importing {} recipes for user {}";
   private static final String SUCCESSFULLY_CREATED_RECIPES = "Successfully created recipes for user: {}";
   private static final String FETCHING_RECIPE = "Fetching recipes: {}";
+  private static final String BLANK_TITLE_MESSAGE = "Title must not be blank";
   private static final String COMPLETED_FETCHING_RECIPES_BY_NAME = "Completed fetching recipes by name: {}";
   private static final String ERROR_FETCHING_RECIPE = "Error fetching recipe: {}";
   private static final String COMPLETED_FETCHING_RECIPES_BY_TAGS = "Completed fetching recipes by tags: {}";
   private static final String SUCCESSFULLY_DELETED_RECIPE = "Successfully deleted recipe with ID: {}";
 
   private final DbRecipeRepository dbRecipeRepository;
+  private final DbReviewRepository dbReviewRepository;
   private final DbMapper dbMapper;
   private final RestMapper restMapper;
+  private final RecipeCache recipeCache;
+  private final MissingRecipeCache missingRecipeCache;
+  private final RecipeIdFilter recipeIdFilter;
+  private final IngredientIndex ingredientIndex;
+  private final SuggestionIndex suggestionIndex;
+  private final DefaultTagService tagService;
+  private final Pagination pagination;
+  private final Validator validator;
+  private final ImportProperties importProperties;
+  private final SearchProperties searchProperties;
 
   @Override
   public Flux<DbUserRecipe> createRecipes(UUID userId, List<UserRecipe> recipes) {
     log.info("Creating recipes: {} for user: {}", recipes, userId);
 
+    var createdAt = LocalDateTime.now();
+    recipes.forEach(userRecipe -> userRecipe
+        .setUserId(userId)
+        .setRecipeId(UUID.randomUUID()));
+
+    var dbReviews = recipes.stream()
+        .flatMap(userRecipe -> toDbReviews(userRecipe, createdAt).stream())
+        .toList();
+    var reviewsByRecipe = dbReviews.stream()
+        .collect(Collectors.groupingBy(DbReview::getRecipeId));
+
     var dbUserRecipes = recipes.stream()
-        .map(userRecipe -> dbMapper.toDbDto(userRecipe
-                .setUserId(userId)
-                .setRecipeId(UUID.randomUUID()))
-            .setCreatedAt(LocalDateTime.now()))
+        .map(userRecipe -> dbMapper.toDbDto(userRecipe).setCreatedAt(createdAt))
+        .map(recipe -> summarizeRatings(recipe, reviewsByRecipe.getOrDefault(recipe.getRecipeId(), List.of())))
         .toList();
 
-    return dbRecipeRepository.saveAll(dbUserRecipes)
+    return dbRecipeRepository.insert(dbUserRecipes)
+        .doOnNext(this::registerCreated)
+        .thenMany(dbReviewRepository.insert(dbReviews))
+        .thenMany(Mono.defer(() -> tagService.countCreated(dbUserRecipes)))
         .doOnError(error -> log.error(POST_NOT_SAVED_MESSAGE, userId, dbUserRecipes))
         .doOnComplete(() -> log.info(SUCCESSFULLY_CREATED_RECIPES, userId))
         .thenMany(Flux.fromIterable(dbUserRecipes));
   }
 
+  @Override
+  public Flux<RestImportResult> importRecipes(UUID userId, Flux<UserRecipe> recipes) {
+    log.info("Importing recipes for user: {}", userId);
+
+    var createdAt = LocalDateTime.now();
+
+    return recipes
+        .index()
+        .buffer(importProperties.getChunkSize())
+        .concatMap(chunk -> importChunk(userId, chunk, createdAt))
+        .doOnComplete(() -> log.info(SUCCESSFULLY_CREATED_RECIPES, userId));
+  }
+
+  private Flux<RestImportResult> importChunk(UUID userId, List<Tuple2<Long, UserRecipe>> chunk,
+                                             LocalDateTime createdAt) {
+    var results = new ArrayList<RestImportResult>(chunk.size());
+    var dbUserRecipes = new ArrayList<DbUserRecipe>();
+    var dbReviews = new ArrayList<DbReview>();
+    var pending = new ArrayList<RestImportResult>();
+
+    chunk.forEach(indexed -> {
+      var userRecipe = indexed.getT2();
+      var result = new RestImportResult().setIndex(indexed.getT1());
+      results.add(result);
+
+      var violations = validator.validate(userRecipe);
+      if (!violations.isEmpty()) {
+        result.setStatus(ImportStatus.INVALID)
+            .setErrors(violations.stream().map(ConstraintViolation::getMessage).sorted().toList());
+        return;
+      }
+
+      userRecipe.setUserId(userId).setRecipeId(UUID.randomUUID());
+      var reviews = toDbReviews(userRecipe, createdAt);
+      // unlike the repository insert, the bulk insert leaves the version to the caller
+      var dbUserRecipe = summarizeRatings(dbMapper.toDbDto(userRecipe).setCreatedAt(createdAt), reviews)
+          .setVersion(0L);
+
+      dbUserRecipes.add(dbUserRecipe);
+      dbReviews.addAll(reviews);
+      pending.add(result.setRecipeId(dbUserRecipe.getRecipeId()));
+    });
+
+    if (dbUserRecipes.isEmpty()) {
+      return Flux.fromIterable(results);
+    }
+
+    return dbRecipeRepository.insertUnordered(dbUserRecipes)
+        .flatMap(writeErrors -> insertReviews(dbReviews, writeErrors, dbUserRecipes)
+            .flatMap(reviewErrors -> {
+              var created = new ArrayList<DbUserRecipe>(pending.size());
+              for (int i = 0; i < pending.size(); i++) {
+                var writeError = writeErrors.get(i);
+                if (writeError == null) {
+                  registerCreated(dbUserRecipes.get(i));
+                  created.add(dbUserRecipes.get(i));
+                }
+                // a created recipe whose reviews were lost is still created, the error tells the client why
+                var error = writeError != null ? writeError : reviewErrors.get(dbUserRecipes.get(i).getRecipeId());
+                pending.get(i).setStatus(writeError == null ? ImportStatus.CREATED : ImportStatus.FAILED)
+                    .setErrors(error == null ? null : List.of(error));
+              }
+              return tagService.countCreated(created).thenReturn(results);
+            }))
+        // a failed chunk is reported record by record, the import carries on with the next chunk
+        .onErrorResume(error -> {
+          log.error(RECIPES_NOT_IMPORTED_MESSAGE, pending.size(), userId, error);
+          pending.forEach(result -> result.setStatus(ImportStatus.FAILED).setErrors(List.of(error.getMessage())));
+          return Mono.just(results);
+        })
+        .flatMapIterable(Function.identity());
+  }
+
+  private Mono<Map<String, String>> insertReviews(List<DbReview> dbReviews, Map<Integer, String> writeErrors,
+                                                  List<DbUserRecipe> dbUserRecipes) {
+    var failedRecipeIds = writeErrors.keySet().stream()
+        .map(index -> dbUserRecipes.get(index).getRecipeId())
+        .collect(Collectors.toSet());
+    var reviews = dbReviews.stream()
+        .filter(review -> !failedRecipeIds.contains(review.getRecipeId()))
+        .toList();
+
+    if (reviews.isEmpty()) {
+      return Mono.just(Map.of());
+    }
+
+    // the recipes are already stored, so a review failure is reported on their results and their rating
+    // counters are left for the rating repair job to reconcile
+    return dbReviewRepository.insert(reviews)
+        .then(Mono.<Map<String, String>>fromSupplier(Map::of))
+        .onErrorResume(error -> {
+          log.error("Error importing {} reviews", reviews.size(), error);
+          var reviewError = "Reviews not imported: " + error.getMessage();
+          return Mono.just(reviews.stream()
+              .map(DbReview::getRecipeId)
+              .distinct()
+              .collect(Collectors.toMap(Function.identity(), recipeId -> reviewError)));
+        });
+  }
+
+  private List<DbReview> toDbReviews(UserRecipe userRecipe, LocalDateTime createdAt) {
+    var recipeId = dbMapper.toString(userRecipe.getRecipeId());
+
+    // a user has at most one review per recipe, the last one submitted wins
+    return Optional.ofNullable(userRecipe.getReviews()).orElseGet(List::of).stream()
+        .map(review -> dbMapper.toDbDto(review)
+            .setReviewId(dbMapper.toString(UUID.randomUUID()))
+            .setRecipeId(recipeId)
+            .setCreatedAt(Optional.ofNullable(review.getCreatedAt()).orElse(createdAt)))
+        .collect(Collectors.toMap(DbReview::getUserId, Function.identity(), (first, second) -> second,
+            LinkedHashMap::new))
+        .values().stream()
+        .toList();
+  }
+
   @Override
   public Mono<RestUserRecipe> getRecipe(String recipeId) {
     log.info("Fetching recipe with ID: {}", recipeId);
 
-    return dbRecipeRepository.findById(recipeId.toUpperCase())
-        .doOnSuccess(recipe -> log.info(FETCHING_RECIPE, recipe))
-        .map(restMapper::toRestDto)
+    return getCachedRecipe(recipeId.toUpperCase())
         .doOnError(error -> log.error(ERROR_FETCHING_RECIPE, recipeId, error));
   }
 
   @Override
-  public Flux<RestUserRecipe> getRecipeByName(String name) {
+  public Mono<Boolean> recipeExists(String recipeId) {
+    log.debug("Checking if recipe {} exists", recipeId);
+
+    return getCachedRecipe(recipeId.toUpperCase())
+        .hasElement();
+  }
+
+  private Mono<RestUserRecipe> getCachedRecipe(String recipeId) {
+    return Mono.defer(() -> {
+      // IDs that were never created, or were just found missing, are answered without a query
+      if (!recipeIdFilter.mightExist(recipeId) || missingRecipeCache.isMissing(recipeId)) {
+        return Mono.empty();
+      }
+
+      // concurrent misses of a key share the cache's single load
+      return recipeCache.get(recipeId, key -> dbRecipeRepository.findById(key)
+              .doOnSuccess(recipe -> log.info(FETCHING_RECIPE, recipe))
+              .doOnSuccess(recipe -> recipeIdFilter.recordLookup(key, recipe != null))
+              .map(restMapper::toRestDto))
+          .doOnSuccess(recipe -> {
+            if (recipe == null) {
+              missingRecipeCache.markMissing(recipeId);
+            }
+          });
+    });
+  }
+
+  private void registerCreated(DbUserRecipe recipe) {
+    recipeIdFilter.add(recipe.getRecipeId());
+    missingRecipeCache.evict(recipe.getRecipeId());
+    ingredientIndex.index(recipe.getRecipeId(), recipe.getIngredients());
+    suggestionIndex.add(recipe);
+  }
+
+  @Override
+  public Mono<List<RestSuggestion>> getSuggestions(String prefix, String field, Integer limit) {
+    log.info("Suggesting {} for: {}", field, prefix);
+
+    return Mono.fromCallable(() -> suggestionIndex.suggest(SuggestionField.from(field), prefix,
+            pagination.pageSize(limit)))
+        .map(suggestions -> suggestions.stream().map(restMapper::toRestDto).toList())
+        .doOnError(error -> log.error(ERROR_FETCHING_RECIPE, prefix, error));
+  }
+
+  @Override
+  public Mono<KeysetPage<RestRecipeSummary>> getRecipeByName(String name, String cursor, Integer limit) {
     log.info("Fetching recipes by name: {}", name);
 
-    return dbRecipeRepository.findByTitle(name)
-        .doOnComplete(() -> log.info(COMPLETED_FETCHING_RECIPES_BY_NAME, name))
+    var title = TitleNormalizer.normalize(name);
+    if (title == null) {
+      return Mono.error(new IllegalArgumentException(BLANK_TITLE_MESSAGE));
+    }
+
+    var pageSize = pagination.pageSize(limit);
+
+    return dbRecipeRepository.findPageByTitle(title, KeysetCursor.decode(cursor), pageSize + 1)
+        .collectList()
+        .doOnSuccess(recipes -> log.info(COMPLETED_FETCHING_RECIPES_BY_NAME, name))
+        .map(recipes -> toSummaryPage(recipes, pageSize))
+        .doOnError(error -> log.error(ERROR_FETCHING_RECIPE, name, error));
+  }
+
+  @Override
+  public Mono<KeysetPage<RestRecipeSummary>> getRecipeByTags(List<String> tags, String match, Integer minMatches,
+                                                             String cursor, Integer limit) {
+    log.info("Fetching recipes by tags: {} matching {}", tags, match);
+
+    return Mono.defer(() -> {
+          var normalizedTags = queryTags(tags);
+          var required = TagMatch.from(match).minMatches(normalizedTags.size(), minMatches);
+          var pageSize = pagination.pageSize(limit);
+
+          // needing every tag is a plain $all range scan, anything less is ranked by how many tags match
+          return required == normalizedTags.size()
+              ? dbRecipeRepository.findPageByTags(normalizedTags, KeysetCursor.decode(cursor), pageSize + 1)
+                  .collectList()
+                  .map(recipes -> toSummaryPage(recipes, pageSize))
+              : dbRecipeRepository.findPageByTagOverlap(normalizedTags, required, OverlapCursor.decode(cursor),
+                      pageSize + 1)
+                  .collectList()
+                  .map(matches -> KeysetPage.of(matches, pageSize, tagMatch -> new OverlapCursor(
+                          tagMatch.getOverlap(), tagMatch.getRecipe().getCreatedAt(),
+                          tagMatch.getRecipe().getRecipeId()))
+                      .map(tagMatch -> restMapper.toRestDto(tagMatch.getRecipe())));
+        })
+        .doOnSuccess(page -> log.info(COMPLETED_FETCHING_RECIPES_BY_TAGS, tags))
+        .doOnError(error -> log.error(ERROR_FETCHING_RECIPE, tags, error));
+  }
+
+  private List<String> queryTags(List<String> tags) {
+    var normalizedTags = TagNormalizer.normalize(tags);
+
+    if (normalizedTags.isEmpty()) {
+      throw new IllegalArgumentException("At least one tag is required");
+    }
+    if (normalizedTags.size() > searchProperties.getTags().getMaxQueryTags()) {
+      throw new IllegalArgumentException("At most " + searchProperties.getTags().getMaxQueryTags()
+          + " tags allowed");
+    }
+
+    return normalizedTags;
+  }
+
+  @Override
+  public Flux<RestRecipeSummary> streamRecipesByName(String name) {
+    log.info("Streaming recipes by name: {}", name);
+
+    var title = TitleNormalizer.normalize(name);
+    if (title == null) {
+      return Flux.error(new IllegalArgumentException(BLANK_TITLE_MESSAGE));
+    }
+
+    return dbRecipeRepository.streamByTitle(title)
         .map(restMapper::toRestDto)
+        .doOnComplete(() -> log.info(COMPLETED_FETCHING_RECIPES_BY_NAME, name))
         .doOnError(error -> log.error(ERROR_FETCHING_RECIPE, name, error));
   }
 
   @Override
-  public Flux<RestUserRecipe> getRecipeByTags(List<String> tags) {
-    log.info("Fetching recipes by tags: {}", tags);
+  public Flux<RestRecipeSummary> streamRecipesByTags(List<String> tags) {
+    log.info("Streaming recipes by tags: {}", tags);
 
-    return dbRecipeRepository.findByTagsContaining(tags)
-        .doOnComplete(() -> log.info(COMPLETED_FETCHING_RECIPES_BY_TAGS, tags))
+    return Flux.defer(() -> dbRecipeRepository.streamByTags(queryTags(tags)))
         .map(restMapper::toRestDto)
+        .doOnComplete(() -> log.info(COMPLETED_FETCHING_RECIPES_BY_TAGS, tags))
         .doOnError(error -> log.error(ERROR_FETCHING_RECIPE, tags, error));
   }
 
   @Override
-  public Mono<DbUserRecipe> updateRecipe(RestUserRecipe recipe) {
+  public Mono<KeysetPage<RestRecipeSummary>> searchRecipes(String query, String cursor, Integer limit) {
+    log.info("Searching recipes for: {}", query);
+
+    if (query == null || query.isBlank()) {
+      return Mono.error(new IllegalArgumentException("Search query must not be blank"));
+    }
+
+    var pageSize = pagination.pageSize(limit);
+
+    return dbRecipeRepository.searchPage(query.trim(), ScoreCursor.decode(cursor), pageSize + 1)
+        .collectList()
+        .map(recipes -> KeysetPage.of(recipes, pageSize,
+                recipe -> new ScoreCursor(recipe.getScore(), recipe.getRecipeId()))
+            .map(restMapper::toRestDto))
+        .doOnError(error -> log.error(ERROR_FETCHING_RECIPE, query, error));
+  }
+
+  @Override
+  public Mono<List<RestIngredientMatch>> findRecipesByIngredients(List<String> ingredients, Integer limit) {
+    log.info("Finding recipes by ingredients: {}", ingredients);
+
+    return Mono.fromCallable(() -> ingredientIndex.match(ingredients, pagination.pageSize(limit)))
+        .flatMap(matches -> fetchMatches(matches, ingredients))
+        .doOnError(error -> log.error(ERROR_FETCHING_RECIPE, ingredients, error));
+  }
+
+  private Mono<List<RestIngredientMatch>> fetchMatches(List<IngredientMatch> matches, List<String> ingredients) {
+    var recipeIds = matches.stream().map(IngredientMatch::getRecipeId).toList();
+    var available = ingredients.stream()
+        .map(IngredientNormalizer::normalize)
+        .filter(Objects::nonNull)
+        .collect(Collectors.toSet());
+
+    // the index does the ranking, the database only fills in the page of matched recipes
+    return dbRecipeRepository.findAllById(recipeIds)
+        .collectMap(DbUserRecipe::getRecipeId)
+        .map(recipes -> matches.stream()
+            .filter(match -> recipes.containsKey(match.getRecipeId()))
+            .map(match -> toRestMatch(recipes.get(match.getRecipeId()), match, available))
+            .toList());
+  }
+
+  private RestIngredientMatch toRestMatch(DbUserRecipe recipe, IngredientMatch match, Set<String> available) {
+    var missing = recipe.getIngredients().stream()
+        .filter(ingredient -> {
+          var term = IngredientNormalizer.normalize(ingredient);
+          return term != null && !available.contains(term);
+        })
+        .toList();
+
+    return restMapper.toRestDto(recipe, match).setMissingIngredients(missing);
+  }
+
+  private KeysetPage<RestRecipeSummary> toSummaryPage(List<DbRecipeSummary> recipes, int pageSize) {
+    return KeysetPage.of(recipes, pageSize, recipe -> new KeysetCursor(recipe.getCreatedAt(), recipe.getRecipeId()))
+        .map(restMapper::toRestDto);
+  }
+
+  @Override
+  public Mono<DbUserRecipe> updateRecipe(RestUserRecipe recipe, Long expectedVersion) {
     log.info("Updating recipe: {}", recipe);
 
     return dbRecipeRepository.findById(recipe.getRecipeId())
-        .flatMap(existingRecipe -> updateAndSaveRecipe(existingRecipe, recipe))
-        .switchIfEmpty(Mono.error(new RuntimeException("Recipe not found with ID: " + recipe.getRecipeId())));
+        .switchIfEmpty(Mono.error(new RecipeNotFoundException(recipe.getRecipeId())))
+        // a recipe not reached by the version backfill yet counts as version 0
+        .filter(existingRecipe -> expectedVersion == null
+            || expectedVersion.equals(Objects.requireNonNullElse(existingRecipe.getVersion(), 0L)))
+        .switchIfEmpty(Mono.error(new PreconditionFailedException(recipe.getRecipeId())))
+        .flatMap(existingRecipe -> updateAndSaveRecipe(existingRecipe, recipe));
   }
 
   private Mono<DbUserRecipe> updateAndSaveRecipe(DbUserRecipe existingRecipe, RestUserRecipe recipe) {
-    var updatedRecipe = dbMapper.toDbDto(recipe);
+    var recipeId = existingRecipe.getRecipeId();
+
+    // only the content is replaced: reviews and their aggregates are owned by the review service, and
+    // reviews still embedded in a recipe the migration has not reached yet stay where they are
+    return dbRecipeRepository.replaceContent(recipeId, existingRecipe.getVersion(), contentFields(recipe))
+        // a write between our read and the versioned update
+        .switchIfEmpty(Mono.error(() -> new PreconditionFailedException(recipeId)))
+        .flatMap(savedRecipe -> tagService.countChanged(existingRecipe.getTags(), savedRecipe.getTags())
+            .thenReturn(savedRecipe))
+        .doOnSuccess(savedRecipe -> recipeCache.evict(recipeId))
+        .doOnSuccess(savedRecipe -> ingredientIndex.index(savedRecipe.getRecipeId(), savedRecipe.getIngredients()))
+        .doOnSuccess(savedRecipe -> {
+          suggestionIndex.remove(existingRecipe);
+          suggestionIndex.add(savedRecipe);
+        });
+  }
+
+  private Map<String, Object> contentFields(RestUserRecipe recipe) {
+    var fields = new LinkedHashMap<String, Object>();
+
+    fields.put(TITLE, recipe.getTitle());
+    fields.put(NORMALIZED_TITLE, TitleNormalizer.normalize(recipe.getTitle()));
+    fields.put("description", recipe.getDescription());
+    fields.put("ingredients", recipe.getIngredients());
+    fields.put("instructions", recipe.getInstructions());
+    fields.put(TAGS, recipe.getTags());
+    // an update bypasses the before-convert callback, so the derived fields are set here
+    fields.put(NORMALIZED_TAGS, TagNormalizer.normalize(recipe.getTags()));
+    fields.put("imageUrl", recipe.getImageUrl());
+    fields.put("imageUploadUrl", recipe.getImageUploadUrl());
+
+    return fields;
+  }
+
+  @Override
+  public Mono<RestUserRecipe> patchRecipe(String userId, String recipeId, RecipePatch patch,
+                                          Long expectedVersion) {
+    log.info("Patching recipe with ID: {} for user: {}", recipeId, userId);
+
+    var changes = changedFields(patch);
+    if (changes.isEmpty()) {
+      return Mono.error(new IllegalArgumentException("No fields to update"));
+    }
+
+    var recipe = recipeId.toUpperCase();
+    var user = userId.toUpperCase();
+
+    return previousRecipe(recipe, changes)
+        .flatMap(previousRecipe -> dbRecipeRepository.patchRecipe(recipe, user, expectedVersion, changes)
+            .switchIfEmpty(Mono.defer(() -> patchMissed(recipe, user, expectedVersion)))
+            .flatMap(patchedRecipe -> previousRecipe.isEmpty() || !changes.containsKey(TAGS)
+                ? Mono.just(patchedRecipe)
+                : tagService.countChanged(Objects.requireNonNullElse(previousRecipe.get().getTags(), List.of()),
+                    patchedRecipe.getTags()).thenReturn(patchedRecipe))
+            .doOnSuccess(patchedRecipe -> previousRecipe.ifPresent(previous -> {
+              suggestionIndex.remove(previous);
+              suggestionIndex.add(patchedRecipe);
+            })))
+        .doOnSuccess(patchedRecipe -> recipeCache.evict(patchedRecipe.getRecipeId()))
+        .doOnSuccess(patchedRecipe -> ingredientIndex.index(patchedRecipe.getRecipeId(),
+            patchedRecipe.getIngredients()))
+        .map(restMapper::toRestDto);
+  }
+
+  private Mono<Optional<DbUserRecipe>> previousRecipe(String recipeId, Map<String, Object> changes) {
+    // only title and tag changes need the previous recipe, to move its tag counts and suggestions
+    if (!changes.containsKey(TITLE) && !changes.containsKey(TAGS)) {
+      return Mono.just(Optional.empty());
+    }
+
+    // a write racing between this read and the patch skews the counts until the reconcile job runs
+    return dbRecipeRepository.findById(recipeId)
+        .map(Optional::of)
+        .defaultIfEmpty(Optional.empty());
+  }
+
+  private Mono<DbUserRecipe> patchMissed(String recipeId, String userId, Long expectedVersion) {
+    // only a miss pays for the second read that tells a stale version from a missing or foreign recipe
+    return dbRecipeRepository.findById(recipeId)
+        .filter(recipe -> recipe.getUserId().equals(userId))
+        .switchIfEmpty(Mono.error(new RecipeNotFoundException(recipeId)))
+        .flatMap(recipe -> Mono.error(expectedVersion != null
+            ? new PreconditionFailedException(recipeId)
+            : new RecipeNotFoundException(recipeId)));
+  }
+
+  private Map<String, Object> changedFields(RecipePatch patch) {
+    var changes = new LinkedHashMap<String, Object>();
+
+    Optional.ofNullable(patch.getTitle()).ifPresent(title -> {
+      changes.put(TITLE, title);
+      changes.put(NORMALIZED_TITLE, TitleNormalizer.normalize(title));
+    });
+    Optional.ofNullable(patch.getDescription()).ifPresent(description -> changes.put("description", description));
+    Optional.ofNullable(patch.getIngredients()).ifPresent(ingredients -> changes.put("ingredients", ingredients));
+    Optional.ofNullable(patch.getInstructions()).ifPresent(instructions -> changes.put("instructions", instructions));
+    Optional.ofNullable(patch.getTags()).ifPresent(tags -> {
+      changes.put(TAGS, tags);
+      // a partial update bypasses the before-convert callback, so the derived field is set here
+      changes.put(NORMALIZED_TAGS, TagNormalizer.normalize(tags));
+    });
+
+    return changes;
+  }
+
+  private DbUserRecipe summarizeRatings(DbUserRecipe recipe, List<DbReview> reviews) {
+    if (reviews.isEmpty()) {
+      return recipe;
+    }
+
+    var ratingSum = reviews.stream().mapToLong(DbReview::getRating).sum();
+    var ratingHistogram = reviews.stream()
+        .collect(Collectors.groupingBy(review -> String.valueOf(review.getRating()), Collectors.counting()));
 
-    updatedRecipe
-        .setRecipeId(existingRecipe.getRecipeId())
-        .setUserId(existingRecipe.getUserId());
-    return dbRecipeRepository.save(updatedRecipe);
+    return recipe
+        .setReviewCount((long) reviews.size())
+        .setRatingSum(ratingSum)
+        .setRatingHistogram(ratingHistogram)
+        .setAverageRating((double) ratingSum / reviews.size());
   }
 
   @Override
@@ -103,8 +571,14 @@ public class RecipeService implements DefaultRecipeService {
 
     return dbRecipeRepository.findById(recipeId)
         .filter(dbUserPost -> dbUserPost.getUserId().equals(userId))
-        .then(dbRecipeRepository.deleteById(recipeId))
-        .doOnSuccess(unused -> log.info(SUCCESSFULLY_DELETED_RECIPE, recipeId))
+        .flatMap(dbUserPost -> dbRecipeRepository.deleteById(recipeId)
+            .then(dbReviewRepository.deleteByRecipeId(recipeId))
+            .then(Mono.defer(() -> tagService.countChanged(dbUserPost.getTags(), List.of())))
+            .doOnSuccess(unused -> suggestionIndex.remove(dbUserPost))
+            .doOnSuccess(unused -> recipeCache.evict(recipeId))
+            .doOnSuccess(unused -> ingredientIndex.remove(recipeId))
+            .doOnSuccess(unused -> log.info(SUCCESSFULLY_DELETED_RECIPE, recipeId)))
+        .then()
         .doOnError(error -> log.error(POST_NOT_DELETED_MESSAGE, recipeId));
   }
 }
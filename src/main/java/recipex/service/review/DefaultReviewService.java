@@ -3,10 +3,13 @@ package recipex.service.review;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import recipex.domain.Review;
+import recipex.pagination.KeysetPage;
 import recipex.rest.RestReview;
 
 public interface DefaultReviewService {
   Mono<RestReview> createReview(String recipeId, Review review);
 
-  Flux<RestReview> getReviews(String recipeId);
+  Mono<KeysetPage<RestReview>> getReviews(String recipeId, String cursor, Integer limit);
+
+  Flux<RestReview> streamReviews(String recipeId);
 }
@@ -1,73 +1,104 @@
 package recipex.service.review;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import recipex.db.DbUserRecipe;
+import reactor.util.retry.Retry;
+import recipex.cache.RecipeCache;
+import recipex.db.DbReview;
 import recipex.domain.Review;
+import recipex.exceptions.RecipeNotFoundException;
 import recipex.mapper.DbMapper;
 import recipex.mapper.RestMapper;
 import recipex.mongo.DbRecipeRepository;
+import recipex.mongo.DbReviewRepository;
+import recipex.pagination.KeysetCursor;
+import recipex.pagination.KeysetPage;
+import recipex.pagination.Pagination;
 import recipex.rest.RestReview;
+import recipex.service.recipe.DefaultRecipeService;
 
 @Slf4j
 @Service
 @AllArgsConstructor
 public class ReviewService implements DefaultReviewService {
+  private static final int MAX_REVIEW_ATTEMPTS = 5;
+
   private final DbRecipeRepository recipeRepository;
+  private final DbReviewRepository reviewRepository;
+  private final DefaultRecipeService recipeService;
   private final DbMapper dbMapper;
   private final RestMapper restMapper;
+  private final RecipeCache recipeCache;
+  private final Pagination pagination;
 
   @Override
   public Mono<RestReview> createReview(String recipeId, Review review) {
     log.info("Attempting to create or update review for recipeId: {} by userId: {}", recipeId, review.getUserId());
 
-    return recipeRepository.findById(recipeId)
-        .flatMap(recipe -> handleReviewUpdateOrAddition(recipe, review, recipeId))
-        .flatMap(recipeRepository::save)
-        .map(savedRecipe -> restMapper.toRestDto(dbMapper.toDbDto(buildNewReview(recipeId, review))))
-        .switchIfEmpty(Mono.error(new RuntimeException("Recipe not found with ID: " + recipeId)));
-  }
-
-  private Mono<DbUserRecipe> handleReviewUpdateOrAddition(DbUserRecipe recipe, Review review, String recipeId) {
+    // recipe IDs are stored upper-cased, a review keyed by any other spelling would never be listed
+    var id = recipeId.toUpperCase();
+    var dbReview = dbMapper.toDbDto(buildNewReview(id, review));
 
-    return checkIfUserReviewed(recipe, review.getUserId())
-        .flatMap(isReviewed -> isReviewed
-            ? updateCommentInExistingReview(recipe, review)
-            : addNewReviewToRecipe(recipe, review, recipeId));
+    return requireRecipe(recipeId)
+        .then(Mono.defer(() -> upsertReview(dbReview)))
+        .flatMap(previous -> updateRatingAggregates(dbReview, previous)
+            .doOnSuccess(unused -> recipeCache.evict(id))
+            .then(Mono.fromSupplier(() -> storedReview(dbReview, previous))))
+        .map(restMapper::toRestDto);
   }
 
-  private Mono<DbUserRecipe> addNewReviewToRecipe(DbUserRecipe recipe, Review review, String recipeId) {
-    log.debug("Adding new review to recipeId: {}", recipeId);
-
-    var newReview = buildNewReview(recipeId, review);
-
-    recipe.setReviews(Optional.ofNullable(recipe.getReviews()).orElseGet(ArrayList::new));
-    recipe.getReviews().add(dbMapper.toDbDto(newReview));
-
-    return Mono.just(recipe);
+  private Mono<Optional<DbReview>> upsertReview(DbReview review) {
+    // two first reviews by the same user race on the unique index; the loser retries as an update
+    return reviewRepository.upsertReview(review)
+        .doOnNext(previous -> log.info("Updated existing review by userId: {}", review.getUserId()))
+        .map(Optional::of)
+        .defaultIfEmpty(Optional.empty())
+        .retryWhen(Retry.max(MAX_REVIEW_ATTEMPTS)
+            .filter(DuplicateKeyException.class::isInstance)
+            .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
   }
 
-  private Mono<DbUserRecipe> updateCommentInExistingReview(DbUserRecipe recipe, Review review) {
-    log.info("Updating comment for existing review by userId: {}", review.getUserId());
+  private Mono<Void> updateRatingAggregates(DbReview review, Optional<DbReview> previous) {
+    var previousRating = previous.map(DbReview::getRating).orElse(null);
+
+    if (previousRating != null && previousRating == review.getRating()) {
+      return Mono.empty();
+    }
+
+    // the review is already stored, a failure from here on leaves the counters behind the reviews
+    // collection until the rating repair job recomputes them from it
+    return recipeRepository.applyReviewRating(review.getRecipeId(), previousRating, review.getRating())
+        .switchIfEmpty(Mono.defer(() -> discardOrphanedReview(review, previous)))
+        .flatMap(counters -> recipeRepository.updateAverageRating(review.getRecipeId(),
+            Objects.requireNonNullElse(counters.getReviewCount(), 0L),
+            Objects.requireNonNullElse(counters.getRatingSum(), 0L)))
+        .then();
+  }
 
-    var reviews = Optional.ofNullable(recipe.getReviews()).orElseGet(ArrayList::new);
+  private DbReview storedReview(DbReview review, Optional<DbReview> previous) {
+    // an update keeps the identity and creation time of the review it replaced
+    return previous
+        .map(existing -> review
+            .setReviewId(existing.getReviewId())
+            .setCreatedAt(existing.getCreatedAt()))
+        .orElse(review);
+  }
 
-    reviews.stream()
-        .filter(r -> r.getUserId().equals(review.getUserId()))
-        .findFirst()
-        .ifPresent(existingReview -> existingReview.setComment(review.getComment()));
+  private <T> Mono<T> discardOrphanedReview(DbReview review, Optional<DbReview> previous) {
+    // the recipe was deleted after the existence check, so a review we just inserted must not outlive it
+    var cleanup = previous.isPresent() ? Mono.<Void>empty() : reviewRepository.deleteById(review.getReviewId());
 
-    return Mono.just(recipe);
+    return cleanup.then(Mono.error(new RecipeNotFoundException(review.getRecipeId())));
   }
 
-
   private RestReview buildNewReview(String recipeId, Review review) {
 
     return new RestReview()
@@ -79,21 +110,36 @@ public class ReviewService implements DefaultReviewService {
         .setCreatedAt(LocalDateTime.now());
   }
 
-  private Mono<Boolean> checkIfUserReviewed(DbUserRecipe recipe, String userId) {
-    log.info("Checking if userId: {} has previously rated", userId);
+  @Override
+  public Mono<KeysetPage<RestReview>> getReviews(String recipeId, String cursor, Integer limit) {
+    log.info("Fetching reviews for recipeId: {}", recipeId);
+
+    var id = recipeId.toUpperCase();
+    var pageSize = pagination.pageSize(limit);
+    var after = KeysetCursor.decode(cursor);
 
-    return Mono.just(Optional.ofNullable(recipe.getReviews())
-        .orElseGet(ArrayList::new)
-        .stream()
-        .anyMatch(existingReview -> existingReview.getUserId().equals(userId)));
+    return requireRecipe(recipeId)
+        .then(Mono.defer(() -> reviewRepository.findPage(id, after, pageSize + 1).collectList()))
+        .map(reviews -> KeysetPage.of(reviews, pageSize,
+            review -> new KeysetCursor(review.getCreatedAt(), review.getReviewId())))
+        .map(page -> page.map(restMapper::toRestDto));
   }
 
   @Override
-  public Flux<RestReview> getReviews(String recipeId) {
-    log.info("Fetching reviews for recipeId: {}", recipeId);
+  public Flux<RestReview> streamReviews(String recipeId) {
+    log.info("Streaming reviews for recipeId: {}", recipeId);
+
+    var id = recipeId.toUpperCase();
 
-    return recipeRepository.findById(recipeId)
-        .flatMapMany(dbUserRecipe -> Flux.fromIterable(dbUserRecipe.getReviews()))
+    return requireRecipe(recipeId)
+        .thenMany(Flux.defer(() -> reviewRepository.streamByRecipeId(id)))
         .map(restMapper::toRestDto);
   }
+
+  private Mono<Void> requireRecipe(String recipeId) {
+    return recipeService.recipeExists(recipeId)
+        .filter(Boolean::booleanValue)
+        .switchIfEmpty(Mono.error(new RecipeNotFoundException(recipeId)))
+        .then();
+  }
 }
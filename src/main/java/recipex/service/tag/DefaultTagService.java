@@ -0,0 +1,17 @@
+package recipex.service.tag;
+
+import java.util.Collection;
+import java.util.List;
+import reactor.core.publisher.Mono;
+import recipex.db.DbUserRecipe;
+import recipex.rest.RestTagFacet;
+
+public interface DefaultTagService {
+  Mono<List<RestTagFacet>> getTagFacets(List<String> tags, Integer limit);
+
+  Mono<Void> countCreated(Collection<DbUserRecipe> recipes);
+
+  Mono<Void> countChanged(List<String> previousTags, List<String> tags);
+
+  Mono<Void> countDeleted(Collection<DbUserRecipe> recipes);
+}
@@ -0,0 +1,105 @@
+package recipex.service.tag;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import recipex.cache.TagCountSnapshot;
+import recipex.db.DbTagCount;
+import recipex.db.DbUserRecipe;
+import recipex.mapper.RestMapper;
+import recipex.mongo.DbTagCountRepository;
+import recipex.pagination.Pagination;
+import recipex.search.TagNormalizer;
+import recipex.rest.RestTagFacet;
+
+@Slf4j
+@Service
+@AllArgsConstructor
+public class TagService implements DefaultTagService {
+  private static final String TAG_COUNTS_NOT_UPDATED = "Tag counts not updated, the reconcile job repairs them: {}";
+
+  private final DbTagCountRepository dbTagCountRepository;
+  private final TagCountSnapshot tagCountSnapshot;
+  private final RestMapper restMapper;
+  private final Pagination pagination;
+
+  @Override
+  public Mono<List<RestTagFacet>> getTagFacets(List<String> tags, Integer limit) {
+    log.info("Fetching tag facets for: {}", tags);
+
+    if (tags == null || tags.isEmpty()) {
+      var pageSize = pagination.pageSize(limit);
+
+      return tagCountSnapshot.get()
+          .map(snapshot -> snapshot.getMostUsed().stream()
+              .limit(pageSize)
+              .map(restMapper::toRestDto)
+              .toList());
+    }
+
+    return tagCountSnapshot.get()
+        .flatMap(snapshot -> countsOf(snapshot, TagNormalizer.normalize(tags)))
+        .map(counts -> counts.stream().map(restMapper::toRestDto).toList());
+  }
+
+  private Mono<List<DbTagCount>> countsOf(TagCountSnapshot.Snapshot snapshot, List<String> tags) {
+    var notInSnapshot = tags.stream()
+        .filter(tag -> !snapshot.getByTag().containsKey(tag))
+        .toList();
+
+    // only tags too rare to make the snapshot are read from the collection
+    var rare = snapshot.isComplete() || notInSnapshot.isEmpty()
+        ? Mono.just(Map.<String, DbTagCount>of())
+        : dbTagCountRepository.findAllById(notInSnapshot).collectMap(DbTagCount::getTag);
+
+    return rare.map(rareCounts -> tags.stream()
+        .map(tag -> Optional.ofNullable(snapshot.getByTag().get(tag))
+            .or(() -> Optional.ofNullable(rareCounts.get(tag)))
+            .orElseGet(() -> new DbTagCount().setTag(tag)))
+        .toList());
+  }
+
+  @Override
+  public Mono<Void> countCreated(Collection<DbUserRecipe> recipes) {
+    var deltas = new HashMap<String, Long>();
+    recipes.forEach(recipe -> TagNormalizer.normalize(recipe.getTags())
+        .forEach(tag -> deltas.merge(tag, 1L, Long::sum)));
+
+    return increment(deltas);
+  }
+
+  @Override
+  public Mono<Void> countChanged(List<String> previousTags, List<String> tags) {
+    var deltas = new HashMap<String, Long>();
+    TagNormalizer.normalize(previousTags).forEach(tag -> deltas.merge(tag, -1L, Long::sum));
+    TagNormalizer.normalize(tags).forEach(tag -> deltas.merge(tag, 1L, Long::sum));
+
+    return increment(deltas);
+  }
+
+  @Override
+  public Mono<Void> countDeleted(Collection<DbUserRecipe> recipes) {
+    var deltas = new HashMap<String, Long>();
+    // the tags are the normalized ones read with the deleted recipes, a tag listed twice counts once
+    recipes.forEach(recipe -> Optional.ofNullable(recipe.getNormalizedTags()).orElseGet(List::of).stream()
+        .distinct()
+        .forEach(tag -> deltas.merge(tag, -1L, Long::sum)));
+
+    return increment(deltas);
+  }
+
+  private Mono<Void> increment(Map<String, Long> deltas) {
+    // counts are derived data, a failed increment must not fail the recipe write that caused it
+    return dbTagCountRepository.incrementCounts(deltas)
+        .onErrorResume(error -> {
+          log.error(TAG_COUNTS_NOT_UPDATED, deltas, error);
+          return Mono.empty();
+        });
+  }
+}
@@ -1,14 +1,26 @@
 package recipex.service.user;
 
+import java.time.Duration;
 import java.util.UUID;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import recipex.domain.Username;
 import recipex.rest.RestUser;
+import recipex.rest.RestUserDeletion;
+import recipex.rest.RestUserRecipe;
 
 public interface DefaultUserService {
   Mono<RestUser> createUser(Username username);
 
-  Mono<RestUser> getUser(UUID userId);
+  Mono<RestUser> getUser(UUID userId, String cursor, Integer limit);
 
-  Mono<Void> deleteUser(UUID userId);
+  Flux<RestUserRecipe> exportUserRecipes(UUID userId);
+
+  Mono<RestUserDeletion> deleteUser(UUID userId);
+
+  Mono<RestUserDeletion> startUserDeletion(UUID userId);
+
+  Flux<RestUserDeletion> resumeUserDeletions(Duration staleAfter);
+
+  Mono<RestUserDeletion> getUserDeletion(String deletionId);
 }
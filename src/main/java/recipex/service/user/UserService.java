@@ -1,27 +1,50 @@
 package recipex.service.user;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import recipex.boot.config.properties.JobProperties;
+import recipex.cache.RecipeCache;
+import recipex.cache.UserSingleFlight;
+import recipex.db.DbUserDeletion;
+import recipex.db.DbUserRecipe;
+import recipex.domain.DeletionStatus;
 import recipex.domain.Username;
 import recipex.exceptions.EmailAlreadyExistsException;
+import recipex.exceptions.UserNotFoundException;
 import recipex.mapper.DbMapper;
 import recipex.mapper.RestMapper;
 import recipex.mapper.UuidMapper;
 import recipex.mongo.DbRecipeRepository;
+import recipex.mongo.DbReviewRepository;
+import recipex.mongo.DbUserDeletionRepository;
 import recipex.mongo.DbUserRepository;
+import recipex.pagination.KeysetCursor;
+import recipex.pagination.KeysetPage;
+import recipex.pagination.Pagination;
 import recipex.rest.RestUser;
+import recipex.rest.RestUserDeletion;
+import recipex.rest.RestUserRecipe;
+import recipex.search.IngredientIndex;
+import recipex.search.SuggestionIndex;
+import recipex.service.external.DefaultS3ExternalService;
+import recipex.service.tag.DefaultTagService;
 
 @Slf4j
 @Service
 @AllArgsConstructor
 public class UserService implements DefaultUserService {
   private static final String USER_DELETED_MESSAGE = "User {} deleted";
-  private static final String RECIPE_DELETED_MESSAGE = "Recipe {} associated with user {} deleted";
+  private static final String RECIPES_DELETED_MESSAGE = "{} recipes associated with user {} deleted";
   private static final String USER_NOT_DELETED_MESSAGE = "Error deleting user {}";
-  private static final String RECIPE_NOT_DELETED_MESSAGE = "Error deleting recipe {}";
+  private static final String RECIPES_NOT_DELETED_MESSAGE = "Error deleting recipes of user {}";
   private static final String USER_NOT_SAVED_MESSAGE = "Error saving user {}";
   private static final String USER_SAVED_MESSAGE = "User {} saved successfully";
   private static final String USER_RETRIEVED_MESSAGE = "User {} retrieved successfully";
@@ -29,9 +52,19 @@ public class UserService implements DefaultUserService {
 
   private final DbUserRepository dbUserRepository;
   private final DbRecipeRepository dbRecipeRepository;
+  private final DbReviewRepository dbReviewRepository;
+  private final DbUserDeletionRepository dbUserDeletionRepository;
+  private final DefaultS3ExternalService s3ExternalService;
+  private final DefaultTagService tagService;
+  private final RecipeCache recipeCache;
+  private final UserSingleFlight userSingleFlight;
+  private final IngredientIndex ingredientIndex;
+  private final SuggestionIndex suggestionIndex;
+  private final JobProperties jobProperties;
   private final DbMapper dbMapper;
   private final UuidMapper uuidMapper;
   private final RestMapper restMapper;
+  private final Pagination pagination;
 
   @Override
   public Mono<RestUser> createUser(Username username) {
@@ -41,56 +74,187 @@ public class UserService implements DefaultUserService {
 
     log.info("Creating user with username: {}", username);
 
-    return checkIfEmailExists(user.getUsername().getEmail())
-        .flatMap(emailExists -> emailExists
-            ? Mono.error(new EmailAlreadyExistsException(user.getUsername().getEmail()))
-            : saveUser(user));
+    return saveUser(user);
   }
 
   private Mono<RestUser> saveUser(RestUser user) {
     return Mono.just(user)
         .map(dbMapper::toDbDto)
-        .flatMap(dbUserRepository::save)
+        .flatMap(dbUserRepository::insert)
+        // the ID is freshly generated, so only the unique index on username.email can reject the insert
+        .onErrorMap(DuplicateKeyException.class,
+            error -> new EmailAlreadyExistsException(user.getUsername().getEmail()))
         .doOnSuccess(savedUser -> log.info(USER_SAVED_MESSAGE, savedUser.getId()))
         .doOnError(error -> log.error(USER_NOT_SAVED_MESSAGE, user.getId()))
         .map(restMapper::toRestDto);
   }
 
   @Override
-  public Mono<RestUser> getUser(UUID userId) {
+  public Mono<RestUser> getUser(UUID userId, String cursor, Integer limit) {
     log.info("Retrieving user with ID: {}", userId);
 
-    return dbUserRepository.findById(uuidMapper.toString(userId))
-        .flatMap(dbUser -> dbRecipeRepository.findByUserId(dbUser.getId())
-            .collectList()
-            .doOnNext(dbUser::setRecipes)
-            .thenReturn(dbUser))
-        .map(restMapper::toRestDto)
-        .doOnSuccess(user -> log.info(user != null ? USER_RETRIEVED_MESSAGE : USER_NOT_FOUND_MESSAGE, userId));
+    var pageSize = pagination.pageSize(limit);
+    var after = KeysetCursor.decode(cursor);
+    var user = uuidMapper.toString(userId);
+
+    return userSingleFlight.execute(String.join("|", user, String.valueOf(cursor), String.valueOf(pageSize)),
+            key -> dbUserRepository.findById(user)
+                .flatMap(dbUser -> dbRecipeRepository.findPageByUserId(dbUser.getId(), after, pageSize + 1)
+                    .collectList()
+                    .map(recipes -> KeysetPage.of(recipes, pageSize,
+                        recipe -> new KeysetCursor(recipe.getCreatedAt(), recipe.getRecipeId())))
+                    .map(page -> restMapper.toRestDto(dbUser.setRecipes(page.getItems()))
+                        .setRecipesNextCursor(page.getNextCursor()))))
+        .doOnSuccess(restUser -> log.info(restUser != null ? USER_RETRIEVED_MESSAGE : USER_NOT_FOUND_MESSAGE, userId));
   }
 
   @Override
-  public Mono<Void> deleteUser(UUID userId) {
+  public Flux<RestUserRecipe> exportUserRecipes(UUID userId) {
+    log.info("Exporting recipes of user with ID: {}", userId);
+
+    var user = uuidMapper.toString(userId);
+
+    // checked before the first record, once streaming has started the status can no longer change
+    return dbUserRepository.existsById(user)
+        .filter(Boolean::booleanValue)
+        .switchIfEmpty(Mono.error(new UserNotFoundException(user)))
+        .thenMany(Flux.defer(() -> dbRecipeRepository.streamByUserId(user)))
+        .map(restMapper::toRestDto);
+  }
+
+  @Override
+  public Mono<RestUserDeletion> deleteUser(UUID userId) {
     String user = uuidMapper.toString(userId);
 
     log.info("Deleting user with ID: {}", userId);
 
-    return dbUserRepository.deleteById(user)
-        .doOnSuccess(unused -> log.info(USER_DELETED_MESSAGE, user))
-        .doOnError(error -> log.error(USER_NOT_DELETED_MESSAGE, user, error))
-        .thenMany(dbRecipeRepository.findByUserId(user))
-        .flatMap(recipe -> dbRecipeRepository.deleteById(recipe.getRecipeId())
-            .doOnSuccess(unused -> log.info(RECIPE_DELETED_MESSAGE, recipe.getRecipeId(), user))
-            .doOnError(error -> log.error(RECIPE_NOT_DELETED_MESSAGE, recipe.getRecipeId(), error))
-        )
-        .then();
+    // the same chunks as a background deletion, so a user with many recipes never builds one huge $in
+    return deleteUserDocument(newDeletion(user))
+        .flatMap(dbUserDeletionRepository::save)
+        .flatMap(this::deleteRecipesInChunks)
+        .doOnSuccess(deletion -> log.info(RECIPES_DELETED_MESSAGE, deletion.getRecipesDeleted(), user))
+        .doOnError(error -> log.error(RECIPES_NOT_DELETED_MESSAGE, user, error))
+        .map(restMapper::toRestDto);
+  }
+
+  @Override
+  public Mono<RestUserDeletion> startUserDeletion(UUID userId) {
+    String user = uuidMapper.toString(userId);
+
+    log.info("Starting background deletion of user with ID: {}", userId);
+
+    return deleteUserDocument(newDeletion(user))
+        .flatMap(dbUserDeletionRepository::save)
+        .map(deletion -> {
+          var accepted = restMapper.toRestDto(deletion);
+
+          deleteRecipesInChunks(deletion)
+              .subscribe(
+                  completed -> log.info(RECIPES_DELETED_MESSAGE, completed.getRecipesDeleted(), user),
+                  error -> log.error(RECIPES_NOT_DELETED_MESSAGE, user, error));
+
+          return accepted;
+        });
+  }
+
+  @Override
+  public Flux<RestUserDeletion> resumeUserDeletions(Duration staleAfter) {
+    // one deletion is claimed at a time, so a claimed one never sits idle long enough to look stale again
+    return resumeNextStale(staleAfter)
+        .expand(resumed -> resumeNextStale(staleAfter))
+        .map(restMapper::toRestDto);
+  }
+
+  private Mono<DbUserDeletion> resumeNextStale(Duration staleAfter) {
+    return Mono.defer(() -> dbUserDeletionRepository.claimStale(LocalDateTime.now().minus(staleAfter)))
+        .flatMap(this::resumeUserDeletion);
+  }
+
+  private Mono<DbUserDeletion> resumeUserDeletion(DbUserDeletion deletion) {
+    var user = deletion.getUserId();
+
+    log.info("Resuming deletion {} of user {}", deletion.getDeletionId(), user);
+
+    // a failed deletion is recorded as failed and must not stop the others from resuming
+    return deleteRecipesInChunks(deletion)
+        .doOnSuccess(completed -> log.info(RECIPES_DELETED_MESSAGE, completed.getRecipesDeleted(), user))
+        .onErrorResume(error -> {
+          log.error(RECIPES_NOT_DELETED_MESSAGE, user, error);
+          return Mono.just(deletion);
+        });
+  }
+
+  @Override
+  public Mono<RestUserDeletion> getUserDeletion(String deletionId) {
+    return dbUserDeletionRepository.findById(deletionId)
+        .map(restMapper::toRestDto);
+  }
+
+  private DbUserDeletion newDeletion(String userId) {
+    return new DbUserDeletion()
+        .setDeletionId(UUID.randomUUID().toString())
+        .setUserId(userId)
+        .setStatus(DeletionStatus.RUNNING)
+        .setStartedAt(LocalDateTime.now())
+        .setUpdatedAt(LocalDateTime.now());
   }
 
-  private Mono<Boolean> checkIfEmailExists(String email) {
-    log.info("Checking if email {} exists", email);
+  private Mono<DbUserDeletion> deleteUserDocument(DbUserDeletion deletion) {
+    // the cascade only starts once the user itself is gone
+    return dbUserRepository.removeById(deletion.getUserId())
+        .doOnSuccess(deleted -> log.info(USER_DELETED_MESSAGE, deletion.getUserId()))
+        .doOnError(error -> log.error(USER_NOT_DELETED_MESSAGE, deletion.getUserId(), error))
+        .map(deletion::setUsersDeleted);
+  }
+
+  private Mono<DbUserDeletion> deleteRecipesInChunks(DbUserDeletion deletion) {
+    return deleteRecipeChunk(deletion)
+        .expand(this::deleteRecipeChunk)
+        .then(Mono.defer(() -> dbUserDeletionRepository.save(complete(deletion))))
+        .onErrorResume(error -> dbUserDeletionRepository.save(deletion
+                .setStatus(DeletionStatus.FAILED)
+                .setFailure(error.getMessage())
+                .setCompletedAt(LocalDateTime.now()))
+            .then(Mono.error(error)));
+  }
+
+  private Mono<DbUserDeletion> deleteRecipeChunk(DbUserDeletion deletion) {
+    var batchSize = jobProperties.getUserDeletion().getBatchSize();
+
+    return dbRecipeRepository.findTitlesAndTagsByUserId(deletion.getUserId(), batchSize)
+        .collectList()
+        .filter(recipes -> !recipes.isEmpty())
+        .flatMap(recipes -> {
+          var recipeIds = recipes.stream().map(DbUserRecipe::getRecipeId).toList();
+
+          // tags are only uncounted once the recipes are gone, so a resumed deletion cannot uncount them twice
+          return deleteRecipeChildren(recipeIds, deletion)
+              .then(Mono.defer(() -> dbRecipeRepository.deleteByRecipeIdIn(recipeIds)))
+              .flatMap(recipesDeleted -> tagService.countDeleted(recipes).thenReturn(recipesDeleted))
+              .doOnSuccess(unused -> recipes.forEach(suggestionIndex::remove));
+        })
+        .flatMap(recipesDeleted -> dbUserDeletionRepository.save(deletion
+            .setRecipesDeleted(deletion.getRecipesDeleted() + recipesDeleted)
+            .setUpdatedAt(LocalDateTime.now())));
+  }
+
+  private Mono<Void> deleteRecipeChildren(List<String> recipeIds, DbUserDeletion deletion) {
+    if (recipeIds.isEmpty()) {
+      return Mono.empty();
+    }
+
+    return dbReviewRepository.deleteByRecipeIdIn(recipeIds)
+        .doOnNext(reviewsDeleted -> deletion.setReviewsDeleted(deletion.getReviewsDeleted() + reviewsDeleted))
+        .then(Mono.defer(() -> s3ExternalService.deleteImages(recipeIds)))
+        .doOnNext(imagesDeleted -> deletion.setImagesDeleted(deletion.getImagesDeleted() + imagesDeleted))
+        .doOnSuccess(unused -> recipeIds.forEach(recipeCache::evict))
+        .doOnSuccess(unused -> recipeIds.forEach(ingredientIndex::remove))
+        .then();
+  }
 
-    return dbUserRepository.findByEmail(email)
-        .map(existingUser -> true)
-        .defaultIfEmpty(false);
+  private DbUserDeletion complete(DbUserDeletion deletion) {
+    return deletion
+        .setStatus(DeletionStatus.COMPLETED)
+        .setCompletedAt(LocalDateTime.now());
   }
 }
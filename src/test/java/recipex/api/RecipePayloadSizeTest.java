@@ -0,0 +1,117 @@
+package recipex.api;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoClientSettings;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import recipex.db.DbRecipeSummary;
+import recipex.db.DbUserRecipe;
+import recipex.mapper.RestMapper;
+
+/**
+ * Compares what a page of 20 typical recipes costs as full documents and as the summaries list
+ * endpoints project, both read from MongoDB and written to the client.
+ */
+class RecipePayloadSizeTest {
+  private static final int PAGE_SIZE = 20;
+
+  private final RestMapper restMapper = Mappers.getMapper(RestMapper.class);
+  private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+  private final MappingMongoConverter converter = converter();
+  private final DocumentCodec documentCodec = new DocumentCodec(MongoClientSettings.getDefaultCodecRegistry());
+
+  @Test
+  void summaries_shouldCostAFractionOfTheFullRecipes() throws JsonProcessingException {
+    var recipes = IntStream.range(0, PAGE_SIZE)
+        .mapToObj(index -> typicalRecipe("Slow Cooked Beef Stew " + index, index))
+        .toList();
+    var summaries = recipes.stream().map(this::summaryOf).toList();
+
+    long fullBson = recipes.stream().mapToLong(this::bsonSize).sum();
+    long summaryBson = summaries.stream().mapToLong(this::bsonSize).sum();
+    long fullJson = objectMapper.writeValueAsBytes(restMapper.toRestDto(recipes)).length;
+    long summaryJson = objectMapper.writeValueAsBytes(summaries.stream().map(restMapper::toRestDto).toList()).length;
+
+    assertTrue(summaryBson * 3 < fullBson,
+        () -> "a page reads " + summaryBson + " summary bytes against " + fullBson + " full document bytes");
+    assertTrue(summaryJson * 3 < fullJson,
+        () -> "a page writes " + summaryJson + " summary bytes against " + fullJson + " full recipe bytes");
+  }
+
+  private static MappingMongoConverter converter() {
+    // the conversions make dates simple types, as in the application's converter
+    var conversions = new MongoCustomConversions(List.of());
+    var mappingContext = new MongoMappingContext();
+    mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+    mappingContext.afterPropertiesSet();
+
+    var converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+    converter.setCustomConversions(conversions);
+    converter.afterPropertiesSet();
+    return converter;
+  }
+
+  private long bsonSize(Object entity) {
+    var document = new Document();
+    converter.write(entity, document);
+
+    return new RawBsonDocument(document, documentCodec).getByteBuffer().remaining();
+  }
+
+  private DbRecipeSummary summaryOf(DbUserRecipe recipe) {
+    return new DbRecipeSummary()
+        .setRecipeId(recipe.getRecipeId())
+        .setUserId(recipe.getUserId())
+        .setTitle(recipe.getTitle())
+        .setDescription(recipe.getDescription())
+        .setTags(recipe.getTags())
+        .setImageUrl(recipe.getImageUrl())
+        .setCreatedAt(recipe.getCreatedAt())
+        .setAverageRating(recipe.getAverageRating())
+        .setReviewCount(recipe.getReviewCount());
+  }
+
+  // sized after the recipes users write: a short description, a dozen ingredients and eight steps
+  static DbUserRecipe typicalRecipe(String title, int index) {
+    var tags = List.of("dinner", "comfort food", "slow cooker");
+
+    return new DbUserRecipe()
+        .setRecipeId(UUID.randomUUID().toString().toUpperCase())
+        .setUserId(UUID.randomUUID().toString().toUpperCase())
+        .setTitle(title)
+        .setNormalizedTitle(title.toLowerCase())
+        .setDescription("A hearty stew of beef, root vegetables and red wine, cooked low and slow until tender.")
+        .setIngredients(IntStream.range(0, 12)
+            .mapToObj(i -> "200 g of finely chopped ingredient number " + i)
+            .toList())
+        .setInstructions(IntStream.range(0, 8)
+            .mapToObj(i -> "Step " + i + ": stir everything in the pot, cover with the lid and leave it to simmer "
+                + "gently over a low heat, checking now and then that nothing sticks to the bottom.")
+            .toList())
+        .setTags(tags)
+        .setNormalizedTags(tags)
+        .setImageUrl("https://recipex-images.s3.amazonaws.com/recipes/" + UUID.randomUUID() + ".jpg")
+        .setCreatedAt(LocalDateTime.now().minusDays(index))
+        .setAverageRating(4.25)
+        .setReviewCount(12L)
+        .setRatingSum(51L)
+        .setRatingHistogram(Map.of("1", 0L, "2", 1L, "3", 1L, "4", 3L, "5", 7L))
+        .setVersion(3L);
+  }
+}
@@ -0,0 +1,225 @@
+package recipex.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import recipex.DefaultSpringBootTest;
+import recipex.db.DbReview;
+import recipex.db.DbUser;
+import recipex.db.DbUserRecipe;
+import recipex.domain.ImportStatus;
+import recipex.mongo.DbRecipeRepository;
+import recipex.mongo.DbReviewRepository;
+import recipex.mongo.DbUserRepository;
+import recipex.rest.RestImportResult;
+import recipex.rest.RestRecipeSummary;
+import recipex.rest.RestReview;
+import recipex.rest.RestUserRecipe;
+import recipex.service.recipe.DefaultRecipeService;
+
+class RecipeStreamingTest extends DefaultSpringBootTest {
+  private static final String PADDING = "x".repeat(8 * 1024);
+
+  @Autowired
+  DbRecipeRepository dbRecipeRepository;
+  @Autowired
+  DbReviewRepository dbReviewRepository;
+  @Autowired
+  DbUserRepository dbUserRepository;
+  @Autowired
+  DefaultRecipeService recipeService;
+
+  @Test
+  void getRecipeByName_shouldStreamEveryRecipeAsNdjson() {
+    var title = UUID.randomUUID().toString();
+    saveRecipes(title, 250);
+
+    var recipes = webTestClient.get()
+        .uri("/recipes/by-title/{title}", title)
+        .accept(MediaType.APPLICATION_NDJSON)
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+        .returnResult(RestRecipeSummary.class)
+        .getResponseBody()
+        .collectList()
+        .block();
+
+    assertEquals(250, recipes.size());
+    assertTrue(recipes.get(0).getCreatedAt().isAfter(recipes.get(249).getCreatedAt()));
+  }
+
+  @Test
+  void getRecipeByName_shouldStillReturnAJsonPageByDefault() {
+    var title = UUID.randomUUID().toString();
+    saveRecipes(title, 30);
+
+    webTestClient.get()
+        .uri("/recipes/by-title/{title}", title)
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+        .expectHeader().exists(RecipeXApi.NEXT_CURSOR_HEADER)
+        .expectBodyList(RestRecipeSummary.class)
+        .hasSize(20);
+  }
+
+  @Test
+  void getRecipeByTags_shouldStreamEveryRecipeAsNdjson() {
+    var tag = UUID.randomUUID().toString();
+    dbRecipeRepository.saveAll(IntStream.range(0, 150)
+            .mapToObj(i -> recipe("tagged", i).setTags(List.of(tag)))
+            .toList())
+        .blockLast();
+
+    webTestClient.get()
+        .uri("/recipes/by-tags?tags={tag}", tag)
+        .accept(MediaType.APPLICATION_NDJSON)
+        .exchange()
+        .expectStatus().isOk()
+        .returnResult(RestRecipeSummary.class)
+        .getResponseBody()
+        .count()
+        .doOnNext(count -> assertEquals(150L, count))
+        .block();
+  }
+
+  @Test
+  void getRecipeReviews_shouldStreamEveryReviewAsNdjson() {
+    var recipe = dbRecipeRepository.save(recipe(UUID.randomUUID().toString(), 0)).block();
+
+    dbReviewRepository.saveAll(IntStream.range(0, 120)
+            .mapToObj(i -> new DbReview()
+                .setReviewId(UUID.randomUUID().toString())
+                .setRecipeId(recipe.getRecipeId())
+                .setUserId("user-" + i)
+                .setRating(1 + i % 5)
+                .setCreatedAt(LocalDateTime.now().minusMinutes(i)))
+            .toList())
+        .blockLast();
+
+    var reviews = webTestClient.get()
+        .uri("/{recipeId}/reviews", recipe.getRecipeId())
+        .accept(MediaType.APPLICATION_NDJSON)
+        .exchange()
+        .expectStatus().isOk()
+        .returnResult(RestReview.class)
+        .getResponseBody()
+        .collectList()
+        .block();
+
+    assertEquals(120, reviews.size());
+  }
+
+  @Test
+  void getRecipeReviews_shouldReturnNotFoundBeforeStreamingForAMissingRecipe() {
+    webTestClient.get()
+        .uri("/{recipeId}/reviews", UUID.randomUUID().toString())
+        .accept(MediaType.APPLICATION_NDJSON)
+        .exchange()
+        .expectStatus().isNotFound();
+  }
+
+  @Test
+  void exportUserRecipes_shouldStreamEveryRecipeOfTheUser() {
+    var userId = UUID.randomUUID();
+    dbUserRepository.save(new DbUser().setId(userId.toString().toUpperCase())).block();
+    dbRecipeRepository.saveAll(IntStream.range(0, 60)
+            .mapToObj(i -> recipe("exported", i).setUserId(userId.toString().toUpperCase()))
+            .toList())
+        .blockLast();
+
+    webTestClient.get()
+        .uri("/user/{userId}/recipes", userId)
+        .accept(MediaType.APPLICATION_NDJSON)
+        .exchange()
+        .expectStatus().isOk()
+        .returnResult(RestUserRecipe.class)
+        .getResponseBody()
+        .count()
+        .doOnNext(count -> assertEquals(60L, count))
+        .block();
+  }
+
+  @Test
+  void exportUserRecipes_shouldReturnNotFoundBeforeStreamingForAMissingUser() {
+    webTestClient.get()
+        .uri("/user/{userId}/recipes", UUID.randomUUID())
+        .accept(MediaType.APPLICATION_NDJSON)
+        .exchange()
+        .expectStatus().isNotFound();
+  }
+
+  @Test
+  void importUserRecipes_shouldStreamOneResultPerNdjsonRecord() {
+    var userId = UUID.randomUUID();
+    var body = IntStream.range(0, 300)
+        .mapToObj(i -> i == 7
+            ? "{\"title\":\"x\",\"description\":\"too short title\"}"
+            : "{\"title\":\"Imported " + i + "\",\"description\":\"d\",\"ingredients\":[\"a\"],"
+                + "\"instructions\":[\"b\"]}")
+        .collect(Collectors.joining("\n"));
+
+    var results = webTestClient.post()
+        .uri("/recipes/{userId}/import", userId)
+        .contentType(MediaType.APPLICATION_NDJSON)
+        .accept(MediaType.APPLICATION_NDJSON)
+        .bodyValue(body)
+        .exchange()
+        .expectStatus().isOk()
+        .returnResult(RestImportResult.class)
+        .getResponseBody()
+        .collectList()
+        .block();
+
+    assertEquals(300, results.size());
+    assertEquals(ImportStatus.INVALID, results.get(7).getStatus());
+    assertEquals(299L, results.stream().filter(result -> result.getStatus() == ImportStatus.CREATED).count());
+  }
+
+  @Test
+  void streamRecipesByName_shouldOnlyEmitWhatWasRequested() {
+    var title = UUID.randomUUID().toString();
+    saveRecipes(title, 1_000);
+
+    // a subscriber that stops requesting gets nothing more, so a slow client holds back the cursor
+    StepVerifier.create(recipeService.streamRecipesByName(title), 0)
+        .expectSubscription()
+        .expectNoEvent(Duration.ofMillis(200))
+        .thenRequest(50)
+        .expectNextCount(50)
+        .expectNoEvent(Duration.ofMillis(200))
+        .thenRequest(50)
+        .expectNextCount(50)
+        .thenCancel()
+        .verify(Duration.ofSeconds(10));
+  }
+
+  private void saveRecipes(String title, int count) {
+    Flux.range(0, count)
+        .map(i -> recipe(title, i))
+        .buffer(500)
+        .concatMap(dbRecipeRepository::saveAll)
+        .blockLast();
+  }
+
+  private DbUserRecipe recipe(String title, int index) {
+    return new DbUserRecipe()
+        .setRecipeId(UUID.randomUUID().toString())
+        .setUserId("streaming-user")
+        .setTitle(title)
+        .setDescription(PADDING)
+        .setCreatedAt(LocalDateTime.now().minusSeconds(index));
+  }
+}
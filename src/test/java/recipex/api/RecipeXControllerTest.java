@@ -1,5 +1,6 @@
 package recipex.api;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 import java.time.LocalDateTime;
@@ -11,12 +12,16 @@ import java.util.UUID;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import recipex.DefaultSpringBootTest;
 import recipex.db.DbUserRecipe;
+import recipex.domain.RecipePatch;
 import recipex.domain.Review;
 import recipex.domain.UserRecipe;
 import recipex.domain.Username;
+import recipex.rest.RestRecipeSummary;
 import recipex.rest.RestReview;
 import recipex.rest.RestUser;
 import recipex.rest.RestUserRecipe;
@@ -116,6 +121,54 @@ class RecipeXControllerTest extends DefaultSpringBootTest {
         .value(recipe -> assertNotNull(recipe, "Recipe should be returned"));
   }
 
+  @Test
+  void testGetRecipe_ReturnsNotModifiedForTheCurrentETag() {
+    var eTag = webTestClient.get()
+        .uri("/recipe/{recipeId}", createdRecipeId)
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+        .returnResult(RestUserRecipe.class)
+        .getResponseHeaders()
+        .getETag();
+
+    webTestClient.get()
+        .uri("/recipe/{recipeId}", createdRecipeId)
+        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+        .exchange()
+        .expectStatus().isNotModified()
+        .expectBody().isEmpty();
+  }
+
+  @Test
+  void testGetRecipe_ReturnsOnlyTheSelectedFields() {
+    webTestClient.get()
+        .uri("/recipe/{recipeId}?fields={fields}", createdRecipeId, "title, tags")
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().valueEquals(HttpHeaders.ETAG, "W/\"0\"")
+        .expectBody()
+        .jsonPath("$.recipeId").exists()
+        .jsonPath("$.title").exists()
+        .jsonPath("$.ingredients").doesNotExist()
+        .jsonPath("$.instructions").doesNotExist();
+
+    webTestClient.get()
+        .uri("/recipe/{recipeId}?fields={fields}", createdRecipeId, "secret")
+        .exchange()
+        .expectStatus().isBadRequest();
+  }
+
+  @Test
+  void testGetRecipe_RevalidatesASelectionWithItsWeakETag() {
+    webTestClient.get()
+        .uri("/recipe/{recipeId}?fields={fields}", createdRecipeId, "title")
+        .header(HttpHeaders.IF_NONE_MATCH, "W/\"0\"")
+        .exchange()
+        .expectStatus().isNotModified()
+        .expectHeader().valueEquals(HttpHeaders.ETAG, "W/\"0\"");
+  }
+
   @Test
   void testGetRecipeByName() {
     var recipeName = "no-way-you-get-this-name";
@@ -123,7 +176,7 @@ class RecipeXControllerTest extends DefaultSpringBootTest {
         .uri("/recipes/by-title/{name}", recipeName)
         .exchange()
         .expectStatus().isOk()
-        .expectBodyList(RestUserRecipe.class)
+        .expectBodyList(RestRecipeSummary.class)
         .hasSize(1);
   }
 
@@ -134,7 +187,7 @@ class RecipeXControllerTest extends DefaultSpringBootTest {
         .uri("/recipes/by-tags?tags={tags}", tag)
         .exchange()
         .expectStatus().isOk()
-        .expectBodyList(RestUserRecipe.class)
+        .expectBodyList(RestRecipeSummary.class)
         .hasSize(1);
   }
 
@@ -177,6 +230,37 @@ class RecipeXControllerTest extends DefaultSpringBootTest {
   }
 
 
+  @Test
+  void testUpdateRecipe_RejectsAStaleIfMatch() {
+    webTestClient.put()
+        .uri("/recipe")
+        .header(HttpHeaders.IF_MATCH, "\"0\"")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(createAnotherSampleUserRecipe())
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"");
+
+    webTestClient.patch()
+        .uri("/recipe/{userId}/{recipeId}", createdUserId, createdRecipeId)
+        .header(HttpHeaders.IF_MATCH, "\"0\"")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(new RecipePatch().setTitle("Lost update"))
+        .exchange()
+        .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+
+    webTestClient.patch()
+        .uri("/recipe/{userId}/{recipeId}", createdUserId, createdRecipeId)
+        .header(HttpHeaders.IF_MATCH, "\"1\"")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(new RecipePatch().setTitle("Current update"))
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().valueEquals(HttpHeaders.ETAG, "\"2\"")
+        .expectBody(RestUserRecipe.class)
+        .value(recipe -> assertEquals(2L, recipe.getVersion()));
+  }
+
   @Test
   void testDeleteUser() {
     webTestClient.delete()
@@ -185,6 +269,14 @@ class RecipeXControllerTest extends DefaultSpringBootTest {
         .expectStatus().isOk();
   }
 
+  @Test
+  void testGetUserDeletion_ReturnsNotFoundForAnUnknownDeletion() {
+    webTestClient.get()
+        .uri("/user/deletions/{deletionId}", UUID.randomUUID())
+        .exchange()
+        .expectStatus().isNotFound();
+  }
+
   @Test
   void testDeleteRecipe() {
     webTestClient.delete()
@@ -216,6 +308,32 @@ class RecipeXControllerTest extends DefaultSpringBootTest {
         .hasSize(1);
   }
 
+  @Test
+  void testGetRecipeReviews_ReturnsNextCursorWhenMoreReviewsExist() {
+    webTestClient.post()
+        .uri("/{recipeId}/reviews", createdRecipeId.toString().toUpperCase())
+        .bodyValue(createSampleReview().setUserId("anotherUserId"))
+        .exchange()
+        .expectStatus().isOk();
+
+    var nextCursor = webTestClient.get()
+        .uri("/{recipeId}/reviews?limit=1", createdRecipeId.toString().toUpperCase())
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().exists(RecipeXApi.NEXT_CURSOR_HEADER)
+        .returnResult(RestReview.class)
+        .getResponseHeaders()
+        .getFirst(RecipeXApi.NEXT_CURSOR_HEADER);
+
+    webTestClient.get()
+        .uri("/{recipeId}/reviews?limit=1&cursor={cursor}", createdRecipeId.toString().toUpperCase(), nextCursor)
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().doesNotExist(RecipeXApi.NEXT_CURSOR_HEADER)
+        .expectBodyList(RestReview.class)
+        .hasSize(1);
+  }
+
   private Username createSampleUsername() {
     return new Username()
         .setName("John")
@@ -0,0 +1,70 @@
+package recipex.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.mongodb.MongoClientSettings;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import reactor.core.publisher.Flux;
+import recipex.DefaultSpringBootTest;
+import recipex.db.DbUserRecipe;
+import recipex.mongo.DbRecipeRepository;
+import recipex.search.TitleNormalizer;
+
+/**
+ * Measures what a page of 20 typical recipes read by title costs against the same recipes read as
+ * full documents, as the repository really returns them from MongoDB.
+ */
+class StoredRecipePayloadSizeTest extends DefaultSpringBootTest {
+  private static final int PAGE_SIZE = 20;
+
+  @Autowired
+  DbRecipeRepository dbRecipeRepository;
+  @Autowired
+  MongoConverter mongoConverter;
+
+  private final DocumentCodec documentCodec = new DocumentCodec(MongoClientSettings.getDefaultCodecRegistry());
+
+  @Test
+  void findPageByTitle_shouldReadAFractionOfTheFullDocuments() {
+    var title = "Slow Cooked Beef Stew " + UUID.randomUUID();
+    var recipeIds = dbRecipeRepository.saveAll(IntStream.range(0, PAGE_SIZE)
+            .mapToObj(index -> RecipePayloadSizeTest.typicalRecipe(title, index).setVersion(null))
+            .toList())
+        .map(DbUserRecipe::getRecipeId)
+        .collectList()
+        .block();
+
+    var page = dbRecipeRepository.findPageByTitle(TitleNormalizer.normalize(title), null, PAGE_SIZE)
+        .collectList()
+        .block();
+    var fullRecipes = Flux.fromIterable(recipeIds)
+        .concatMap(dbRecipeRepository::findById)
+        .collectList()
+        .block();
+
+    assertEquals(PAGE_SIZE, page.size());
+    assertEquals(PAGE_SIZE, fullRecipes.size());
+
+    long pageBson = page.stream().mapToLong(this::bsonSize).sum();
+    long fullBson = fullRecipes.stream().mapToLong(this::bsonSize).sum();
+
+    assertTrue(pageBson * 3 < fullBson,
+        () -> "a page reads " + pageBson + " summary bytes against " + fullBson + " full document bytes");
+  }
+
+  // the fields the query returned, written back as the BSON they were read from
+  private long bsonSize(Object entity) {
+    var document = new Document();
+    mongoConverter.write(entity, document);
+
+    return new RawBsonDocument(document, documentCodec).getByteBuffer().remaining();
+  }
+}
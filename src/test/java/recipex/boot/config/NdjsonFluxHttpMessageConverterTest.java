@@ -0,0 +1,91 @@
+package recipex.boot.config;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import recipex.domain.UserRecipe;
+
+class NdjsonFluxHttpMessageConverterTest {
+  private static final int RECORDS = 20_000;
+
+  private final NdjsonFluxHttpMessageConverter converter = new NdjsonFluxHttpMessageConverter(new ObjectMapper());
+  private final Type recipesType = new ParameterizedTypeReference<Flux<UserRecipe>>() {
+  }.getType();
+
+  @Test
+  void read_shouldOnlyReadAheadOfTheRecordsRequested() {
+    var body = IntStream.range(0, RECORDS)
+        .mapToObj(i -> "{\"title\":\"Imported " + i + "\",\"description\":\"" + "d".repeat(200) + "\"}")
+        .collect(Collectors.joining("\n"))
+        .getBytes(StandardCharsets.UTF_8);
+    var bytesRead = new AtomicLong();
+
+    var recipes = converter.read(recipesType, null, inputMessage(countingStream(body, bytesRead)));
+
+    StepVerifier.create(recipes, 10)
+        .expectNextCount(10)
+        .thenCancel()
+        .verify();
+
+    // the body is read a buffer at a time as records are requested, a few buffers at most for ten records
+    assertTrue(bytesRead.get() <= 64 * 1024,
+        () -> "read " + bytesRead.get() + " of " + body.length + " bytes for 10 records");
+  }
+
+  @Test
+  void canWrite_shouldLeaveFluxResponsesToTheReactiveReturnValueHandler() {
+    assertFalse(converter.canWrite(recipesType, Flux.class, MediaType.APPLICATION_NDJSON));
+    assertFalse(converter.canWrite(recipesType, Flux.class, null));
+    assertThrows(HttpMessageNotWritableException.class,
+        () -> converter.write(Flux.empty(), recipesType, MediaType.APPLICATION_NDJSON, new MockHttpOutputMessage()));
+  }
+
+  private static InputStream countingStream(byte[] body, AtomicLong bytesRead) {
+    return new FilterInputStream(new ByteArrayInputStream(body)) {
+      @Override
+      public int read(byte[] buffer, int offset, int length) throws IOException {
+        var read = super.read(buffer, offset, length);
+        if (read > 0) {
+          bytesRead.addAndGet(read);
+        }
+        return read;
+      }
+    };
+  }
+
+  private static HttpInputMessage inputMessage(InputStream body) {
+    return new HttpInputMessage() {
+      @Override
+      public InputStream getBody() {
+        return body;
+      }
+
+      @Override
+      public HttpHeaders getHeaders() {
+        var headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+        return headers;
+      }
+    };
+  }
+}
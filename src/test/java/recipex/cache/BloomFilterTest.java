@@ -0,0 +1,52 @@
+package recipex.cache;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+  @Test
+  void mightContain_shouldNeverMissAValueThatWasPut() {
+    var filter = new BloomFilter(10_000, 0.01);
+    var recipeIds = IntStream.range(0, 10_000).mapToObj(i -> UUID.randomUUID().toString().toUpperCase()).toList();
+
+    recipeIds.forEach(filter::put);
+
+    assertTrue(recipeIds.stream().allMatch(filter::mightContain));
+  }
+
+  @Test
+  void mightContain_shouldStayNearTheConfiguredFalsePositiveProbability() {
+    var filter = new BloomFilter(10_000, 0.01);
+    IntStream.range(0, 10_000).forEach(i -> filter.put(UUID.randomUUID().toString()));
+
+    var falsePositives = IntStream.range(0, 100_000)
+        .filter(i -> filter.mightContain(UUID.randomUUID().toString()))
+        .count();
+
+    assertTrue(falsePositives < 2_000, falsePositives + " false positives in 100000 lookups");
+    assertTrue(filter.expectedFalsePositiveProbability() < 0.02);
+  }
+
+  @Test
+  void put_shouldNotLoseValuesPutConcurrently() {
+    var filter = new BloomFilter(1_000, 0.01);
+    var recipeIds = IntStream.range(0, 1_000).mapToObj(i -> UUID.randomUUID().toString()).toList();
+
+    recipeIds.parallelStream().forEach(filter::put);
+
+    assertTrue(recipeIds.stream().allMatch(filter::mightContain));
+  }
+
+  @Test
+  void mightContain_shouldRejectValuesOfAnEmptyFilter() {
+    var filter = new BloomFilter(100, 0.01);
+
+    assertFalse(List.of("a", "b", UUID.randomUUID().toString()).stream().anyMatch(filter::mightContain));
+  }
+}
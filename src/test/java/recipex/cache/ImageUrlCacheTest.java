@@ -0,0 +1,73 @@
+package recipex.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import recipex.boot.config.properties.CacheProperties;
+import recipex.boot.config.properties.S3Properties;
+
+class ImageUrlCacheTest {
+  private final String recipeId = "7F2D50F9-6A41-47F1-937B-C91D3F0FD8F1";
+
+  private final AtomicLong nanos = new AtomicLong();
+  private final AtomicInteger signatures = new AtomicInteger();
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final ImageUrlCache imageUrlCache =
+      new ImageUrlCache(cacheProperties(), s3Properties(), meterRegistry, nanos::get);
+
+  @Test
+  void get_shouldReuseTheSameUrlUntilTheSafetyMargin() {
+    var first = imageUrlCache.get(recipeId, this::sign);
+
+    advance(Duration.ofMinutes(3));
+
+    assertEquals(first, imageUrlCache.get(recipeId, this::sign));
+    assertEquals(1, signatures.get());
+    assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+  }
+
+  @Test
+  void get_shouldSignANewUrlOnceTheReuseWindowHasPassed() {
+    var first = imageUrlCache.get(recipeId, this::sign);
+
+    advance(Duration.ofMinutes(4));
+
+    assertNotEquals(first, imageUrlCache.get(recipeId, this::sign));
+    assertEquals(2, signatures.get());
+  }
+
+  @Test
+  void evict_shouldForceANewSignature() {
+    var first = imageUrlCache.get(recipeId, this::sign);
+
+    imageUrlCache.evict(recipeId);
+
+    assertNotEquals(first, imageUrlCache.get(recipeId, this::sign));
+  }
+
+  private String sign(String key) {
+    return "https://bucket.s3.amazonaws.com/" + key + "?X-Amz-Signature=" + signatures.incrementAndGet();
+  }
+
+  private void advance(Duration duration) {
+    nanos.addAndGet(duration.toNanos());
+  }
+
+  private CacheProperties cacheProperties() {
+    var properties = new CacheProperties();
+    properties.getImageUrls().setMaximumSize(100);
+    properties.getImageUrls().setSafetyMargin(Duration.ofMinutes(1));
+    return properties;
+  }
+
+  private S3Properties s3Properties() {
+    var properties = new S3Properties();
+    properties.setUrlExpiration(5L);
+    return properties;
+  }
+}
@@ -0,0 +1,71 @@
+package recipex.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import recipex.boot.config.properties.CacheProperties;
+import recipex.rest.RestUserRecipe;
+
+class RecipeCacheTest {
+  private final String recipeId = "7F2D50F9-6A41-47F1-937B-C91D3F0FD8F1";
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final RecipeCache recipeCache = new RecipeCache(cacheProperties(), meterRegistry);
+
+  @Test
+  void get_shouldLoadOnceAndServeSubsequentCallsFromCache() {
+    var loads = new AtomicInteger();
+    var recipe = new RestUserRecipe().setRecipeId(recipeId).setTitle("Cached");
+
+    for (int i = 0; i < 3; i++) {
+      StepVerifier.create(recipeCache.get(recipeId, id -> {
+            loads.incrementAndGet();
+            return Mono.just(recipe);
+          }))
+          .expectNext(recipe)
+          .verifyComplete();
+    }
+
+    assertEquals(1, loads.get());
+    assertEquals(2.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+    assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+  }
+
+  @Test
+  void get_shouldReloadAfterEviction() {
+    var loads = new AtomicInteger();
+
+    recipeCache.get(recipeId, id -> Mono.just(new RestUserRecipe().setTitle("v" + loads.incrementAndGet()))).block();
+    recipeCache.evict(recipeId);
+
+    StepVerifier.create(recipeCache.get(recipeId,
+            id -> Mono.just(new RestUserRecipe().setTitle("v" + loads.incrementAndGet()))))
+        .expectNextMatches(recipe -> recipe.getTitle().equals("v2"))
+        .verifyComplete();
+  }
+
+  @Test
+  void get_shouldNotCacheMissingRecipes() {
+    var loads = new AtomicInteger();
+
+    recipeCache.get(recipeId, id -> Mono.<RestUserRecipe>empty().doOnSubscribe(s -> loads.incrementAndGet())).block();
+
+    StepVerifier.create(recipeCache.get(recipeId,
+            id -> Mono.<RestUserRecipe>empty().doOnSubscribe(s -> loads.incrementAndGet())))
+        .verifyComplete();
+
+    assertEquals(2, loads.get());
+  }
+
+  private CacheProperties cacheProperties() {
+    var properties = new CacheProperties();
+    properties.getRecipes().setMaximumSize(100);
+    properties.getRecipes().setExpireAfterWrite(Duration.ofMinutes(1));
+    return properties;
+  }
+}
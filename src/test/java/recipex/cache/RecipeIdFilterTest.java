@@ -0,0 +1,55 @@
+package recipex.cache;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import recipex.boot.config.properties.CacheProperties;
+import recipex.mongo.DbRecipeRepository;
+
+class RecipeIdFilterTest {
+  private final DbRecipeRepository dbRecipeRepository = mock(DbRecipeRepository.class);
+  private final RecipeIdFilter recipeIdFilter =
+      new RecipeIdFilter(new CacheProperties(), dbRecipeRepository, new SimpleMeterRegistry());
+
+  @BeforeEach
+  void stubRecipeIds() {
+    when(dbRecipeRepository.streamRecipeIds()).thenReturn(Flux.just("PANCAKES", "OMELETTE"));
+  }
+
+  @Test
+  void mightExist_shouldLetEveryIdThroughUntilTheFilterIsBuilt() {
+    assertTrue(recipeIdFilter.mightExist("BREAD"));
+
+    StepVerifier.create(recipeIdFilter.rebuild())
+        .expectNext(2L)
+        .verifyComplete();
+
+    assertTrue(recipeIdFilter.mightExist("PANCAKES"));
+    assertFalse(recipeIdFilter.mightExist("BREAD"));
+  }
+
+  @Test
+  void mightExist_shouldLetEveryIdThroughOnceDisabled() {
+    recipeIdFilter.rebuild().block();
+
+    recipeIdFilter.disable();
+
+    assertTrue(recipeIdFilter.mightExist("BREAD"));
+  }
+
+  @Test
+  void rebuild_shouldNotTurnADisabledFilterBackOn() {
+    recipeIdFilter.disable();
+
+    recipeIdFilter.rebuild().block();
+
+    assertTrue(recipeIdFilter.mightExist("BREAD"));
+  }
+}
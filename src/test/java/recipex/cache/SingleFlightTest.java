@@ -0,0 +1,86 @@
+package recipex.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class SingleFlightTest {
+  private final String recipeId = "7F2D50F9-6A41-47F1-937B-C91D3F0FD8F1";
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final SingleFlight<String, String> singleFlight =
+      new SingleFlight<>("recipe", Duration.ofSeconds(1), meterRegistry);
+
+  @Test
+  void execute_shouldShareOneFetchBetweenConcurrentCalls() {
+    var fetches = new AtomicInteger();
+    var sink = Sinks.<String>one();
+
+    var first = singleFlight.execute(recipeId, id -> sink.asMono().doOnSubscribe(s -> fetches.incrementAndGet()));
+    var second = singleFlight.execute(recipeId, id -> Mono.just("unexpected"));
+    var third = singleFlight.execute(recipeId, id -> Mono.just("unexpected"));
+
+    StepVerifier.create(Mono.zip(first, second, third))
+        .then(() -> sink.tryEmitValue("recipe"))
+        .expectNextMatches(results -> results.getT1().equals("recipe")
+            && results.getT2().equals("recipe")
+            && results.getT3().equals("recipe"))
+        .verifyComplete();
+
+    assertEquals(1, fetches.get());
+    assertEquals(0, singleFlight.inFlight());
+    assertEquals(1, summary().count());
+    assertEquals(3.0, summary().totalAmount());
+  }
+
+  @Test
+  void execute_shouldFetchAgainOnceTheSharedFetchCompleted() {
+    var fetches = new AtomicInteger();
+
+    singleFlight.execute(recipeId, id -> Mono.fromSupplier(() -> "v" + fetches.incrementAndGet())).block();
+
+    StepVerifier.create(singleFlight.execute(recipeId, id -> Mono.fromSupplier(() -> "v" + fetches.incrementAndGet())))
+        .expectNext("v2")
+        .verifyComplete();
+  }
+
+  @Test
+  void execute_shouldPropagateTheErrorToEveryWaitingCallAndNotKeepIt() {
+    var sink = Sinks.<String>one();
+
+    var first = singleFlight.execute(recipeId, id -> sink.asMono());
+    var second = singleFlight.execute(recipeId, id -> Mono.just("unexpected"));
+
+    StepVerifier.create(Mono.zipDelayError(first.onErrorResume(error -> Mono.just(error.getMessage())),
+            second.onErrorResume(error -> Mono.just(error.getMessage()))))
+        .then(() -> sink.tryEmitError(new IllegalStateException("boom")))
+        .expectNextMatches(results -> results.getT1().equals("boom") && results.getT2().equals("boom"))
+        .verifyComplete();
+
+    StepVerifier.create(singleFlight.execute(recipeId, id -> Mono.just("recovered")))
+        .expectNext("recovered")
+        .verifyComplete();
+  }
+
+  @Test
+  void execute_shouldStopWaitingAfterTheTimeout() {
+    StepVerifier.withVirtualTime(() -> singleFlight.execute(recipeId, id -> Mono.never()))
+        .thenAwait(Duration.ofSeconds(1))
+        .expectError(TimeoutException.class)
+        .verify();
+
+    assertEquals(0, singleFlight.inFlight());
+  }
+
+  private DistributionSummary summary() {
+    return meterRegistry.get(SingleFlight.METRIC_NAME).tag("lookup", "recipe").summary();
+  }
+}
@@ -12,10 +12,17 @@ import java.util.HashSet;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import recipex.exceptions.EmailAlreadyExistsException;
+import recipex.exceptions.PreconditionFailedException;
+import recipex.exceptions.RecipeNotFoundException;
+import recipex.exceptions.SearchIndexUnavailableException;
+import recipex.exceptions.UserNotFoundException;
 
 @ExtendWith(MockitoExtension.class)
 class GlobalExceptionHandlerTest {
@@ -43,6 +50,28 @@ class GlobalExceptionHandlerTest {
     assertEquals("field", response.getBody().getPath());
   }
 
+  @Test
+  void handleWebExchangeBindException_shouldReturnTheSameBadRequestAsMvc() {
+    var bindingResult = mock(BindingResult.class);
+    var fieldError = mock(FieldError.class);
+
+    when(fieldError.getDefaultMessage()).thenReturn("Validation failed");
+    when(fieldError.getObjectName()).thenReturn("field");
+
+    when(bindingResult.getFieldErrors()).thenReturn(Collections.singletonList(fieldError));
+
+    var ex = mock(WebExchangeBindException.class);
+    when(ex.getBindingResult()).thenReturn(bindingResult);
+
+    var response = exceptionHandler.handleWebExchangeBindException(ex);
+
+    assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    assertNotNull(response.getBody());
+    assertEquals("VALIDATION_ERROR", response.getBody().getError());
+    assertEquals("Validation failed", response.getBody().getMessage());
+    assertEquals("field", response.getBody().getPath());
+  }
+
   @Test
   void handleIllegalArgumentException_shouldReturnBadRequest() {
     var ex = new IllegalArgumentException("Invalid argument");
@@ -73,4 +102,74 @@ class GlobalExceptionHandlerTest {
     assertEquals("Validation error", response.getBody().getMessage());
     assertEquals("Constraint", response.getBody().getPath());
   }
-}
\ No newline at end of file
+
+  @Test
+  void handleRecipeNotFoundException_shouldReturnNotFound() {
+    var ex = new RecipeNotFoundException("recipe-id");
+    var response = exceptionHandler.handleRecipeNotFoundException(ex);
+
+    assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    assertNotNull(response.getBody());
+    assertEquals("RECIPE_NOT_FOUND", response.getBody().getError());
+    assertEquals("Recipe not found with ID: recipe-id", response.getBody().getMessage());
+    assertEquals("Recipe", response.getBody().getPath());
+  }
+
+  @Test
+  void handleUserNotFoundException_shouldReturnNotFound() {
+    var ex = new UserNotFoundException("user-id");
+    var response = exceptionHandler.handleUserNotFoundException(ex);
+
+    assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    assertNotNull(response.getBody());
+    assertEquals("USER_NOT_FOUND", response.getBody().getError());
+    assertEquals("User not found with ID: user-id", response.getBody().getMessage());
+    assertEquals("User", response.getBody().getPath());
+  }
+
+  @Test
+  void handlePreconditionFailedException_shouldReturnPreconditionFailed() {
+    var ex = new PreconditionFailedException("recipe-id");
+    var response = exceptionHandler.handlePreconditionFailedException(ex);
+
+    assertEquals(HttpStatus.PRECONDITION_FAILED, response.getStatusCode());
+    assertNotNull(response.getBody());
+    assertEquals("PRECONDITION_FAILED", response.getBody().getError());
+    assertEquals("Recipe recipe-id was modified by another request", response.getBody().getMessage());
+    assertEquals("Recipe", response.getBody().getPath());
+  }
+
+  @Test
+  void handleOptimisticLockingFailureException_shouldReturnPreconditionFailed() {
+    var ex = new OptimisticLockingFailureException("Version mismatch");
+    var response = exceptionHandler.handleOptimisticLockingFailureException(ex);
+
+    assertEquals(HttpStatus.PRECONDITION_FAILED, response.getStatusCode());
+    assertNotNull(response.getBody());
+    assertEquals("PRECONDITION_FAILED", response.getBody().getError());
+    assertEquals("Recipe", response.getBody().getPath());
+  }
+
+  @Test
+  void handleEmailAlreadyExistsException_shouldReturnConflict() {
+    var ex = new EmailAlreadyExistsException("john.doe@example.com");
+    var response = exceptionHandler.handleEmailAlreadyExistsException(ex);
+
+    assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+    assertNotNull(response.getBody());
+    assertEquals("EMAIL_ALREADY_EXISTS", response.getBody().getError());
+    assertEquals("User with email 'john.doe@example.com' already exists.", response.getBody().getMessage());
+    assertEquals("Username", response.getBody().getPath());
+  }
+
+  @Test
+  void handleSearchIndexUnavailableException_shouldReturnServiceUnavailable() {
+    var ex = new SearchIndexUnavailableException("ingredient");
+    var response = exceptionHandler.handleSearchIndexUnavailableException(ex);
+
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+    assertNotNull(response.getBody());
+    assertEquals("INDEX_UNAVAILABLE", response.getBody().getError());
+    assertEquals("Search", response.getBody().getPath());
+  }
+}
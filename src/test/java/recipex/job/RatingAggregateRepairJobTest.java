@@ -0,0 +1,104 @@
+package recipex.job;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import recipex.DefaultSpringBootTest;
+import recipex.boot.config.properties.JobProperties;
+import recipex.db.DbReview;
+import recipex.db.DbUserRecipe;
+import recipex.domain.Review;
+import recipex.mongo.DbRecipeRepository;
+import recipex.mongo.DbReviewRepository;
+import recipex.service.review.DefaultReviewService;
+
+class RatingAggregateRepairJobTest extends DefaultSpringBootTest {
+  @Autowired
+  ReactiveMongoTemplate reactiveMongoTemplate;
+  @Autowired
+  DbRecipeRepository recipeRepository;
+  @Autowired
+  DbReviewRepository reviewRepository;
+  @Autowired
+  DefaultReviewService reviewService;
+
+  @Test
+  void run_shouldRecomputeAggregatesFromReviewsInBatches() {
+    var jobProperties = new JobProperties();
+    jobProperties.getRatingRepair().setBatchSize(2);
+
+    var reviewed = recipeWithRatings(5, 3, 3);
+    var unreviewed = recipeWithRatings();
+    recipeRepository.saveAll(List.of(reviewed, unreviewed, recipeWithRatings(1))).blockLast();
+
+    var repaired = new RatingAggregateRepairJob(reactiveMongoTemplate, recipeRepository, jobProperties).run().block();
+
+    assertNotNull(repaired);
+    assertEquals(recipeRepository.count().block(), repaired);
+
+    var repairedRecipe = recipeRepository.findById(reviewed.getRecipeId()).block();
+
+    assertNotNull(repairedRecipe);
+    assertEquals(3L, repairedRecipe.getReviewCount());
+    assertEquals(11L, repairedRecipe.getRatingSum());
+    assertEquals(11.0 / 3, repairedRecipe.getAverageRating());
+    assertEquals(2L, repairedRecipe.getRatingHistogram().get("3"));
+    assertEquals(0L, repairedRecipe.getRatingHistogram().get("4"));
+
+    var repairedUnreviewed = recipeRepository.findById(unreviewed.getRecipeId()).block();
+
+    assertNotNull(repairedUnreviewed);
+    assertEquals(0L, repairedUnreviewed.getReviewCount());
+    assertNull(repairedUnreviewed.getAverageRating());
+  }
+
+  @Test
+  void run_shouldCatchUpWithAReviewWhoseCounterUpdateFailed() {
+    var recipe = recipeWithRatings();
+    recipeRepository.save(recipe).block();
+    reviewService.createReview(recipe.getRecipeId(), new Review().setUserId("first reviewer").setRating(4)).block();
+
+    // the second review was upserted, but the recipe's counters were never incremented for it
+    reviewRepository.save(new DbReview()
+        .setReviewId(UUID.randomUUID().toString().toUpperCase())
+        .setRecipeId(recipe.getRecipeId())
+        .setUserId("second reviewer")
+        .setRating(2)).block();
+
+    assertEquals(1L, recipeRepository.findById(recipe.getRecipeId()).block().getReviewCount());
+
+    new RatingAggregateRepairJob(reactiveMongoTemplate, recipeRepository, new JobProperties()).run().block();
+
+    var repairedRecipe = recipeRepository.findById(recipe.getRecipeId()).block();
+
+    assertNotNull(repairedRecipe);
+    assertEquals(2L, repairedRecipe.getReviewCount());
+    assertEquals(6L, repairedRecipe.getRatingSum());
+    assertEquals(3.0, repairedRecipe.getAverageRating());
+    assertEquals(1L, repairedRecipe.getRatingHistogram().get("2"));
+  }
+
+  private DbUserRecipe recipeWithRatings(int... ratings) {
+    var recipeId = UUID.randomUUID().toString().toUpperCase();
+    var reviews = Arrays.stream(ratings)
+        .mapToObj(rating -> new DbReview()
+            .setReviewId(UUID.randomUUID().toString().toUpperCase())
+            .setRecipeId(recipeId)
+            .setUserId(UUID.randomUUID().toString())
+            .setRating(rating))
+        .toList();
+    reviewRepository.saveAll(reviews).blockLast();
+
+    return new DbUserRecipe()
+        .setRecipeId(recipeId)
+        .setTitle("Repair me")
+        .setAverageRating(1.0);
+  }
+}
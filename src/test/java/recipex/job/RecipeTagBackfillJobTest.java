@@ -0,0 +1,80 @@
+package recipex.job;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import recipex.DefaultSpringBootTest;
+import recipex.boot.config.properties.JobProperties;
+import recipex.mongo.DbJobCheckpointRepository;
+import recipex.mongo.DbRecipeRepository;
+
+class RecipeTagBackfillJobTest extends DefaultSpringBootTest {
+  @Autowired
+  ReactiveMongoTemplate reactiveMongoTemplate;
+  @Autowired
+  DbRecipeRepository recipeRepository;
+  @Autowired
+  DbJobCheckpointRepository checkpointRepository;
+
+  private RecipeTagBackfillJob tagBackfillJob;
+
+  @BeforeEach
+  void setUp() {
+    checkpointRepository.deleteById(RecipeTagBackfillJob.JOB_NAME).block();
+
+    var jobProperties = new JobProperties();
+    jobProperties.getTagBackfill().setBatchSize(2);
+    jobProperties.getTagBackfill().setPause(Duration.ZERO);
+    tagBackfillJob = new RecipeTagBackfillJob(reactiveMongoTemplate, checkpointRepository, jobProperties);
+  }
+
+  @Test
+  void run_shouldNormalizeTheTagsOfLegacyRecipes() {
+    var recipeIds = List.of(legacyRecipe(List.of(" Crème BRÛLÉE ", "crème brûlée", "Dessert")),
+        legacyRecipe(List.of("VEGAN", " ")), legacyRecipe(List.of()));
+
+    var backfilled = tagBackfillJob.run().block();
+
+    assertNotNull(backfilled);
+    assertTrue(backfilled >= recipeIds.size());
+    assertEquals(List.of("crème brûlée", "dessert"),
+        recipeRepository.findById(recipeIds.get(0)).block().getNormalizedTags());
+    assertEquals(List.of("vegan"), recipeRepository.findById(recipeIds.get(1)).block().getNormalizedTags());
+    assertEquals(List.of(), recipeRepository.findById(recipeIds.get(2)).block().getNormalizedTags());
+
+    var checkpoint = checkpointRepository.findById(RecipeTagBackfillJob.JOB_NAME).block();
+
+    assertNotNull(checkpoint);
+    assertTrue(checkpoint.isCompleted());
+  }
+
+  @Test
+  void run_shouldBackfillRecipesWrittenAfterACompletedRun() {
+    tagBackfillJob.run().block();
+    var recipeId = legacyRecipe(List.of("Brunch"));
+
+    tagBackfillJob.run().block();
+
+    assertEquals(List.of("brunch"), recipeRepository.findById(recipeId).block().getNormalizedTags());
+  }
+
+  private String legacyRecipe(List<String> tags) {
+    var recipeId = UUID.randomUUID().toString().toUpperCase();
+
+    reactiveMongoTemplate.insert(new Document("_id", recipeId)
+        .append("title", "Tagged Recipe")
+        .append("tags", tags)
+        .append("version", 0L), "recipes").block();
+
+    return recipeId;
+  }
+}
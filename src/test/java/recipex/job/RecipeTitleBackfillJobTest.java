@@ -0,0 +1,97 @@
+package recipex.job;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import recipex.DefaultSpringBootTest;
+import recipex.boot.config.properties.JobProperties;
+import recipex.db.DbJobCheckpoint;
+import recipex.mongo.DbJobCheckpointRepository;
+import recipex.mongo.DbRecipeRepository;
+
+class RecipeTitleBackfillJobTest extends DefaultSpringBootTest {
+  @Autowired
+  ReactiveMongoTemplate reactiveMongoTemplate;
+  @Autowired
+  DbRecipeRepository recipeRepository;
+  @Autowired
+  DbJobCheckpointRepository checkpointRepository;
+
+  private RecipeTitleBackfillJob titleBackfillJob;
+
+  @BeforeEach
+  void setUp() {
+    checkpointRepository.deleteById(RecipeTitleBackfillJob.JOB_NAME).block();
+
+    var jobProperties = new JobProperties();
+    jobProperties.getTitleBackfill().setBatchSize(2);
+    jobProperties.getTitleBackfill().setPause(Duration.ZERO);
+    titleBackfillJob = new RecipeTitleBackfillJob(reactiveMongoTemplate, checkpointRepository, jobProperties);
+  }
+
+  @Test
+  void run_shouldNormalizeTheTitlesOfLegacyRecipes() {
+    var recipeIds = List.of(legacyRecipe("  Crème   BRÛLÉE "), legacyRecipe("Pancakes"), legacyRecipe("Tarte Tatin"));
+
+    var backfilled = titleBackfillJob.run().block();
+
+    assertNotNull(backfilled);
+    assertTrue(backfilled >= recipeIds.size());
+    assertEquals("creme brulee", recipeRepository.findById(recipeIds.get(0)).block().getNormalizedTitle());
+    assertEquals("pancakes", recipeRepository.findById(recipeIds.get(1)).block().getNormalizedTitle());
+    assertEquals("tarte tatin", recipeRepository.findById(recipeIds.get(2)).block().getNormalizedTitle());
+
+    var checkpoint = checkpointRepository.findById(RecipeTitleBackfillJob.JOB_NAME).block();
+
+    assertNotNull(checkpoint);
+    assertTrue(checkpoint.isCompleted());
+  }
+
+  @Test
+  void run_shouldBackfillRecipesWrittenAfterACompletedRun() {
+    titleBackfillJob.run().block();
+    var recipeId = legacyRecipe("Pancakes");
+
+    titleBackfillJob.run().block();
+
+    assertEquals("pancakes", recipeRepository.findById(recipeId).block().getNormalizedTitle());
+  }
+
+  @Test
+  void run_shouldResumeAnInterruptedRunFromItsCheckpoint() {
+    // IDs are processed in order, the checkpoint says the first one was done before the interruption
+    var processed = legacyRecipe("A" + UUID.randomUUID(), "Pancakes");
+    var remaining = legacyRecipe("B" + UUID.randomUUID(), "Waffles");
+    checkpointRepository.save(new DbJobCheckpoint()
+        .setJobName(RecipeTitleBackfillJob.JOB_NAME)
+        .setLastProcessedId(processed)
+        .setProcessed(1L)).block();
+
+    titleBackfillJob.run().block();
+
+    assertEquals("waffles", recipeRepository.findById(remaining).block().getNormalizedTitle());
+    assertNull(recipeRepository.findById(processed).block().getNormalizedTitle());
+  }
+
+  private String legacyRecipe(String title) {
+    return legacyRecipe(UUID.randomUUID().toString().toUpperCase(), title);
+  }
+
+  private String legacyRecipe(String recipeId, String title) {
+    reactiveMongoTemplate.insert(new Document("_id", recipeId)
+        .append("title", title)
+        .append("version", 0L), "recipes").block();
+
+    return recipeId;
+  }
+}
@@ -0,0 +1,111 @@
+package recipex.job;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import recipex.DefaultSpringBootTest;
+import recipex.boot.config.properties.JobProperties;
+import recipex.mongo.DbJobCheckpointRepository;
+import recipex.mongo.DbRecipeRepository;
+import recipex.mongo.DbReviewRepository;
+
+class ReviewMigrationJobTest extends DefaultSpringBootTest {
+  @Autowired
+  ReactiveMongoTemplate reactiveMongoTemplate;
+  @Autowired
+  DbRecipeRepository recipeRepository;
+  @Autowired
+  DbReviewRepository reviewRepository;
+  @Autowired
+  DbJobCheckpointRepository checkpointRepository;
+
+  private ReviewMigrationJob reviewMigrationJob;
+
+  @BeforeEach
+  void setUp() {
+    checkpointRepository.deleteById(ReviewMigrationJob.JOB_NAME).block();
+
+    var jobProperties = new JobProperties();
+    jobProperties.getReviewMigration().setBatchSize(2);
+    reviewMigrationJob = new ReviewMigrationJob(reactiveMongoTemplate, recipeRepository, checkpointRepository,
+        jobProperties);
+  }
+
+  @Test
+  void run_shouldMoveEmbeddedReviewsIntoTheReviewsCollection() {
+    var recipeIds = List.of(legacyRecipe(5, 3), legacyRecipe(4), legacyRecipe(2, 2, 2));
+
+    var migrated = reviewMigrationJob.run().block();
+
+    assertNotNull(migrated);
+    assertTrue(migrated >= recipeIds.size());
+
+    var recipe = recipeRepository.findById(recipeIds.get(2)).block();
+
+    assertNotNull(recipe);
+    assertEquals(3L, recipe.getReviewCount());
+    assertEquals(2.0, recipe.getAverageRating());
+    assertEquals(3L, reviewRepository.findPage(recipeIds.get(2), null, 10).count().block());
+    assertEquals(0L, reactiveMongoTemplate.count(query(where("reviews").exists(true)), "recipes").block());
+
+    var checkpoint = checkpointRepository.findById(ReviewMigrationJob.JOB_NAME).block();
+
+    assertNotNull(checkpoint);
+    assertTrue(checkpoint.isCompleted());
+  }
+
+  @Test
+  void run_shouldSkipReviewsThatWereAlreadyCopied() {
+    var recipeId = legacyRecipe(5, 1);
+
+    // a crash after copying but before the embedded reviews were removed leaves both copies behind
+    reviewMigrationJob.run().block();
+    var copied = reviewRepository.findPage(recipeId, null, 10)
+        .map(review -> new Document("reviewId", review.getReviewId())
+            .append("userId", review.getUserId())
+            .append("rating", review.getRating()))
+        .collectList()
+        .block();
+    reactiveMongoTemplate.updateFirst(query(where("_id").is(recipeId)), new Update().set("reviews", copied), "recipes")
+        .block();
+    checkpointRepository.deleteById(ReviewMigrationJob.JOB_NAME).block();
+
+    reviewMigrationJob.run().block();
+
+    var recipe = recipeRepository.findById(recipeId).block();
+
+    assertNotNull(recipe);
+    assertEquals(2L, reviewRepository.findPage(recipeId, null, 10).count().block());
+    assertEquals(2L, recipe.getReviewCount());
+    assertEquals(6L, recipe.getRatingSum());
+  }
+
+  private String legacyRecipe(int... ratings) {
+    var recipeId = UUID.randomUUID().toString().toUpperCase();
+    var reviews = Arrays.stream(ratings)
+        .mapToObj(rating -> new Document("reviewId", UUID.randomUUID().toString().toUpperCase())
+            .append("recipeId", recipeId)
+            .append("userId", UUID.randomUUID().toString())
+            .append("rating", rating)
+            .append("comment", "Legacy review"))
+        .toList();
+
+    reactiveMongoTemplate.insert(new Document("_id", recipeId)
+        .append("title", "Legacy recipe")
+        .append("reviews", reviews), "recipes").block();
+
+    return recipeId;
+  }
+}
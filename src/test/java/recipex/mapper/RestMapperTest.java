@@ -9,6 +9,7 @@ import java.util.List;
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
 import org.mapstruct.factory.Mappers;
+import recipex.db.DbRecipeSummary;
 import recipex.db.DbUser;
 import recipex.db.DbUserRecipe;
 import recipex.domain.Username;
@@ -55,6 +56,28 @@ class RestMapperTest {
     assertThat(result.getCreatedAt()).isEqualTo(dbUserRecipe1().getCreatedAt());
   }
 
+  @Test
+  void givenDbRecipeSummary_whenMapToRestDto_thenReturnRestRecipeSummary() {
+    // GIVEN
+    var summary = new DbRecipeSummary()
+        .setRecipeId(recipeId)
+        .setUserId(userId)
+        .setTitle(title)
+        .setTags(List.of("curry"))
+        .setCreatedAt(createdAt)
+        .setScore(1.5);
+
+    // WHEN
+    var result = restMapper.toRestDto(summary);
+
+    // THEN
+    assertThat(result.getRecipeId()).isEqualTo(recipeId);
+    assertThat(result.getTitle()).isEqualTo(title);
+    assertThat(result.getTags()).containsExactly("curry");
+    assertThat(result.getCreatedAt()).isEqualTo(createdAt);
+    assertThat(result.getScore()).isEqualTo(1.5);
+  }
+
   @Test
   void givenListOfDbUserRecipe_whenMapToRestDto_thenReturnListOfRestUserRecipe() {
     // GIVEN
@@ -102,7 +125,12 @@ class RestMapperTest {
     return new DbUser()
         .setId(userId)
         .setUsername(getUsername())
-        .setRecipes(dbUserRecipeList());
+        .setRecipes(List.of(new DbRecipeSummary()
+            .setRecipeId(recipeId)
+            .setUserId(userId)
+            .setTitle(title)
+            .setImageUrl(imageUrl)
+            .setCreatedAt(createdAt)));
   }
 
   private Username getUsername() {
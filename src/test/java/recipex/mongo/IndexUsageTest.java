@@ -0,0 +1,77 @@
+package recipex.mongo;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.bson.Document;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import reactor.core.publisher.Mono;
+import recipex.DefaultSpringBootTest;
+import recipex.pagination.KeysetCursor;
+
+class IndexUsageTest extends DefaultSpringBootTest {
+  private static final KeysetCursor CURSOR = new KeysetCursor(LocalDateTime.now(), "7F2D50F9-6A41-47F1-937B-C91D3F0FD8F1");
+
+  @Autowired
+  ReactiveMongoTemplate reactiveMongoTemplate;
+
+  private static Stream<Arguments> repositoryQueries() {
+    return Stream.of(
+        Arguments.of("recipes", query(where("normalizedTitle").is("pancakes"))),
+        Arguments.of("recipes", query(where("normalizedTags").in(List.of("breakfast", "quick")))),
+        Arguments.of("recipes", query(where("userId").is("F9B3B0EC-8FBB-4B91-9FF1-5B45C6B0E05A"))),
+        Arguments.of("recipes", KeysetQueries.newestFirst(where("normalizedTitle").is("pancakes"), CURSOR, 21)),
+        Arguments.of("recipes", KeysetQueries.newestFirst(where("normalizedTags").in(List.of("breakfast", "quick")), CURSOR, 21)),
+        Arguments.of("recipes", KeysetQueries.newestFirst(where("normalizedTags").all(List.of("breakfast", "quick")), CURSOR, 21)),
+        Arguments.of("recipes", KeysetQueries.newestFirst(where("userId").is("F9B3B0EC"), new KeysetCursor(null, "A"), 21)),
+        Arguments.of("recipes", new Query(TextCriteria.forDefaultLanguage().matching("curry"))),
+        Arguments.of("users", query(where("username.email").is("john.doe@example.com"))),
+        Arguments.of("reviews", query(where("recipeId").is("7F2D50F9").and("userId").is("reviewer"))),
+        Arguments.of("reviews", KeysetQueries.newestFirst(where("recipeId").is("7F2D50F9"), CURSOR, 21)));
+  }
+
+  @ParameterizedTest
+  @MethodSource("repositoryQueries")
+  void query_shouldNotFallBackToCollectionScan(String collection, Query query) {
+    var explain = reactiveMongoTemplate.getCollection(collection)
+        .flatMap(mongoCollection -> Mono.from(mongoCollection.find(query.getQueryObject())
+            .sort(query.getSortObject())
+            .limit(query.getLimit())
+            .explain(Document.class)))
+        .block();
+
+    assertNotNull(explain);
+
+    var winningPlan = explain.get("queryPlanner", Document.class).get("winningPlan", Document.class);
+
+    assertFalse(stages(winningPlan).contains("COLLSCAN"),
+        () -> "Query " + query + " on " + collection + " scans the collection: " + winningPlan.toJson());
+  }
+
+  private List<String> stages(Object plan) {
+    var stages = new ArrayList<String>();
+
+    if (plan instanceof Document document) {
+      if (document.containsKey("stage")) {
+        stages.add(document.getString("stage"));
+      }
+      document.values().forEach(value -> stages.addAll(stages(value)));
+    } else if (plan instanceof List<?> list) {
+      list.forEach(value -> stages.addAll(stages(value)));
+    }
+
+    return stages;
+  }
+}
@@ -0,0 +1,118 @@
+package recipex.mongo;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.context.TestPropertySource;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import recipex.DefaultSpringBootTest;
+import recipex.cache.MissingRecipeCache;
+import recipex.cache.RecipeIdFilter;
+import recipex.search.IngredientIndex;
+import recipex.search.IngredientMatch;
+import recipex.service.recipe.DefaultRecipeService;
+
+@TestPropertySource(properties = "recipex.cache.recipe-ids.enabled=true")
+class RecipeChangeStreamListenerTest extends DefaultSpringBootTest {
+  @Autowired
+  ReactiveMongoTemplate reactiveMongoTemplate;
+  @Autowired
+  RecipeIdFilter recipeIdFilter;
+  @Autowired
+  MissingRecipeCache missingRecipeCache;
+  @Autowired
+  DefaultRecipeService recipeService;
+  @Autowired
+  IngredientIndex ingredientIndex;
+
+  @BeforeEach
+  void setUp() {
+    recipeIdFilter.rebuild().block();
+  }
+
+  @Test
+  void getRecipe_shouldFindARecipeInsertedAfterTheFilterWasBuilt() {
+    var recipeId = UUID.randomUUID().toString().toUpperCase();
+
+    StepVerifier.create(recipeService.getRecipe(recipeId))
+        .verifyComplete();
+
+    insertRecipe(recipeId, "Inserted Elsewhere");
+
+    StepVerifier.create(recipeService.getRecipe(recipeId)
+            .repeatWhenEmpty(repeat -> repeat.delayElements(Duration.ofMillis(50)).take(100)))
+        .expectNextMatches(recipe -> recipe.getTitle().equals("Inserted Elsewhere"))
+        .verifyComplete();
+  }
+
+  @Test
+  void getRecipe_shouldFindARecipeInsertedAfterItWasFoundMissing() {
+    var recipeId = UUID.randomUUID().toString().toUpperCase();
+    recipeIdFilter.add(recipeId);
+
+    StepVerifier.create(recipeService.getRecipe(recipeId))
+        .verifyComplete();
+    assertTrue(missingRecipeCache.isMissing(recipeId));
+
+    insertRecipe(recipeId, "Inserted After A Miss");
+
+    StepVerifier.create(recipeService.getRecipe(recipeId)
+            .repeatWhenEmpty(repeat -> repeat.delayElements(Duration.ofMillis(50)).take(100)))
+        .expectNextMatches(recipe -> recipe.getTitle().equals("Inserted After A Miss"))
+        .verifyComplete();
+  }
+
+  @Test
+  void ingredientIndex_shouldFollowIngredientsWrittenByOtherInstances() {
+    ingredientIndex.rebuild().block();
+    // normalisation drops digits, so the unique ingredients are made of letters only
+    var spice = UUID.randomUUID().toString().replaceAll("[^a-f]", "") + "spice";
+    var herb = UUID.randomUUID().toString().replaceAll("[^a-f]", "") + "herb";
+    var recipeId = UUID.randomUUID().toString().toUpperCase();
+
+    insertRecipe(recipeId, "Spiced Elsewhere", List.of(spice));
+
+    StepVerifier.create(matchesOf(spice))
+        .expectNext(List.of(recipeId))
+        .verifyComplete();
+
+    reactiveMongoTemplate.updateFirst(query(where("_id").is(recipeId)),
+        new Update().set("ingredients", List.of(herb)), "recipes").block();
+
+    StepVerifier.create(matchesOf(herb))
+        .expectNext(List.of(recipeId))
+        .verifyComplete();
+    assertTrue(ingredientIndex.match(List.of(spice), 10).isEmpty());
+  }
+
+  private Mono<List<String>> matchesOf(String ingredient) {
+    return Mono.fromCallable(() -> ingredientIndex.match(List.of(ingredient), 10).stream()
+            .map(IngredientMatch::getRecipeId)
+            .toList())
+        .filter(recipeIds -> !recipeIds.isEmpty())
+        .repeatWhenEmpty(repeat -> repeat.delayElements(Duration.ofMillis(50)).take(100));
+  }
+
+  private void insertRecipe(String recipeId, String title) {
+    insertRecipe(recipeId, title, List.of());
+  }
+
+  private void insertRecipe(String recipeId, String title, List<String> ingredients) {
+    reactiveMongoTemplate.insert(new Document("_id", recipeId)
+        .append("userId", UUID.randomUUID().toString().toUpperCase())
+        .append("title", title)
+        .append("ingredients", ingredients)
+        .append("version", 0L), "recipes").block();
+  }
+}
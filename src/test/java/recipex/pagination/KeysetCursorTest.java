@@ -0,0 +1,48 @@
+package recipex.pagination;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class KeysetCursorTest {
+
+  @Test
+  void decode_shouldRestoreEncodedCursor() {
+    var cursor = new KeysetCursor(LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123_000_000), "A1B2");
+
+    assertEquals(cursor, KeysetCursor.decode(cursor.encode()));
+  }
+
+  @Test
+  void decode_shouldRestoreCursorWithoutCreatedAt() {
+    var cursor = new KeysetCursor(null, "A1B2");
+
+    assertEquals(cursor, KeysetCursor.decode(cursor.encode()));
+  }
+
+  @Test
+  void decode_shouldReturnNullWithoutToken() {
+    assertNull(KeysetCursor.decode(null));
+    assertNull(KeysetCursor.decode(" "));
+  }
+
+  @Test
+  void decode_shouldRejectMalformedTokens() {
+    assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("not a cursor"));
+    assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("bm8tc2VwYXJhdG9y"));
+  }
+
+  @Test
+  void of_shouldOnlyExposeNextCursorWhenMoreElementsWereFetched() {
+    var lastPage = KeysetPage.of(List.of("a", "b"), 2, id -> new KeysetCursor(null, id));
+    var fullPage = KeysetPage.of(List.of("a", "b", "c"), 2, id -> new KeysetCursor(null, id));
+
+    assertNull(lastPage.getNextCursor());
+    assertEquals(List.of("a", "b"), fullPage.getItems());
+    assertEquals(new KeysetCursor(null, "b"), KeysetCursor.decode(fullPage.getNextCursor()));
+  }
+}
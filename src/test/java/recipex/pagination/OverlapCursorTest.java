@@ -0,0 +1,44 @@
+package recipex.pagination;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.Test;
+
+class OverlapCursorTest {
+
+  @Test
+  void decode_shouldRestoreEncodedCursor() {
+    var cursor = new OverlapCursor(3, LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123_000_000), "A1B2");
+
+    assertEquals(cursor, OverlapCursor.decode(cursor.encode()));
+  }
+
+  @Test
+  void decode_shouldRestoreCursorWithoutCreatedAt() {
+    var cursor = new OverlapCursor(1, null, "A1B2");
+
+    assertEquals(cursor, OverlapCursor.decode(cursor.encode()));
+  }
+
+  @Test
+  void decode_shouldReturnNullWithoutToken() {
+    assertNull(OverlapCursor.decode(null));
+    assertNull(OverlapCursor.decode(" "));
+  }
+
+  @Test
+  void decode_shouldRejectMalformedTokens() {
+    assertThrows(IllegalArgumentException.class, () -> OverlapCursor.decode("not a cursor"));
+    assertThrows(IllegalArgumentException.class, () -> OverlapCursor.decode("bm8tc2VwYXJhdG9y"));
+  }
+
+  @Test
+  void decode_shouldRejectACursorOfANewestFirstPage() {
+    var token = new KeysetCursor(LocalDateTime.of(2024, 3, 1, 12, 30), "A1B2").encode();
+
+    assertThrows(IllegalArgumentException.class, () -> OverlapCursor.decode(token));
+  }
+}
@@ -0,0 +1,39 @@
+package recipex.pagination;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ScoreCursorTest {
+
+  @Test
+  void decode_shouldRestoreTheExactScore() {
+    var cursor = new ScoreCursor(1.1666666666666667, "A1B2");
+
+    assertEquals(cursor, ScoreCursor.decode(cursor.encode()));
+  }
+
+  @Test
+  void decode_shouldReturnNullWithoutToken() {
+    assertNull(ScoreCursor.decode(null));
+    assertNull(ScoreCursor.decode(" "));
+  }
+
+  @Test
+  void decode_shouldRejectMalformedTokens() {
+    assertThrows(IllegalArgumentException.class, () -> ScoreCursor.decode("not a cursor"));
+    assertThrows(IllegalArgumentException.class, () -> ScoreCursor.decode("bm8tc2VwYXJhdG9y"));
+    assertThrows(IllegalArgumentException.class,
+        () -> ScoreCursor.decode(new KeysetCursor(null, "A1B2").encode()));
+  }
+
+  @Test
+  void of_shouldExposeTheScoreOfTheLastItemAsNextCursor() {
+    var page = KeysetPage.of(List.of(3.0, 2.0, 1.0), 2, score -> new ScoreCursor(score, "id-" + score));
+
+    assertEquals(new ScoreCursor(2.0, "id-2.0"), ScoreCursor.decode(page.getNextCursor()));
+  }
+}
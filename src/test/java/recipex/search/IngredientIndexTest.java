@@ -0,0 +1,134 @@
+package recipex.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import recipex.boot.config.properties.SearchProperties;
+import recipex.db.DbUserRecipe;
+import recipex.exceptions.SearchIndexUnavailableException;
+import recipex.mongo.DbRecipeRepository;
+
+class IngredientIndexTest {
+  private final DbRecipeRepository dbRecipeRepository = mock(DbRecipeRepository.class);
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final IngredientIndex ingredientIndex =
+      new IngredientIndex(new SearchProperties(), dbRecipeRepository, meterRegistry);
+
+  @BeforeEach
+  void buildIndex() {
+    when(dbRecipeRepository.streamIngredients()).thenReturn(Flux.just(
+        recipe("pancakes", "1 cup flour", "2 eggs", "1/2 cup milk"),
+        recipe("omelette", "3 eggs", "1 pinch salt"),
+        recipe("bread", "500 g flour", "water", "salt", "7 g yeast")));
+
+    StepVerifier.create(ingredientIndex.rebuild())
+        .expectNext(3L)
+        .verifyComplete();
+  }
+
+  @Test
+  void match_shouldRankByCoveredThenByFewestMissing() {
+    var matches = ingredientIndex.match(List.of("Eggs", "salt", "flour"), 10);
+
+    assertEquals(List.of("omelette", "pancakes", "bread"), matches.stream().map(IngredientMatch::getRecipeId).toList());
+    assertEquals(0, matches.get(0).getMissing());
+    assertEquals(1, matches.get(1).getMissing());
+    assertEquals(2, matches.get(2).getMissing());
+  }
+
+  @Test
+  void match_shouldStopAtTheLimit() {
+    var matches = ingredientIndex.match(List.of("flour", "milk", "eggs"), 1);
+
+    assertEquals(1, matches.size());
+    assertEquals(new IngredientMatch("pancakes", 3, 3), matches.get(0));
+  }
+
+  @Test
+  void match_shouldIgnoreUnknownIngredients() {
+    assertTrue(ingredientIndex.match(List.of("saffron"), 10).isEmpty());
+  }
+
+  @Test
+  void index_shouldReplaceTheIngredientsOfAnUpdatedRecipe() {
+    ingredientIndex.index("omelette", List.of("4 eggs", "cheese"));
+
+    assertEquals(List.of(new IngredientMatch("omelette", 1, 2)), ingredientIndex.match(List.of("cheese"), 10));
+    assertTrue(ingredientIndex.match(List.of("yeast", "water"), 10).stream()
+        .noneMatch(match -> match.getRecipeId().equals("omelette")));
+    assertEquals(3.0, meterRegistry.get(IngredientIndex.RECIPES_METRIC).gauge().value());
+  }
+
+  @Test
+  void remove_shouldDropTheRecipeFromEveryPostingList() {
+    ingredientIndex.remove("bread");
+
+    assertEquals(List.of("pancakes"), ingredientIndex.match(List.of("flour"), 10).stream()
+        .map(IngredientMatch::getRecipeId)
+        .toList());
+    assertEquals(2.0, meterRegistry.get(IngredientIndex.RECIPES_METRIC).gauge().value());
+  }
+
+  @Test
+  void rebuild_shouldKeepWritesMadeWhileTheBuildRuns() {
+    when(dbRecipeRepository.streamIngredients()).thenReturn(Flux.defer(() -> {
+      // a live update lands before its stale copy is streamed
+      ingredientIndex.index("soup", List.of("leeks", "potatoes"));
+      return Flux.just(recipe("soup", "water"));
+    }));
+
+    ingredientIndex.rebuild().block();
+
+    assertEquals(List.of(new IngredientMatch("soup", 2, 2)), ingredientIndex.match(List.of("leek", "potato"), 10));
+  }
+
+  @Test
+  void refresh_shouldRemoveARecipeThatNoLongerExists() {
+    when(dbRecipeRepository.findById("bread")).thenReturn(Mono.empty());
+
+    ingredientIndex.refresh("bread").block();
+
+    assertTrue(ingredientIndex.match(List.of("yeast"), 10).isEmpty());
+  }
+
+  @Test
+  void match_shouldRejectTooManyIngredients() {
+    var ingredients = IntStream.range(0, 31).mapToObj(i -> "ingredient " + i).toList();
+
+    assertThrows(IllegalArgumentException.class, () -> ingredientIndex.match(ingredients, 10));
+  }
+
+  @Test
+  void match_shouldBeUnavailableUntilTheFirstBuild() {
+    var unbuilt = new IngredientIndex(new SearchProperties(), dbRecipeRepository, new SimpleMeterRegistry());
+
+    assertThrows(SearchIndexUnavailableException.class, () -> unbuilt.match(List.of("salt"), 10));
+  }
+
+  @Test
+  void normalize_shouldDropQuantitiesUnitsAndPreparation() {
+    assertEquals("onion", IngredientNormalizer.normalize("2 cups of finely chopped Onions (red), to taste"));
+    assertEquals("tomato", IngredientNormalizer.normalize("1 can tomatoes"));
+    assertEquals("soy sauce", IngredientNormalizer.normalize("2 tablespoons soy sauce"));
+    assertEquals("berry", IngredientNormalizer.normalize("½ cup berries"));
+    assertNull(IngredientNormalizer.normalize("2 tbsp"));
+  }
+
+  private DbUserRecipe recipe(String recipeId, String... ingredients) {
+    return new DbUserRecipe()
+        .setRecipeId(recipeId)
+        .setIngredients(List.of(ingredients));
+  }
+}
@@ -0,0 +1,185 @@
+package recipex.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import recipex.boot.config.properties.SearchProperties;
+import recipex.db.DbUserRecipe;
+import recipex.domain.SuggestionField;
+import recipex.exceptions.SearchIndexUnavailableException;
+import recipex.mongo.DbRecipeRepository;
+
+class SuggestionIndexTest {
+  private final DbRecipeRepository dbRecipeRepository = mock(DbRecipeRepository.class);
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final SuggestionIndex suggestionIndex =
+      new SuggestionIndex(new SearchProperties(), dbRecipeRepository, meterRegistry);
+
+  @BeforeEach
+  void buildIndex() {
+    when(dbRecipeRepository.streamTitlesAndTags()).thenReturn(Flux.just(
+        recipe("Chicken Curry", "dinner", "spicy"),
+        recipe("chicken  curry", "dinner"),
+        recipe("Chicken Soup", "soup", "dinner"),
+        recipe("Chickpea Salad", "salad", "vegan"),
+        recipe("Cheesecake", "dessert"),
+        recipe("Crème Brûlée", "dessert")));
+
+    StepVerifier.create(suggestionIndex.rebuild())
+        .expectNext(6L)
+        .verifyComplete();
+  }
+
+  @Test
+  void suggest_shouldRankTitlesByRecipesIgnoringCaseAndWhitespace() {
+    assertEquals(List.of(
+            new Suggestion("Chicken Curry", 2),
+            new Suggestion("Chicken Soup", 1),
+            new Suggestion("Chickpea Salad", 1)),
+        suggestionIndex.suggest(SuggestionField.TITLE, "  CHIC", 10));
+    assertEquals(List.of(new Suggestion("Chicken Soup", 1)),
+        suggestionIndex.suggest(SuggestionField.TITLE, "chicken   s", 10));
+    assertTrue(suggestionIndex.suggest(SuggestionField.TITLE, "chickens", 10).isEmpty());
+  }
+
+  @Test
+  void suggest_shouldCompleteTags() {
+    assertEquals(List.of(new Suggestion("dinner", 3), new Suggestion("dessert", 2)),
+        suggestionIndex.suggest(SuggestionField.TAG, "D", 10));
+    assertEquals(List.of(new Suggestion("Crème Brûlée", 1)),
+        suggestionIndex.suggest(SuggestionField.TITLE, "creme b", 10));
+  }
+
+  @Test
+  void suggest_shouldStopAtTheLimit() {
+    assertEquals(List.of(new Suggestion("dinner", 3)), suggestionIndex.suggest(SuggestionField.TAG, "", 1));
+  }
+
+  @Test
+  void add_shouldCountCreatedRecipesBeforeTheNextBuild() {
+    suggestionIndex.add(recipe("Chicken Soup", "Soup"));
+    suggestionIndex.add(recipe("Chicken Soup", "soup"));
+    suggestionIndex.add(recipe("Chicken Pie"));
+
+    assertEquals(List.of(new Suggestion("Chicken Soup", 3), new Suggestion("Chicken Curry", 2)),
+        suggestionIndex.suggest(SuggestionField.TITLE, "chicken", 2));
+    assertEquals(List.of(new Suggestion("Chicken Pie", 1)),
+        suggestionIndex.suggest(SuggestionField.TITLE, "chicken p", 10));
+    assertEquals(List.of(new Suggestion("soup", 3)), suggestionIndex.suggest(SuggestionField.TAG, "so", 10));
+  }
+
+  @Test
+  void remove_shouldDropTermsNoRecipeUsesAnymore() {
+    suggestionIndex.remove(recipe("Chicken Soup", "soup", "dinner"));
+
+    assertEquals(List.of(new Suggestion("Chicken Curry", 2), new Suggestion("Chickpea Salad", 1)),
+        suggestionIndex.suggest(SuggestionField.TITLE, "chic", 10));
+    assertTrue(suggestionIndex.suggest(SuggestionField.TAG, "so", 10).isEmpty());
+    assertEquals(List.of(new Suggestion("dinner", 2)), suggestionIndex.suggest(SuggestionField.TAG, "di", 10));
+  }
+
+  @Test
+  void rebuild_shouldSwapInTheCurrentRecipes() {
+    suggestionIndex.add(recipe("Chicken Pie"));
+    when(dbRecipeRepository.streamTitlesAndTags()).thenReturn(Flux.just(recipe("Cheese Toast", "snack")));
+
+    suggestionIndex.rebuild().block();
+
+    assertEquals(List.of(new Suggestion("Cheese Toast", 1)), suggestionIndex.suggest(SuggestionField.TITLE, "c", 10));
+  }
+
+  @Test
+  void rebuild_shouldNotCountARecipeCreatedDuringTheBuildTwice() {
+    var streamed = Sinks.many().unicast().<DbUserRecipe>onBackpressureBuffer();
+    when(dbRecipeRepository.streamTitlesAndTags()).thenReturn(streamed.asFlux());
+    var rebuilt = suggestionIndex.rebuild().toFuture();
+
+    // the build reads the created recipe from the database as well
+    suggestionIndex.add(recipe("Chicken Pie"));
+    streamed.tryEmitNext(recipe("Chicken Pie"));
+    streamed.tryEmitComplete();
+    rebuilt.join();
+
+    assertEquals(List.of(new Suggestion("Chicken Pie", 1)), suggestionIndex.suggest(SuggestionField.TITLE, "c", 10));
+  }
+
+  @Test
+  void changed_shouldOnlyRebuildForWritesNotAppliedHere() {
+    suggestionIndex.add(recipe("Chicken Pie").setRecipeId("applied"));
+
+    suggestionIndex.changed("applied");
+    assertFalse(suggestionIndex.needsRebuild());
+
+    suggestionIndex.changed("written-elsewhere");
+    assertTrue(suggestionIndex.needsRebuild());
+
+    suggestionIndex.rebuild().block();
+    assertFalse(suggestionIndex.needsRebuild());
+  }
+
+  @Test
+  void suggest_shouldBeUnavailableUntilTheFirstBuild() {
+    var unbuilt = new SuggestionIndex(new SearchProperties(), dbRecipeRepository, new SimpleMeterRegistry());
+
+    assertThrows(SearchIndexUnavailableException.class, () -> unbuilt.suggest(SuggestionField.TAG, "d", 10));
+  }
+
+  @Test
+  void suggest_shouldPublishTermsMemoryAndLookupTime() {
+    suggestionIndex.suggest(SuggestionField.TAG, "d", 10);
+
+    assertEquals(5.0, meterRegistry.get(SuggestionIndex.TERMS_METRIC).tag("field", "title").gauge().value());
+    assertEquals(6.0, meterRegistry.get(SuggestionIndex.TERMS_METRIC).tag("field", "tag").gauge().value());
+    assertTrue(meterRegistry.get(SuggestionIndex.BYTES_METRIC).gauge().value() > 0);
+    assertEquals(1, meterRegistry.get(SuggestionIndex.LOOKUP_METRIC).tag("field", "tag").timer().count());
+  }
+
+  @Test
+  void top_shouldMatchABruteForceRankingForEveryPrefix() {
+    var random = new Random(42);
+    var terms = new TreeMap<String, Suggestion>();
+    for (int i = 0; i < 2_000; i++) {
+      var word = random.ints(2 + random.nextInt(8), 'a', 'e')
+          .mapToObj(letter -> String.valueOf((char) letter))
+          .collect(Collectors.joining());
+      terms.put(word, new Suggestion(word, 1 + random.nextInt(50)));
+    }
+    var trie = FrozenTrie.build(terms, 5);
+
+    for (var word : terms.keySet()) {
+      for (int length = 0; length <= word.length(); length++) {
+        var prefix = word.substring(0, length);
+        var expected = terms.values().stream()
+            .filter(term -> term.getText().startsWith(prefix))
+            .sorted(Comparator.comparingLong(Suggestion::getCount).reversed().thenComparing(Suggestion::getText))
+            .limit(5)
+            .toList();
+
+        assertEquals(expected, trie.top(prefix), prefix);
+      }
+      assertEquals(terms.get(word).getCount(), trie.count(word));
+    }
+    assertEquals(0, trie.count("e"));
+  }
+
+  private DbUserRecipe recipe(String title, String... tags) {
+    return new DbUserRecipe()
+        .setTitle(title)
+        .setTags(List.of(tags));
+  }
+}
@@ -1,19 +1,222 @@
 package recipex.service.external;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
+import recipex.boot.config.properties.CacheProperties;
+import recipex.boot.config.properties.S3Properties;
+import recipex.cache.ImageUrlCache;
+import recipex.cache.RecipeCache;
+import recipex.exceptions.RecipeNotFoundException;
+import recipex.mongo.DbRecipeRepository;
+import recipex.service.recipe.DefaultRecipeService;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Utilities;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.DeletedObject;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
 
 @ExtendWith(MockitoExtension.class)
 class S3ExternalServiceTest {
   @Mock
   S3ExternalService s3ExternalService;
+  @Mock
+  S3AsyncClient s3AsyncClient;
+  @Mock
+  DbRecipeRepository dbRecipeRepository;
+  @Mock
+  DefaultRecipeService recipeService;
+
+  private S3Presigner s3Presigner;
+  private S3ExternalService imageService;
+
+  @BeforeEach
+  void setUp() {
+    var s3Properties = new S3Properties();
+    s3Properties.setRegion("eu-west-1");
+    s3Properties.setBucket("recipex-images");
+    s3Properties.setFolder("images/");
+    s3Properties.setUrlExpiration(5L);
+
+    // presigning is a local computation, so fake credentials never reach AWS
+    s3Presigner = spy(S3Presigner.builder()
+        .region(Region.EU_WEST_1)
+        .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("access", "secret")))
+        .build());
+
+    var meterRegistry = new SimpleMeterRegistry();
+    var cacheProperties = new CacheProperties();
+
+    imageService = new S3ExternalService(s3Presigner, s3AsyncClient, s3Properties, dbRecipeRepository,
+        recipeService, new RecipeCache(cacheProperties, meterRegistry),
+        new ImageUrlCache(cacheProperties, s3Properties, meterRegistry));
+  }
+
+  @Test
+  void getImage_shouldPresignWithoutWritingTheRecipe() {
+    var recipeId = UUID.randomUUID().toString().toUpperCase();
+
+    when(recipeService.recipeExists(recipeId)).thenReturn(Mono.just(true));
+
+    StepVerifier.create(imageService.getImage(recipeId))
+        .assertNext(url -> assertTrue(url.contains("recipex-images") && url.contains("images/" + recipeId)))
+        .verifyComplete();
+
+    verifyNoInteractions(dbRecipeRepository);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  void getImage_shouldReturnTheSameUrlForRepeatedViews() {
+    var recipeId = UUID.randomUUID().toString().toUpperCase();
+
+    when(recipeService.recipeExists(recipeId)).thenReturn(Mono.just(true));
+
+    var first = imageService.getImage(recipeId).block();
+    var second = imageService.getImage(recipeId).block();
+
+    assertEquals(first, second);
+    verify(s3Presigner, times(1)).presignGetObject(any(Consumer.class));
+    verify(s3Presigner, times(1)).presignGetObject(any(GetObjectPresignRequest.class));
+  }
+
+  @Test
+  void getImage_shouldFailWhenRecipeDoesNotExist() {
+    var recipeId = UUID.randomUUID().toString().toUpperCase();
+
+    when(recipeService.recipeExists(recipeId)).thenReturn(Mono.just(false));
+
+    StepVerifier.create(imageService.getImage(recipeId))
+        .expectError(RecipeNotFoundException.class)
+        .verify();
+  }
+
+  @Test
+  void getImage_shouldLookUpTheRecipeIdInUpperCase() {
+    var recipeId = UUID.randomUUID().toString();
+
+    when(recipeService.recipeExists(recipeId.toUpperCase())).thenReturn(Mono.just(true));
+
+    StepVerifier.create(imageService.getImage(recipeId))
+        .assertNext(url -> assertTrue(url.contains("images/" + recipeId.toUpperCase())))
+        .verifyComplete();
+  }
+
+  @Test
+  void uploadImage_shouldFailWhenRecipeDoesNotExist() {
+    var recipeId = UUID.randomUUID().toString().toUpperCase();
+
+    when(recipeService.recipeExists(recipeId)).thenReturn(Mono.just(false));
+
+    StepVerifier.create(imageService.uploadImage(recipeId))
+        .expectError(RecipeNotFoundException.class)
+        .verify();
+  }
+
+  @Test
+  void uploadImage_shouldPresignWithoutWritingTheRecipe() {
+    var recipeId = UUID.randomUUID().toString().toUpperCase();
+
+    when(recipeService.recipeExists(recipeId)).thenReturn(Mono.just(true));
+
+    StepVerifier.create(imageService.uploadImage(recipeId))
+        .assertNext(url -> assertTrue(url.contains("images/" + recipeId)))
+        .verifyComplete();
+
+    verifyNoInteractions(dbRecipeRepository);
+  }
+
+  @Test
+  void completeImageUpload_shouldSaveImageUrlOnceTheObjectExists() {
+    var recipeId = UUID.randomUUID().toString().toUpperCase();
+
+    when(s3AsyncClient.utilities()).thenReturn(S3Utilities.builder().region(Region.EU_WEST_1).build());
+    when(s3AsyncClient.headObject(any(HeadObjectRequest.class)))
+        .thenReturn(CompletableFuture.completedFuture(HeadObjectResponse.builder().build()));
+    when(dbRecipeRepository.updateImageUrl(eq(recipeId), anyString())).thenReturn(Mono.just(true));
+
+    StepVerifier.create(imageService.completeImageUpload(recipeId))
+        .assertNext(url -> assertTrue(url.endsWith("images/" + recipeId)))
+        .verifyComplete();
+  }
+
+  @Test
+  void completeImageUpload_shouldNotSaveAnythingWhenNoImageWasUploaded() {
+    var recipeId = UUID.randomUUID().toString().toUpperCase();
+
+    when(s3AsyncClient.utilities()).thenReturn(S3Utilities.builder().region(Region.EU_WEST_1).build());
+    when(s3AsyncClient.headObject(any(HeadObjectRequest.class)))
+        .thenReturn(CompletableFuture.failedFuture(NoSuchKeyException.builder().statusCode(404).build()));
+
+    StepVerifier.create(imageService.completeImageUpload(recipeId))
+        .expectError(IllegalArgumentException.class)
+        .verify();
+
+    verify(dbRecipeRepository, never()).updateImageUrl(anyString(), anyString());
+  }
+
+  @Test
+  void deleteImages_shouldDeleteInBatchesOfAtMostOneThousandKeys() {
+    var recipeIds = IntStream.range(0, 1500)
+        .mapToObj(i -> UUID.randomUUID().toString())
+        .toList();
+
+    when(s3AsyncClient.deleteObjects(any(DeleteObjectsRequest.class)))
+        .thenAnswer(invocation -> {
+          DeleteObjectsRequest request = invocation.getArgument(0);
+          var deleted = request.delete().objects().stream()
+              .map(object -> DeletedObject.builder().key(object.key()).build())
+              .toList();
+          return CompletableFuture.completedFuture(DeleteObjectsResponse.builder().deleted(deleted).build());
+        });
+
+    StepVerifier.create(imageService.deleteImages(recipeIds))
+        .expectNext(1500)
+        .verifyComplete();
+
+    verify(s3AsyncClient, times(2)).deleteObjects(any(DeleteObjectsRequest.class));
+  }
+
+  @Test
+  void deleteImages_shouldNotFailWhenStorageIsUnavailable() {
+    when(s3AsyncClient.deleteObjects(any(DeleteObjectsRequest.class)))
+        .thenReturn(CompletableFuture.failedFuture(S3Exception.builder().statusCode(503).build()));
+
+    StepVerifier.create(imageService.deleteImages(List.of(UUID.randomUUID().toString())))
+        .expectNext(0)
+        .verifyComplete();
+  }
 
   @Test
   void testUploadImage_Success() {
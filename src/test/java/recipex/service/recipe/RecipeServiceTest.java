@@ -1,19 +1,45 @@
 package recipex.service.recipe;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.IntStream;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mapstruct.factory.Mappers;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
 import reactor.test.StepVerifier;
 import recipex.DefaultSpringBootTest;
+import recipex.cache.MissingRecipeCache;
+import recipex.db.DbUserRecipe;
+import recipex.domain.ImportStatus;
+import recipex.domain.RecipePatch;
+import recipex.domain.Review;
 import recipex.domain.UserRecipe;
+import recipex.exceptions.PreconditionFailedException;
+import recipex.exceptions.RecipeNotFoundException;
 import recipex.mapper.DbMapper;
 import recipex.mapper.RestMapper;
 import recipex.mongo.DbRecipeRepository;
+import recipex.mongo.DbReviewRepository;
+import recipex.pagination.KeysetPage;
+import recipex.rest.RestIngredientMatch;
+import recipex.rest.RestRecipeSummary;
+import recipex.rest.RestSuggestion;
 import recipex.rest.RestUserRecipe;
+import recipex.search.IngredientIndex;
+import recipex.search.SuggestionIndex;
 
 class RecipeServiceTest extends DefaultSpringBootTest {
   private final UUID userId = UUID.fromString("F9B3B0EC-8FBB-4B91-9FF1-5B45C6B0E05A");
@@ -23,29 +49,48 @@ class RecipeServiceTest extends DefaultSpringBootTest {
   RecipeService recipeService;
   @Autowired
   DbRecipeRepository dbRecipeRepository;
+  @Autowired
+  DbReviewRepository dbReviewRepository;
+  @Autowired
+  ReactiveMongoTemplate reactiveMongoTemplate;
+  @Autowired
+  MissingRecipeCache missingRecipeCache;
+  @Autowired
+  IngredientIndex ingredientIndex;
+  @Autowired
+  SuggestionIndex suggestionIndex;
   RestMapper restMapper = Mappers.getMapper(RestMapper.class);
   DbMapper dbMapper = Mappers.getMapper(DbMapper.class);
 
+  // recipes are versioned, so saving an unversioned copy of a leftover recipe would be a duplicate insert,
+  // and a recipe saved behind the service must not be hidden by an earlier miss
+  @BeforeEach
+  void setUp() {
+    var fixedRecipeIds = List.of(String.valueOf(userId).toUpperCase(), String.valueOf(recipeId).toUpperCase());
+    dbRecipeRepository.deleteAllById(fixedRecipeIds).block();
+    fixedRecipeIds.forEach(missingRecipeCache::evict);
+  }
+
   @Test
   void createRecipes_shouldSaveRecipesSuccessfully() {
     var userRecipe = userRecipe();
     var recipes = Collections.singletonList(userRecipe);
 
-    var result = recipeService.createRecipes(userId, recipes);
+    // recipes are inserted, so the result is subscribed to only once
+    var result = recipeService.createRecipes(userId, recipes).collectList().block();
     var expectedRecipeId = userRecipe.getRecipeId();
     var expectedUserId = userRecipe.getUserId();
     var dbUserRecipe = dbMapper.toDbDto(userRecipe);
 
-    var staticCreatedAt = Objects.requireNonNull(result.blockFirst()).getCreatedAt();
+    var staticCreatedAt = Objects.requireNonNull(result).get(0).getCreatedAt();
 
     dbUserRecipe
         .setRecipeId(expectedRecipeId.toString().toUpperCase())
         .setUserId(expectedUserId.toString().toUpperCase())
-        .setCreatedAt(staticCreatedAt);
+        .setCreatedAt(staticCreatedAt)
+        .setVersion(0L);
 
-    StepVerifier.create(result)
-        .expectNext(dbUserRecipe)
-        .verifyComplete();
+    assertEquals(List.of(dbUserRecipe), result);
   }
 
   @Test
@@ -68,6 +113,26 @@ class RecipeServiceTest extends DefaultSpringBootTest {
         .verifyComplete();
   }
 
+  @Test
+  void getRecipe_shouldRememberAMissingRecipeUntilItIsCreated() {
+    var missingRecipeId = UUID.randomUUID().toString().toUpperCase();
+
+    StepVerifier.create(recipeService.getRecipe(missingRecipeId))
+        .verifyComplete();
+
+    // written behind the service's back, so only a query would find it
+    dbRecipeRepository.save(dbMapper.toDbDto(restUserRecipe()).setRecipeId(missingRecipeId)).block();
+
+    StepVerifier.create(recipeService.getRecipe(missingRecipeId))
+        .verifyComplete();
+
+    var createdRecipe = recipeService.createRecipes(userId, List.of(userRecipe())).blockLast();
+
+    StepVerifier.create(recipeService.getRecipe(Objects.requireNonNull(createdRecipe).getRecipeId()))
+        .expectNextMatches(recipe -> recipe.getRecipeId().equals(createdRecipe.getRecipeId()))
+        .verifyComplete();
+  }
+
   @Test
   void getRecipeByName_shouldReturnRecipesSuccessfully() {
     var dbUserRecipe = dbMapper.toDbDto(testRecipe());
@@ -78,13 +143,26 @@ class RecipeServiceTest extends DefaultSpringBootTest {
         .expectNext(dbUserRecipe)
         .verifyComplete();
 
-    var result = recipeService.getRecipeByName(testRecipe().getTitle());
+    var result = recipeService.getRecipeByName(testRecipe().getTitle(), null, null);
 
-    var expectedRecipe = restMapper.toRestDto(dbUserRecipe);
+    StepVerifier.create(result.map(KeysetPage::getItems))
+        .expectNext(List.of(summaryOf(dbUserRecipe)))
+        .verifyComplete();
+  }
 
-    StepVerifier.create(result)
-        .expectNext(expectedRecipe)
+  @Test
+  void getRecipeByName_shouldIgnoreCaseAccentsAndWhitespace() {
+    var suffix = UUID.randomUUID().toString();
+    var created = recipeService.createRecipes(userId, List.of(userRecipe().setTitle("Crème  Brûlée " + suffix)))
+        .blockLast();
+
+    StepVerifier.create(recipeService.getRecipeByName("  CREME brulee   " + suffix.toUpperCase(), null, null))
+        .expectNextMatches(page -> page.getItems().size() == 1
+            && page.getItems().get(0).getRecipeId().equals(Objects.requireNonNull(created).getRecipeId()))
         .verifyComplete();
+    StepVerifier.create(recipeService.getRecipeByName(" ", null, null))
+        .expectError(IllegalArgumentException.class)
+        .verify();
   }
 
   @Test
@@ -93,22 +171,212 @@ class RecipeServiceTest extends DefaultSpringBootTest {
 
     dbRecipeRepository.save(dbUserRecipe).block();
 
-    var result = recipeService.getRecipeByTags(List.of("tag3"));
+    var result = recipeService.getRecipeByTags(List.of("tag3"), null, null, null, null);
 
-    StepVerifier.create(result)
-        .expectNext(restMapper.toRestDto(dbUserRecipe))
+    StepVerifier.create(result.map(KeysetPage::getItems))
+        .expectNext(List.of(summaryOf(dbUserRecipe)))
         .verifyComplete();
   }
 
   @Test
   void getRecipeByTags_shouldReturnEmptyWhenNoRecipesMatch() {
-    var result = recipeService.getRecipeByTags(List.of("non-existent-tag"));
+    var result = recipeService.getRecipeByTags(List.of("non-existent-tag"), null, null, null, null);
 
     StepVerifier.create(result)
-        .expectNextCount(0)
+        .expectNextMatches(page -> page.getItems().isEmpty() && page.getNextCursor() == null)
         .verifyComplete();
   }
 
+  @Test
+  void getRecipeByTags_shouldWalkEveryMatchAcrossPages() {
+    var tag = "paged-" + UUID.randomUUID();
+    var createdAt = LocalDateTime.now().withNano(0);
+    var recipes = IntStream.range(0, 5)
+        .mapToObj(i -> dbMapper.toDbDto(testRecipe()
+            .setRecipeId(UUID.randomUUID().toString().toUpperCase())
+            .setTags(List.of(tag))
+            // two recipes share a timestamp so the ID has to break the tie
+            .setCreatedAt(createdAt.minusMinutes(Math.min(i, 3)))))
+        .toList();
+    dbRecipeRepository.saveAll(recipes).blockLast();
+
+    var seen = new ArrayList<String>();
+    String cursor = null;
+
+    do {
+      var page = recipeService.getRecipeByTags(List.of(tag), null, null, cursor, 2).block();
+      assertNotNull(page);
+      page.getItems().forEach(recipe -> seen.add(recipe.getRecipeId()));
+      cursor = page.getNextCursor();
+    } while (cursor != null);
+
+    assertEquals(recipes.size(), seen.size());
+    assertEquals(recipes.size(), seen.stream().distinct().count());
+    assertEquals(recipes.get(0).getRecipeId(), seen.get(0));
+  }
+
+  @Test
+  void getRecipeByTags_shouldMatchTagsIgnoringCaseAndRankPartialMatchesByOverlap() {
+    var tag = "overlap-" + UUID.randomUUID();
+    var createdAt = LocalDateTime.now().withNano(0);
+    var recipes = List.of(
+        taggedRecipe(createdAt, " " + tag.toUpperCase() + "-one"),
+        taggedRecipe(createdAt.minusMinutes(1), tag + "-one", tag + "-two", tag + "-three"),
+        taggedRecipe(createdAt.minusMinutes(2), tag + "-Two", tag + "-three"),
+        taggedRecipe(createdAt.minusMinutes(3), tag + "-four"));
+    dbRecipeRepository.saveAll(recipes).blockLast();
+    var tags = List.of(tag + "-one", tag + "-TWO", tag + "-three");
+    var recipeIds = recipes.stream().map(DbUserRecipe::getRecipeId).toList();
+
+    assertEquals(List.of(recipeIds.get(1), recipeIds.get(2), recipeIds.get(0)), walkTagPages(tags, "any", null));
+    assertEquals(List.of(recipeIds.get(1), recipeIds.get(2)), walkTagPages(tags, "min-k", 2));
+    assertEquals(List.of(recipeIds.get(1)), walkTagPages(tags, "all", null));
+  }
+
+  @Test
+  void getRecipeByTags_shouldRejectAMinimumOutOfRange() {
+    StepVerifier.create(recipeService.getRecipeByTags(List.of("tag1", "tag2"), "min-k", 3, null, null))
+        .expectError(IllegalArgumentException.class)
+        .verify();
+  }
+
+  @Test
+  void patchRecipe_shouldKeepTagQueriesInStepWithThePatchedTags() {
+    var tag = "patched-" + UUID.randomUUID();
+    dbRecipeRepository.save(dbMapper.toDbDto(testRecipe())).block();
+
+    recipeService.patchRecipe(userId.toString(), recipeId.toString(),
+        new RecipePatch().setTags(List.of(tag.toUpperCase())), null).block();
+
+    assertEquals(List.of(String.valueOf(recipeId).toUpperCase()), walkTagPages(List.of(tag), null, null));
+    assertEquals(List.of(tag), dbRecipeRepository.findById(String.valueOf(recipeId).toUpperCase()).block()
+        .getNormalizedTags());
+  }
+
+  private DbUserRecipe taggedRecipe(LocalDateTime createdAt, String... tags) {
+    return dbMapper.toDbDto(testRecipe()
+        .setRecipeId(UUID.randomUUID().toString().toUpperCase())
+        .setTags(List.of(tags))
+        .setCreatedAt(createdAt));
+  }
+
+  private List<String> walkTagPages(List<String> tags, String match, Integer minMatches) {
+    var seen = new ArrayList<String>();
+    String cursor = null;
+
+    // one recipe per page, so every position is resumed from a cursor
+    do {
+      var page = recipeService.getRecipeByTags(tags, match, minMatches, cursor, 1).block();
+      assertNotNull(page);
+      page.getItems().forEach(recipe -> seen.add(recipe.getRecipeId()));
+      cursor = page.getNextCursor();
+    } while (cursor != null);
+
+    return seen;
+  }
+
+  @Test
+  void searchRecipes_shouldRankTitleMatchesFirstAndPageThroughEveryMatch() {
+    var word = "q" + UUID.randomUUID().toString().replace("-", "");
+    var recipes = new ArrayList<UserRecipe>();
+    recipes.add(userRecipe().setTitle("Chicken " + word));
+    IntStream.range(0, 4).forEach(i -> recipes.add(userRecipe().setTitle("Plain " + i)
+        .setDescription("Goes well with " + word)));
+    recipeService.createRecipes(userId, recipes).blockLast();
+
+    var seen = new ArrayList<RestRecipeSummary>();
+    String cursor = null;
+
+    do {
+      var page = recipeService.searchRecipes(word, cursor, 2).block();
+      assertNotNull(page);
+      seen.addAll(page.getItems());
+      cursor = page.getNextCursor();
+    } while (cursor != null);
+
+    assertEquals(5, seen.size());
+    assertEquals(5, seen.stream().map(RestRecipeSummary::getRecipeId).distinct().count());
+    assertEquals("Chicken " + word, seen.get(0).getTitle());
+    assertTrue(seen.get(0).getScore() > seen.get(1).getScore());
+  }
+
+  @Test
+  void searchRecipes_shouldRejectABlankQuery() {
+    StepVerifier.create(recipeService.searchRecipes(" ", null, null))
+        .expectError(IllegalArgumentException.class)
+        .verify();
+  }
+
+  @Test
+  void findRecipesByIngredients_shouldRankCreatedRecipesAndListWhatIsMissing() {
+    ingredientIndex.rebuild().block();
+    // normalisation drops digits, so the unique ingredient is made of letters only
+    var spice = UUID.randomUUID().toString().replaceAll("[^a-f]", "") + "spice";
+    var created = recipeService.createRecipes(userId, List.of(
+            userRecipe().setIngredients(List.of(spice + ", ground", "2 Eggs")),
+            userRecipe().setIngredients(List.of("1 tsp " + spice, "flour", "1 cup milk"))))
+        .map(DbUserRecipe::getRecipeId)
+        .collectList()
+        .block();
+
+    var matches = recipeService.findRecipesByIngredients(List.of(spice, "egg"), null).block();
+    assertNotNull(matches);
+    assertEquals(created.get(0), matches.get(0).getRecipeId());
+    assertEquals(2, matches.get(0).getMatchedIngredients());
+    assertTrue(matches.get(0).getMissingIngredients().isEmpty());
+
+    var bySpice = recipeService.findRecipesByIngredients(List.of(spice), null).block();
+    assertEquals(created, bySpice.stream().map(RestIngredientMatch::getRecipeId).toList());
+    assertEquals(List.of("flour", "1 cup milk"), bySpice.get(1).getMissingIngredients());
+  }
+
+  @Test
+  void getSuggestions_shouldFollowCreatedAndDeletedRecipes() {
+    suggestionIndex.rebuild().block();
+    var word = "s" + UUID.randomUUID().toString().replace("-", "");
+    var created = recipeService.createRecipes(userId, List.of(
+            userRecipe().setTitle(word + " Stew"),
+            userRecipe().setTitle(word + " stew"),
+            userRecipe().setTitle(word + " Salad")))
+        .collectList()
+        .block();
+    assertNotNull(created);
+
+    assertEquals(List.of(word + " Stew", word + " Salad"), recipeService.getSuggestions(word.toUpperCase(), null, null)
+        .block().stream()
+        .map(RestSuggestion::getText)
+        .toList());
+
+    recipeService.deleteRecipe(created.get(2).getUserId(), created.get(2).getRecipeId()).block();
+
+    assertEquals(List.of(2L), recipeService.getSuggestions(word, "title", null).block().stream()
+        .map(RestSuggestion::getCount)
+        .toList());
+  }
+
+  @Test
+  void getSuggestions_shouldFollowPatchedTitlesAndTags() {
+    suggestionIndex.rebuild().block();
+    var word = "p" + UUID.randomUUID().toString().replace("-", "");
+    var created = recipeService.createRecipes(userId, List.of(userRecipe()
+            .setTitle(word + " Soup")
+            .setTags(List.of(word + "-old"))))
+        .blockLast();
+    assertNotNull(created);
+
+    recipeService.patchRecipe(created.getUserId(), created.getRecipeId(),
+        new RecipePatch().setTitle(word + " Chowder").setTags(List.of(word + "-new")), null).block();
+
+    assertEquals(List.of(word + " Chowder"), suggestedTexts(word, "title"));
+    assertEquals(List.of(word + "-new"), suggestedTexts(word, "tag"));
+  }
+
+  private List<String> suggestedTexts(String prefix, String field) {
+    return recipeService.getSuggestions(prefix, field, null).block().stream()
+        .map(RestSuggestion::getText)
+        .toList();
+  }
+
   @Test
   void updateRecipe_shouldUpdateRecipeSuccessfully() {
     var dbUserRecipe = dbMapper.toDbDto(userRecipe());
@@ -116,8 +384,67 @@ class RecipeServiceTest extends DefaultSpringBootTest {
 
     userRecipe().setTitle("Updated Recipe Title");
 
-    StepVerifier.create(recipeService.updateRecipe(restUserRecipe()))
-        .expectNext(dbUserRecipe)
+    StepVerifier.create(recipeService.updateRecipe(restUserRecipe(), null))
+        .expectNext(dbUserRecipe.setVersion(1L))
+        .verifyComplete();
+  }
+
+  @Test
+  void updateRecipe_shouldRejectAStaleExpectedVersion() {
+    var dbUserRecipe = dbMapper.toDbDto(userRecipe());
+    dbRecipeRepository.save(dbUserRecipe).block();
+    recipeService.updateRecipe(restUserRecipe(), 0L).block();
+
+    StepVerifier.create(recipeService.updateRecipe(restUserRecipe().setTitle("Lost Update"), 0L))
+        .expectError(PreconditionFailedException.class)
+        .verify();
+
+    StepVerifier.create(dbRecipeRepository.findById(dbUserRecipe.getRecipeId()))
+        .expectNextMatches(recipe -> recipe.getVersion() == 1L && !recipe.getTitle().equals("Lost Update"))
+        .verifyComplete();
+  }
+
+  @Test
+  void updateRecipe_shouldKeepReviewsTheMigrationHasNotReachedYet() {
+    var recipe = restUserRecipe();
+    reactiveMongoTemplate.insert(new Document("_id", recipe.getRecipeId())
+        .append("userId", recipe.getUserId())
+        .append("title", recipe.getTitle())
+        .append("reviews", List.of(new Document("userId", "reviewer").append("rating", 4))), "recipes").block();
+
+    recipeService.updateRecipe(recipe.setTitle("Updated Recipe Title"), null).block();
+
+    var stored = reactiveMongoTemplate.findById(recipe.getRecipeId(), Document.class, "recipes").block();
+
+    assertNotNull(stored);
+    assertEquals("Updated Recipe Title", stored.getString("title"));
+    assertEquals(1L, ((Number) stored.get("version")).longValue());
+    assertEquals(1, stored.getList("reviews", Document.class).size());
+  }
+
+  @Test
+  void patchRecipe_shouldTreatARecipeTheVersionBackfillHasNotReachedAsVersionZero() {
+    var recipe = restUserRecipe();
+    reactiveMongoTemplate.insert(new Document("_id", recipe.getRecipeId())
+        .append("userId", recipe.getUserId())
+        .append("title", recipe.getTitle()), "recipes").block();
+
+    StepVerifier.create(recipeService.patchRecipe(recipe.getUserId(), recipe.getRecipeId(),
+            new RecipePatch().setTitle("Patched Title"), 0L))
+        .expectNextMatches(patched -> patched.getTitle().equals("Patched Title") && patched.getVersion() == 1L)
+        .verifyComplete();
+  }
+
+  @Test
+  void getRecipe_shouldNotServeStaleRecipeAfterUpdate() {
+    var dbUserRecipe = dbMapper.toDbDto(restUserRecipe());
+    dbRecipeRepository.save(dbUserRecipe).block();
+
+    recipeService.getRecipe(dbUserRecipe.getRecipeId()).block();
+    recipeService.updateRecipe(restUserRecipe().setTitle("Updated Recipe Title"), null).block();
+
+    StepVerifier.create(recipeService.getRecipe(dbUserRecipe.getRecipeId()))
+        .expectNextMatches(recipe -> recipe.getTitle().equals("Updated Recipe Title"))
         .verifyComplete();
   }
 
@@ -137,6 +464,25 @@ class RecipeServiceTest extends DefaultSpringBootTest {
         .verifyComplete();
   }
 
+  @Test
+  void deleteRecipe_shouldDeleteReviewsOfTheRecipe() {
+    var userRecipe = userRecipe()
+        .setReviews(List.of(new Review().setUserId("reviewer").setRating(4).setComment("Tasty")));
+
+    var createdRecipe = recipeService.createRecipes(userId, List.of(userRecipe)).blockLast();
+    var createdRecipeId = Objects.requireNonNull(createdRecipe).getRecipeId();
+
+    StepVerifier.create(dbReviewRepository.findPage(createdRecipeId, null, 10))
+        .expectNextMatches(review -> review.getComment().equals("Tasty"))
+        .verifyComplete();
+
+    StepVerifier.create(recipeService.deleteRecipe(createdRecipe.getUserId(), createdRecipeId))
+        .verifyComplete();
+
+    StepVerifier.create(dbReviewRepository.findPage(createdRecipeId, null, 10))
+        .verifyComplete();
+  }
+
   @Test
   void deleteRecipe_shouldNotDeleteIfUserIdDoesNotMatch() {
     var recipe = String.valueOf(recipeId);
@@ -150,6 +496,21 @@ class RecipeServiceTest extends DefaultSpringBootTest {
         .verifyComplete();
   }
 
+  @Test
+  void deleteRecipe_shouldKeepTheRecipeSearchableWhenAnotherUserTriesToDeleteIt() {
+    ingredientIndex.rebuild().block();
+    var spice = UUID.randomUUID().toString().replaceAll("[^a-f]", "") + "spice";
+    var created = recipeService.createRecipes(userId, List.of(userRecipe().setIngredients(List.of(spice))))
+        .blockLast();
+    var createdRecipeId = Objects.requireNonNull(created).getRecipeId();
+
+    StepVerifier.create(recipeService.deleteRecipe("someone-else", createdRecipeId))
+        .verifyComplete();
+
+    var bySpice = recipeService.findRecipesByIngredients(List.of(spice), null).block();
+    assertEquals(List.of(createdRecipeId), bySpice.stream().map(RestIngredientMatch::getRecipeId).toList());
+  }
+
   @Test
   void deleteRecipe_shouldNotDeleteIfRecipeDoesNotExist() {
     var recipe = (UUID.randomUUID().toString());
@@ -172,6 +533,137 @@ class RecipeServiceTest extends DefaultSpringBootTest {
         .setImageUploadUrl("http://example.com/upload");
   }
 
+  @Test
+  void patchRecipe_shouldOnlyChangeTheProvidedFields() {
+    var createdRecipe = recipeService.createRecipes(userId, List.of(userRecipe()
+            .setReviews(List.of(new Review().setUserId("reviewer").setRating(4)))))
+        .blockLast();
+    var createdRecipeId = Objects.requireNonNull(createdRecipe).getRecipeId();
+
+    var patch = new RecipePatch().setTitle("Patched Title");
+
+    StepVerifier.create(recipeService.patchRecipe(String.valueOf(userId), createdRecipeId, patch, null))
+        .assertNext(recipe -> {
+          assertEquals("Patched Title", recipe.getTitle());
+          assertEquals(1L, recipe.getVersion());
+          assertEquals(createdRecipe.getDescription(), recipe.getDescription());
+          assertEquals(createdRecipe.getIngredients(), recipe.getIngredients());
+          assertEquals("http://example.com/image.jpg", recipe.getImageUrl());
+          assertEquals(1L, recipe.getReviewCount());
+          assertEquals(4.0, recipe.getAverageRating());
+        })
+        .verifyComplete();
+  }
+
+  @Test
+  void patchRecipe_shouldNotChangeARecipeOfAnotherUser() {
+    var createdRecipe = recipeService.createRecipes(userId, List.of(userRecipe())).blockLast();
+    var createdRecipeId = Objects.requireNonNull(createdRecipe).getRecipeId();
+
+    StepVerifier.create(recipeService.patchRecipe(UUID.randomUUID().toString(), createdRecipeId,
+            new RecipePatch().setTitle("Stolen Title"), null))
+        .expectError(RecipeNotFoundException.class)
+        .verify();
+
+    StepVerifier.create(dbRecipeRepository.findById(createdRecipeId))
+        .expectNextMatches(recipe -> recipe.getTitle().equals("Sample Recipe Title"))
+        .verifyComplete();
+  }
+
+  @Test
+  void patchRecipe_shouldRejectAnEmptyPatch() {
+    StepVerifier.create(recipeService.patchRecipe(String.valueOf(userId), String.valueOf(recipeId),
+            new RecipePatch(), null))
+        .expectError(IllegalArgumentException.class)
+        .verify();
+  }
+
+  @Test
+  void patchRecipe_shouldOnlyApplyToTheExpectedVersion() {
+    var createdRecipe = recipeService.createRecipes(userId, List.of(userRecipe())).blockLast();
+    var createdRecipeId = Objects.requireNonNull(createdRecipe).getRecipeId();
+    var user = String.valueOf(userId);
+
+    StepVerifier.create(recipeService.patchRecipe(user, createdRecipeId, new RecipePatch().setTitle("First"), 0L))
+        .expectNextMatches(recipe -> recipe.getVersion() == 1L)
+        .verifyComplete();
+
+    StepVerifier.create(recipeService.patchRecipe(user, createdRecipeId, new RecipePatch().setTitle("Second"), 0L))
+        .expectError(PreconditionFailedException.class)
+        .verify();
+
+    StepVerifier.create(recipeService.patchRecipe(UUID.randomUUID().toString(), createdRecipeId,
+            new RecipePatch().setTitle("Stolen Title"), 1L))
+        .expectError(RecipeNotFoundException.class)
+        .verify();
+  }
+
+  @Test
+  void importRecipes_shouldReportEveryRecordInOrderWithoutAbortingOnInvalidOnes() {
+    var importUserId = UUID.randomUUID();
+    var records = IntStream.range(0, 2_500)
+        .mapToObj(i -> i % 100 == 0 ? userRecipe().setTitle("") : userRecipe().setRecipeId(null))
+        .toList();
+
+    var results = recipeService.importRecipes(importUserId, Flux.fromIterable(records))
+        .collectList()
+        .block();
+
+    assertNotNull(results);
+    assertEquals(2_500, results.size());
+    IntStream.range(0, 2_500).forEach(i -> {
+      assertEquals(i, results.get(i).getIndex());
+      assertEquals(i % 100 == 0 ? ImportStatus.INVALID : ImportStatus.CREATED, results.get(i).getStatus());
+    });
+    assertEquals(2_475L, dbRecipeRepository.findByUserId(importUserId.toString().toUpperCase()).count().block());
+  }
+
+  @Test
+  void importRecipes_shouldStoreTheReviewsOfImportedRecipes() {
+    var record = userRecipe()
+        .setReviews(List.of(new Review().setUserId("reviewer").setRating(3).setComment("Fine")));
+
+    var result = recipeService.importRecipes(UUID.randomUUID(), Flux.just(record)).blockLast();
+
+    assertNotNull(result);
+    assertEquals(ImportStatus.CREATED, result.getStatus());
+    StepVerifier.create(dbRecipeRepository.findById(result.getRecipeId()))
+        .expectNextMatches(recipe -> recipe.getReviewCount() == 1L && recipe.getAverageRating() == 3.0)
+        .verifyComplete();
+    StepVerifier.create(dbReviewRepository.findPage(result.getRecipeId(), null, 10))
+        .expectNextCount(1)
+        .verifyComplete();
+  }
+
+  @Test
+  void insertUnordered_shouldReportRejectedDocumentsAndInsertTheRest() {
+    var duplicateId = UUID.randomUUID().toString();
+    var recipes = List.of(
+        dbMapper.toDbDto(userRecipe()).setRecipeId(duplicateId),
+        dbMapper.toDbDto(userRecipe()).setRecipeId(duplicateId),
+        dbMapper.toDbDto(userRecipe()).setRecipeId(UUID.randomUUID().toString()));
+
+    StepVerifier.create(dbRecipeRepository.insertUnordered(recipes))
+        .expectNextMatches(writeErrors -> writeErrors.keySet().equals(Set.of(1)))
+        .verifyComplete();
+    StepVerifier.create(dbRecipeRepository.findById(recipes.get(2).getRecipeId()))
+        .expectNextCount(1)
+        .verifyComplete();
+  }
+
+  private RestRecipeSummary summaryOf(DbUserRecipe recipe) {
+    return new RestRecipeSummary()
+        .setRecipeId(recipe.getRecipeId())
+        .setUserId(recipe.getUserId())
+        .setTitle(recipe.getTitle())
+        .setDescription(recipe.getDescription())
+        .setTags(recipe.getTags())
+        .setImageUrl(recipe.getImageUrl())
+        .setCreatedAt(recipe.getCreatedAt())
+        .setAverageRating(recipe.getAverageRating())
+        .setReviewCount(recipe.getReviewCount());
+  }
+
   UserRecipe userRecipe() {
     return new UserRecipe()
         .setRecipeId(userId)
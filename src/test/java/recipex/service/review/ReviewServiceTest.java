@@ -2,27 +2,45 @@ package recipex.service.review;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mapstruct.factory.Mappers;
 import org.springframework.beans.factory.annotation.Autowired;
+import reactor.core.publisher.Flux;
 import reactor.test.StepVerifier;
 import recipex.DefaultSpringBootTest;
+import recipex.cache.MissingRecipeCache;
+import recipex.db.DbReview;
 import recipex.db.DbUserRecipe;
 import recipex.domain.Review;
-import recipex.mapper.DbMapper;
+import recipex.exceptions.RecipeNotFoundException;
 import recipex.mongo.DbRecipeRepository;
+import recipex.mongo.DbReviewRepository;
+import recipex.rest.RestReview;
 
 class ReviewServiceTest extends DefaultSpringBootTest {
   @Autowired
   DefaultReviewService reviewService;
   @Autowired
   DbRecipeRepository recipeRepository;
+  @Autowired
+  DbReviewRepository reviewRepository;
+  @Autowired
+  MissingRecipeCache missingRecipeCache;
 
-  private final String recipeId = "123e4567-e89b-12d3-a456-426614174000";
+  private final String recipeId = "123E4567-E89B-12D3-A456-426614174000";
 
-  private final DbMapper dbMapper = Mappers.getMapper(DbMapper.class);
+  @BeforeEach
+  void setUp() {
+    reviewRepository.deleteByRecipeId(recipeId).block();
+    recipeRepository.deleteById(recipeId).block();
+    missingRecipeCache.evict(recipeId);
+  }
 
   @Test
   void testCreateReview_AddsANewReviewToTheRecipeSuccessfully() {
@@ -39,11 +57,10 @@ class ReviewServiceTest extends DefaultSpringBootTest {
         })
         .verifyComplete();
 
-    var updatedRecipe = recipeRepository.findById(recipeId).block();
+    var reviews = storedReviews();
 
-    assertNotNull(updatedRecipe);
-    assertEquals(1, updatedRecipe.getReviews().size());
-    assertEquals(newReview.getComment(), updatedRecipe.getReviews().get(0).getComment());
+    assertEquals(1, reviews.size());
+    assertEquals(newReview.getComment(), reviews.get(0).getComment());
   }
 
   @Test
@@ -51,25 +68,77 @@ class ReviewServiceTest extends DefaultSpringBootTest {
     var recipe = createSampleRecipe();
     recipeRepository.save(recipe).block();
 
-    var existingReview = createSampleReview(4, "Old comment");
-    recipe.getReviews().add(dbMapper.toDbDto(existingReview));
-    recipeRepository.save(recipe).block();
+    var existingReview = reviewService.createReview(recipeId, createSampleReview(4, "Old comment")).block();
 
     var updatedReview = createSampleReview(5, "Updated comment");
 
     StepVerifier.create(reviewService.createReview(recipeId, updatedReview))
         .expectNextMatches(restReview -> {
           assertNotNull(restReview);
+          assertNotNull(existingReview);
           assertEquals(updatedReview.getComment(), restReview.getComment());
+          assertEquals(existingReview.getReviewId(), restReview.getReviewId());
           return true;
         })
         .verifyComplete();
 
+    var reviews = storedReviews();
+
+    assertEquals(1, reviews.size());
+    assertEquals("Updated comment", reviews.get(0).getComment());
+  }
+
+  @Test
+  void testCreateReview_KeepsEveryReviewWhenManyUsersReviewConcurrently() {
+    recipeRepository.save(createSampleRecipe()).block();
+
+    var reviewers = 50;
+
+    Flux.range(0, reviewers)
+        .flatMap(i -> reviewService.createReview(recipeId, createSampleReview(5, "Review " + i)
+            .setUserId("concurrent-user-" + i)), reviewers)
+        .blockLast();
+
+    var updatedRecipe = recipeRepository.findById(recipeId).block();
+
+    assertNotNull(updatedRecipe);
+    assertEquals(reviewers, storedReviews().size());
+    assertEquals(reviewers, updatedRecipe.getReviewCount());
+    assertEquals(5.0, updatedRecipe.getAverageRating());
+  }
+
+  @Test
+  void testCreateReview_StoresASingleReviewWhenOneUserSubmitsConcurrently() {
+    recipeRepository.save(createSampleRecipe()).block();
+
+    Flux.range(0, 20)
+        .flatMap(i -> reviewService.createReview(recipeId, createSampleReview(4, "Attempt " + i)), 20)
+        .blockLast();
+
     var updatedRecipe = recipeRepository.findById(recipeId).block();
 
     assertNotNull(updatedRecipe);
-    assertEquals(1, updatedRecipe.getReviews().size());
-    assertEquals("Updated comment", updatedRecipe.getReviews().get(0).getComment());
+    assertEquals(1, storedReviews().size());
+    assertEquals(1L, updatedRecipe.getReviewCount());
+  }
+
+  @Test
+  void testCreateReview_MaintainsRatingAggregatesIncrementally() {
+    recipeRepository.save(createSampleRecipe()).block();
+
+    reviewService.createReview(recipeId, createSampleReview(5, "Loved it").setUserId("first-user")).block();
+    reviewService.createReview(recipeId, createSampleReview(2, "Not for me").setUserId("second-user")).block();
+    reviewService.createReview(recipeId, createSampleReview(4, "Better second time").setUserId("second-user")).block();
+
+    var updatedRecipe = recipeRepository.findById(recipeId).block();
+
+    assertNotNull(updatedRecipe);
+    assertEquals(2L, updatedRecipe.getReviewCount());
+    assertEquals(9L, updatedRecipe.getRatingSum());
+    assertEquals(4.5, updatedRecipe.getAverageRating());
+    assertEquals(1L, updatedRecipe.getRatingHistogram().get("5"));
+    assertEquals(1L, updatedRecipe.getRatingHistogram().get("4"));
+    assertEquals(0L, updatedRecipe.getRatingHistogram().get("2"));
   }
 
   @Test
@@ -83,48 +152,107 @@ class ReviewServiceTest extends DefaultSpringBootTest {
         .verify();
   }
 
+  @Test
+  void testCreateReview_StoresTheReviewUnderTheCanonicalIdWhenGivenALowerCaseId() {
+    recipeRepository.save(createSampleRecipe()).block();
+    var lowerCaseId = recipeId.toLowerCase();
+
+    StepVerifier.create(reviewService.createReview(lowerCaseId, createSampleReview(5, "Great recipe!")))
+        .expectNextMatches(restReview -> recipeId.equals(restReview.getRecipeId()))
+        .verifyComplete();
+
+    assertEquals(1, storedReviews().size());
+    StepVerifier.create(reviewService.getReviews(lowerCaseId, null, null))
+        .expectNextMatches(page -> page.getItems().size() == 1)
+        .verifyComplete();
+    StepVerifier.create(reviewService.streamReviews(lowerCaseId))
+        .expectNextCount(1)
+        .verifyComplete();
+  }
+
   @Test
   void testGetReviews_ReturnsAllReviewsForTheGivenRecipeId() {
-    var recipe = createSampleRecipe();
-    recipeRepository.save(recipe).block();
+    recipeRepository.save(createSampleRecipe()).block();
 
-    var review1 = createSampleReview(5, "Great recipe!");
-    recipe.getReviews().add(dbMapper.toDbDto(review1));
-    recipeRepository.save(recipe).block();
+    var review = storeReview("first-user", LocalDateTime.now()).setComment("Great recipe!");
+    reviewRepository.save(review).block();
 
-    StepVerifier.create(reviewService.getReviews(recipeId))
-        .expectNextMatches(restReview -> {
-          assertNotNull(restReview);
-          assertEquals(review1.getComment(), restReview.getComment());
+    StepVerifier.create(reviewService.getReviews(recipeId, null, null))
+        .expectNextMatches(page -> {
+          assertEquals(1, page.getItems().size());
+          assertEquals(review.getComment(), page.getItems().get(0).getComment());
+          assertNull(page.getNextCursor());
           return true;
         })
         .verifyComplete();
+  }
 
-    var updatedRecipe = recipeRepository.findById(recipeId).block();
+  @Test
+  void testGetReviews_WalksEveryReviewNewestFirstAcrossPages() {
+    recipeRepository.save(createSampleRecipe()).block();
 
-    assertNotNull(updatedRecipe);
-    assertEquals(1, updatedRecipe.getReviews().size());
+    var now = LocalDateTime.now().withNano(0);
+    var reviews = List.of(
+        storeReview("user-1", now),
+        storeReview("user-2", now.minusMinutes(1)),
+        // ties on createdAt are broken by ID
+        storeReview("user-3", now.minusMinutes(1)),
+        storeReview("user-4", now.minusMinutes(2)),
+        storeReview("user-5", null));
+    reviewRepository.saveAll(reviews).blockLast();
+
+    var seen = new ArrayList<RestReview>();
+    String cursor = null;
+    var pages = 0;
+
+    do {
+      var page = reviewService.getReviews(recipeId, cursor, 2).block();
+      assertNotNull(page);
+      seen.addAll(page.getItems());
+      cursor = page.getNextCursor();
+      pages++;
+    } while (cursor != null);
+
+    assertEquals(3, pages);
+    assertEquals(reviews.size(), seen.size());
+    assertEquals("user-1", seen.get(0).getUserId());
+    assertEquals("user-4", seen.get(3).getUserId());
+    assertEquals("user-5", seen.get(4).getUserId());
+    assertEquals(reviews.size(), seen.stream().map(RestReview::getReviewId).distinct().count());
   }
 
   @Test
   void testGetReviews_IndicatesNoReviewsExistWhenRecipeHasNone() {
-    var unchangedRecipe = createSampleRecipe();
-    recipeRepository.save(unchangedRecipe).block();
+    recipeRepository.save(createSampleRecipe()).block();
 
-    StepVerifier.create(reviewService.getReviews(recipeId))
-        .expectComplete()
+    StepVerifier.create(reviewService.getReviews(recipeId, null, null))
+        .expectNextMatches(page -> page.getItems().isEmpty() && page.getNextCursor() == null)
+        .verifyComplete();
+  }
+
+  @Test
+  void testGetReviews_ThrowsExceptionWhenRecipeIdDoesNotExist() {
+    StepVerifier.create(reviewService.getReviews("nonExistentRecipeId", null, null))
+        .expectError(RecipeNotFoundException.class)
         .verify();
+  }
 
-    var updatedRecipe = recipeRepository.findById(recipeId).block();
+  private List<DbReview> storedReviews() {
+    return reviewRepository.findPage(recipeId, null, 100).collectList().block();
+  }
 
-    assertNotNull(updatedRecipe);
-    assertEquals(0, updatedRecipe.getReviews().size());
+  private DbReview storeReview(String userId, LocalDateTime createdAt) {
+    return new DbReview()
+        .setReviewId(UUID.randomUUID().toString().toUpperCase())
+        .setRecipeId(recipeId)
+        .setUserId(userId)
+        .setRating(4)
+        .setCreatedAt(createdAt);
   }
 
   private DbUserRecipe createSampleRecipe() {
     return new DbUserRecipe()
-        .setRecipeId(recipeId)
-        .setReviews(new ArrayList<>());
+        .setRecipeId(recipeId);
   }
 
   private Review createSampleReview(int rating, String comment) {
@@ -134,4 +262,4 @@ class ReviewServiceTest extends DefaultSpringBootTest {
         .setRating(rating)
         .setComment(comment);
   }
-}
\ No newline at end of file
+}
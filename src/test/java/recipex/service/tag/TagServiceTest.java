@@ -0,0 +1,157 @@
+package recipex.service.tag;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import reactor.test.StepVerifier;
+import recipex.DefaultSpringBootTest;
+import recipex.boot.config.properties.JobProperties;
+import recipex.cache.TagCountSnapshot;
+import recipex.db.DbUserRecipe;
+import recipex.domain.RecipePatch;
+import recipex.domain.UserRecipe;
+import recipex.job.TagCountReconcileJob;
+import recipex.mongo.DbJobCheckpointRepository;
+import recipex.mongo.DbRecipeRepository;
+import recipex.mongo.DbTagCountRepository;
+import recipex.rest.RestTagFacet;
+import recipex.service.recipe.DefaultRecipeService;
+
+class TagServiceTest extends DefaultSpringBootTest {
+  private final UUID userId = UUID.randomUUID();
+
+  @Autowired
+  DefaultTagService tagService;
+  @Autowired
+  DefaultRecipeService recipeService;
+  @Autowired
+  DbRecipeRepository dbRecipeRepository;
+  @Autowired
+  TagCountSnapshot tagCountSnapshot;
+  @Autowired
+  DbTagCountRepository dbTagCountRepository;
+  @Autowired
+  DbJobCheckpointRepository checkpointRepository;
+
+  @Test
+  void getTagFacets_shouldCountRecipesPerTagAndFollowTagChanges() {
+    var popular = uniqueTag();
+    var rare = uniqueTag();
+    var created = recipeService.createRecipes(userId, List.of(
+            userRecipe(popular, rare, popular),
+            userRecipe(popular)))
+        .collectList()
+        .block();
+    assertNotNull(created);
+
+    assertEquals(List.of(2L, 1L), counts(popular, rare));
+
+    recipeService.patchRecipe(created.get(0).getUserId(), created.get(0).getRecipeId(),
+        new RecipePatch().setTags(List.of(rare)), null).block();
+    assertEquals(List.of(1L, 1L), counts(popular, rare));
+
+    recipeService.deleteRecipe(created.get(1).getUserId(), created.get(1).getRecipeId()).block();
+    assertEquals(List.of(0L, 1L), counts(popular, rare));
+  }
+
+  @Test
+  void getTagFacets_shouldListTheMostUsedTagsFirst() {
+    var tag = uniqueTag();
+    recipeService.createRecipes(userId, List.of(userRecipe(tag), userRecipe(tag))).blockLast();
+    tagCountSnapshot.refresh().block();
+
+    var facets = tagService.getTagFacets(null, 100).block();
+
+    assertNotNull(facets);
+    assertTrue(facets.size() <= 100);
+    for (int i = 1; i < facets.size(); i++) {
+      assertTrue(facets.get(i - 1).getCount() >= facets.get(i).getCount());
+    }
+  }
+
+  @Test
+  void getTagFacets_shouldCountTagsIgnoringCaseAndSurroundingWhitespace() {
+    var tag = uniqueTag();
+    recipeService.createRecipes(userId, List.of(userRecipe(tag), userRecipe(" " + tag.toUpperCase() + " ")))
+        .blockLast();
+
+    assertEquals(List.of(2L), counts(tag.toUpperCase()));
+  }
+
+  @Test
+  void reconcile_shouldRepairCountsOfRecipesWrittenBehindTheService() {
+    var tag = uniqueTag();
+    dbRecipeRepository.save(new DbUserRecipe()
+            .setRecipeId(UUID.randomUUID().toString())
+            .setUserId(userId.toString())
+            .setTitle("Written directly")
+            .setTags(List.of(" " + tag.toUpperCase()))
+            .setCreatedAt(LocalDateTime.now()))
+        .block();
+    assertEquals(List.of(0L), counts(tag));
+
+    StepVerifier.create(reconcileJob().run())
+        .expectNextMatches(corrected -> corrected >= 1)
+        .verifyComplete();
+
+    assertEquals(List.of(1L), counts(tag));
+  }
+
+  @Test
+  void reconcile_shouldRunOncePerLease() {
+    var reconcileJob = reconcileJob();
+    reconcileJob.run().block();
+
+    StepVerifier.create(reconcileJob.run())
+        .verifyComplete();
+  }
+
+  @Test
+  void correctCounts_shouldKeepACountIncrementedDuringTheRecount() {
+    var tag = uniqueTag();
+    dbTagCountRepository.incrementCounts(Map.of(tag, 1L)).block();
+    var read = Map.of(tag, 1L);
+    dbTagCountRepository.incrementCounts(Map.of(tag, 1L)).block();
+
+    StepVerifier.create(dbTagCountRepository.correctCounts(read, Map.of(tag, 5L)))
+        .expectNext(0L)
+        .verifyComplete();
+
+    assertEquals(List.of(2L), counts(tag));
+  }
+
+  private TagCountReconcileJob reconcileJob() {
+    checkpointRepository.deleteById(TagCountReconcileJob.JOB_NAME).block();
+
+    return new TagCountReconcileJob(dbRecipeRepository, dbTagCountRepository, checkpointRepository,
+        tagCountSnapshot, new JobProperties());
+  }
+
+  private List<Long> counts(String... tags) {
+    tagCountSnapshot.refresh().block();
+
+    return tagService.getTagFacets(List.of(tags), null).block().stream()
+        .map(RestTagFacet::getCount)
+        .toList();
+  }
+
+  private String uniqueTag() {
+    return "tag-" + UUID.randomUUID();
+  }
+
+  private UserRecipe userRecipe(String... tags) {
+    return new UserRecipe()
+        .setTitle("Tagged Recipe")
+        .setDescription("A recipe with tags.")
+        .setIngredients(List.of("Ingredient 1"))
+        .setInstructions(List.of("Step 1"))
+        .setTags(List.of(tags));
+  }
+}
@@ -1,15 +1,41 @@
 package recipex.service.user;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 import recipex.DefaultSpringBootTest;
+import recipex.cache.TagCountSnapshot;
+import recipex.db.DbReview;
+import recipex.db.DbUser;
+import recipex.db.DbUserDeletion;
+import recipex.db.DbUserRecipe;
+import recipex.domain.DeletionStatus;
+import recipex.domain.Review;
+import recipex.domain.UserRecipe;
 import recipex.domain.Username;
 import recipex.exceptions.EmailAlreadyExistsException;
+import recipex.mongo.DbRecipeRepository;
+import recipex.mongo.DbUserDeletionRepository;
 import recipex.mongo.DbUserRepository;
+import recipex.rest.RestSuggestion;
 import recipex.rest.RestUser;
+import recipex.search.SuggestionIndex;
+import recipex.service.recipe.DefaultRecipeService;
+import recipex.service.tag.DefaultTagService;
 
 
 class UserServiceTest extends DefaultSpringBootTest {
@@ -18,6 +44,20 @@ class UserServiceTest extends DefaultSpringBootTest {
   DefaultUserService userService;
   @Autowired
   DbUserRepository dbUserRepository;
+  @Autowired
+  DbRecipeRepository dbRecipeRepository;
+  @Autowired
+  DefaultRecipeService recipeService;
+  @Autowired
+  ReactiveMongoTemplate reactiveMongoTemplate;
+  @Autowired
+  DbUserDeletionRepository dbUserDeletionRepository;
+  @Autowired
+  SuggestionIndex suggestionIndex;
+  @Autowired
+  DefaultTagService tagService;
+  @Autowired
+  TagCountSnapshot tagCountSnapshot;
 
   @Test
   void createUser_shouldCreateUserSuccessfully() {
@@ -56,6 +96,26 @@ class UserServiceTest extends DefaultSpringBootTest {
         .verifyComplete();
   }
 
+  @Test
+  void createUser_shouldCreateExactlyOneUserUnderParallelSignUps() {
+    var email = generateUniqueEmail();
+    var attempts = 50;
+    var conflicts = new AtomicInteger();
+
+    var created = Flux.range(0, attempts)
+        .flatMap(i -> userService.createUser(username().setEmail(email))
+            .onErrorResume(EmailAlreadyExistsException.class, error -> {
+              conflicts.incrementAndGet();
+              return Mono.empty();
+            }), attempts)
+        .count()
+        .block();
+
+    assertEquals(1L, created);
+    assertEquals(attempts - 1, conflicts.get());
+    assertEquals(1L, reactiveMongoTemplate.count(query(where("username.email").is(email)), DbUser.class).block());
+  }
+
   @Test
   void getUser_shouldRetrieveUserSuccessfully() {
     var testUsername = username();
@@ -67,7 +127,7 @@ class UserServiceTest extends DefaultSpringBootTest {
         .setUsername(testUsername)
         .setRecipes(Collections.emptyList());
 
-    var result = userService.getUser(createdUser.getId());
+    var result = userService.getUser(createdUser.getId(), null, null);
 
     StepVerifier.create(result)
         .expectNext(expectedUser)
@@ -81,6 +141,11 @@ class UserServiceTest extends DefaultSpringBootTest {
 
     assert createdUser != null;
     StepVerifier.create(userService.deleteUser(createdUser.getId()))
+        .assertNext(deletion -> {
+          assertEquals(DeletionStatus.COMPLETED, deletion.getStatus());
+          assertEquals(1L, deletion.getUsersDeleted());
+          assertEquals(0L, deletion.getRecipesDeleted());
+        })
         .verifyComplete();
 
     StepVerifier.create(dbUserRepository.findById(String.valueOf(createdUser.getId())))
@@ -88,6 +153,146 @@ class UserServiceTest extends DefaultSpringBootTest {
         .verifyComplete();
   }
 
+  @Test
+  void deleteUser_shouldDeleteRecipesAndTheirReviews() {
+    var createdUser = userService.createUser(username()).block();
+    assert createdUser != null;
+    var recipeIds = createRecipesWithReviews(createdUser.getId(), 3);
+
+    StepVerifier.create(userService.deleteUser(createdUser.getId()))
+        .assertNext(deletion -> {
+          assertEquals(DeletionStatus.COMPLETED, deletion.getStatus());
+          assertEquals(3L, deletion.getRecipesDeleted());
+          assertEquals(6L, deletion.getReviewsDeleted());
+        })
+        .verifyComplete();
+
+    assertEquals(0L, dbRecipeRepository.findByUserId(String.valueOf(createdUser.getId())).count().block());
+    assertEquals(0L, reactiveMongoTemplate.count(query(where("recipeId").in(recipeIds)), DbReview.class).block());
+  }
+
+  @Test
+  void deleteUser_shouldRemoveTheTitlesOfItsRecipesFromTheSuggestions() {
+    suggestionIndex.rebuild().block();
+    var createdUser = userService.createUser(username()).block();
+    assert createdUser != null;
+    var title = "Zz" + UUID.randomUUID().toString().replaceAll("[^a-f]", "") + " Stew";
+    recipeService.createRecipes(createdUser.getId(), List.of(new UserRecipe().setTitle(title))).blockLast();
+
+    assertEquals(List.of(title), suggestedTitles(title));
+
+    userService.deleteUser(createdUser.getId()).block();
+
+    assertEquals(List.of(), suggestedTitles(title));
+  }
+
+  @Test
+  void deleteUser_shouldUncountTheTagsOfItsRecipesOnce() {
+    var tag = "tag-" + UUID.randomUUID();
+    var deletedUser = userService.createUser(username()).block();
+    var keptUser = userService.createUser(username()).block();
+    assert deletedUser != null && keptUser != null;
+    recipeService.createRecipes(deletedUser.getId(), List.of(
+        new UserRecipe().setTitle("Tagged").setTags(List.of(tag, tag)),
+        new UserRecipe().setTitle("Tagged Again").setTags(List.of(tag)))).blockLast();
+    recipeService.createRecipes(keptUser.getId(), List.of(new UserRecipe().setTitle("Kept").setTags(List.of(tag))))
+        .blockLast();
+
+    userService.deleteUser(deletedUser.getId()).block();
+
+    tagCountSnapshot.refresh().block();
+    StepVerifier.create(tagService.getTagFacets(List.of(tag), null))
+        .assertNext(facets -> assertEquals(1L, facets.get(0).getCount()))
+        .verifyComplete();
+  }
+
+  @Test
+  void startUserDeletion_shouldDeleteRecipesInTheBackgroundAndReportProgress() {
+    var createdUser = userService.createUser(username()).block();
+    assert createdUser != null;
+    createRecipesWithReviews(createdUser.getId(), 3);
+
+    var started = userService.startUserDeletion(createdUser.getId()).block();
+    assert started != null;
+    assertEquals(DeletionStatus.RUNNING, started.getStatus());
+
+    var completed = Mono.defer(() -> userService.getUserDeletion(started.getDeletionId()))
+        .filter(deletion -> deletion.getStatus() != DeletionStatus.RUNNING)
+        .repeatWhenEmpty(repeat -> repeat.delayElements(Duration.ofMillis(50)))
+        .block(Duration.ofSeconds(10));
+
+    assert completed != null;
+    assertEquals(DeletionStatus.COMPLETED, completed.getStatus());
+    assertEquals(3L, completed.getRecipesDeleted());
+    assertEquals(6L, completed.getReviewsDeleted());
+  }
+
+  @Test
+  void resumeUserDeletions_shouldFinishADeletionItsInstanceLeftRunning() {
+    var createdUser = userService.createUser(username()).block();
+    assert createdUser != null;
+    var user = String.valueOf(createdUser.getId()).toUpperCase();
+    createRecipesWithReviews(createdUser.getId(), 3);
+    dbUserRepository.deleteById(user).block();
+
+    var orphaned = dbUserDeletionRepository.save(new DbUserDeletion()
+        .setDeletionId(UUID.randomUUID().toString())
+        .setUserId(user)
+        .setStatus(DeletionStatus.RUNNING)
+        .setUsersDeleted(1L)
+        .setStartedAt(LocalDateTime.now().minusHours(1))
+        .setUpdatedAt(LocalDateTime.now().minusHours(1))).block();
+    assert orphaned != null;
+
+    var resumed = userService.resumeUserDeletions(Duration.ofMinutes(5))
+        .filter(deletion -> deletion.getDeletionId().equals(orphaned.getDeletionId()))
+        .single()
+        .block();
+
+    assert resumed != null;
+    assertEquals(DeletionStatus.COMPLETED, resumed.getStatus());
+    assertEquals(3L, resumed.getRecipesDeleted());
+    assertEquals(0L, dbRecipeRepository.findByUserId(user).count().block());
+  }
+
+  @Test
+  void resumeUserDeletions_shouldLeaveADeletionThatIsStillMovingAlone() {
+    var running = dbUserDeletionRepository.save(new DbUserDeletion()
+        .setDeletionId(UUID.randomUUID().toString())
+        .setUserId(UUID.randomUUID().toString().toUpperCase())
+        .setStatus(DeletionStatus.RUNNING)
+        .setStartedAt(LocalDateTime.now())
+        .setUpdatedAt(LocalDateTime.now())).block();
+    assert running != null;
+
+    StepVerifier.create(userService.resumeUserDeletions(Duration.ofMinutes(5))
+            .filter(deletion -> deletion.getDeletionId().equals(running.getDeletionId())))
+        .verifyComplete();
+
+    dbUserDeletionRepository.delete(running).block();
+  }
+
+  private List<String> suggestedTitles(String prefix) {
+    return recipeService.getSuggestions(prefix, "title", 10).block().stream()
+        .map(RestSuggestion::getText)
+        .toList();
+  }
+
+  private List<String> createRecipesWithReviews(UUID userId, int count) {
+    var recipes = IntStream.range(0, count)
+        .mapToObj(i -> new UserRecipe()
+            .setTitle("Recipe " + i)
+            .setReviews(List.of(
+                new Review().setUserId("first").setRating(4),
+                new Review().setUserId("second").setRating(5))))
+        .toList();
+
+    return recipeService.createRecipes(userId, recipes)
+        .map(DbUserRecipe::getRecipeId)
+        .collectList()
+        .block();
+  }
+
   Username username() {
     return new Username()
         .setName("name")